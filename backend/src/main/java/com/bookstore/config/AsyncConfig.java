@@ -0,0 +1,14 @@
+package com.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async on Spring Boot's applicationTaskExecutor (sized via
+ * spring.task.execution.*). Used for after-commit rollup updates and
+ * background jobs.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
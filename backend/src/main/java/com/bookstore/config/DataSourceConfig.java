@@ -0,0 +1,59 @@
+package com.bookstore.config;
+
+import com.bookstore.throttle.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Puts a ConcurrencyLimitingDataSource in front of the primary connection pool
+ * (app.datasource.concurrency-limit), by default allowing as many concurrent
+ * connections as the pool holds, and publishes its active/waiting counts.
+ * Only Hikari pool beans are wrapped, so the read/write routing DataSource of
+ * ReadReplicaConfig is not limited a second time on top of its primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceConfig {
+
+    @Bean
+    static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource dataSource)) {
+                    return bean;
+                }
+                int permits = environment.getProperty("app.datasource.concurrency-limit.permits", Integer.class, 0);
+                if (permits <= 0) {
+                    permits = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                }
+                long timeoutMs = environment.getProperty("app.datasource.concurrency-limit.acquire-timeout-ms",
+                        Long.class, 2000L);
+                return new ConcurrencyLimitingDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder dataSourceConcurrencyMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof ConcurrencyLimitingDataSource limited) {
+                Gauge.builder("db.connections.limit.active", limited, ConcurrencyLimitingDataSource::getActive)
+                        .tag("name", name)
+                        .register(registry);
+                Gauge.builder("db.connections.limit.waiting", limited, ConcurrencyLimitingDataSource::getWaiting)
+                        .tag("name", name)
+                        .register(registry);
+            }
+        });
+    }
+}
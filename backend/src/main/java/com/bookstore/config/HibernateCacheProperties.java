@@ -0,0 +1,30 @@
+package com.bookstore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache regions (app.hibernate-cache). Regions are
+ * named after the cached entity class, "Entity.collection" for collections,
+ * and Hibernate's default-query-results-region / default-update-timestamps-region
+ * for the query cache. Every region Hibernate asks for must be listed here.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.hibernate-cache")
+public class HibernateCacheProperties {
+
+    private boolean enabled = true;
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        // Entries kept on heap before the least recently used are evicted
+        private long maxEntries = 1000;
+        // Time to live after an entry is written; never expires when unset
+        private Duration ttl;
+    }
+}
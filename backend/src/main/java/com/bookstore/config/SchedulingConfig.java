@@ -0,0 +1,12 @@
+package com.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance jobs (order partitions, archive).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
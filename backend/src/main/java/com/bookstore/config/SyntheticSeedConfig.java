@@ -0,0 +1,44 @@
+package com.bookstore.config;
+
+import com.bookstore.seed.SyntheticSeedProperties;
+import com.bookstore.seed.SyntheticSeeder;
+import com.bookstore.service.OrderPartitionService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+
+/**
+ * The synthetic-seed profile runs the application as a one-off command: it
+ * fills an empty database with the synthetic dataset (app.synthetic-seed)
+ * and exits.
+ *
+ * java -jar backend.jar --spring.profiles.active=synthetic-seed --app.synthetic-seed.books=5000000
+ */
+@Configuration
+@Profile("synthetic-seed")
+@EnableConfigurationProperties(SyntheticSeedProperties.class)
+public class SyntheticSeedConfig {
+
+    @Bean
+    public SyntheticSeeder syntheticSeeder(DataSource dataSource, SyntheticSeedProperties properties,
+                                           PasswordEncoder passwordEncoder,
+                                           OrderPartitionService orderPartitionService) {
+        return new SyntheticSeeder(dataSource, properties, passwordEncoder, orderPartitionService);
+    }
+
+    @Bean
+    public CommandLineRunner syntheticSeedRunner(SyntheticSeeder syntheticSeeder,
+                                                 ConfigurableApplicationContext context) {
+        return args -> {
+            syntheticSeeder.seed();
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
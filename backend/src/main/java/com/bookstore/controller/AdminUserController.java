@@ -0,0 +1,45 @@
+/**
+ * AdminUserController - Admin account maintenance.
+ * 
+ * Endpoints:
+ * - POST /api/admin/users/deletion-jobs - Delete or anonymize many accounts in the background
+ * - GET /api/admin/users/deletion-jobs/{jobId} - Progress of a deletion job
+ */
+package com.bookstore.controller;
+
+import com.bookstore.dto.AccountDeletionJobDto;
+import com.bookstore.dto.AccountDeletionRequest;
+import com.bookstore.service.AccountDeletionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Tag(name = "Admin Users", description = "Endpoints for bulk account maintenance")
+public class AdminUserController {
+
+    private final AccountDeletionService accountDeletionService;
+
+    @PostMapping("/deletion-jobs")
+    @Operation(summary = "Start a batch account deletion or anonymization job")
+    public ResponseEntity<AccountDeletionJobDto> startDeletionJob(
+            @Valid @RequestBody AccountDeletionRequest request) {
+        AccountDeletionJobDto job = accountDeletionService.createJob(request);
+        accountDeletionService.runJob(job.getJobId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/deletion-jobs/{jobId}")
+    @Operation(summary = "Get the progress of an account deletion job")
+    public ResponseEntity<AccountDeletionJobDto> getDeletionJob(@PathVariable String jobId) {
+        return accountDeletionService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
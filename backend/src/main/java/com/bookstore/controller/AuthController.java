@@ -3,22 +3,33 @@
  * 
  * Endpoints:
  * - POST /api/auth/register - Register new user account
- * - POST /api/auth/login - Authenticate user and return JWT token
+ * - POST /api/auth/login - Authenticate user and return access and refresh tokens
+ * - POST /api/auth/refresh - Exchange a refresh token for new access and refresh tokens
+ * - POST /api/auth/logout - Revoke the refresh token's session and the current access token
+ *
+ * Registration and login run on the password hashing pool (BCrypt), answering
+ * 503 when it is saturated.
  */
 package com.bookstore.controller;
 
 import com.bookstore.dto.JwtResponse;
 import com.bookstore.dto.LoginRequest;
+import com.bookstore.dto.RefreshTokenRequest;
 import com.bookstore.dto.RegisterRequest;
+import com.bookstore.security.PasswordHashingExecutor;
+import com.bookstore.security.UserPrincipal;
 import com.bookstore.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -26,6 +37,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final com.bookstore.service.CaptchaService captchaService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @org.springframework.web.bind.annotation.GetMapping("/captcha")
     public ResponseEntity<com.bookstore.dto.CaptchaResponse> getCaptcha() {
@@ -33,18 +45,30 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<String> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<String>> register(@Valid @RequestBody RegisterRequest request) {
         if (!captchaService.validateCaptcha(request.getCaptchaId(), request.getCaptchaAnswer())) {
-            return ResponseEntity.badRequest().body("Invalid CAPTCHA");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Invalid CAPTCHA"));
         }
-        return ResponseEntity.ok(authService.register(request));
+        return passwordHashingExecutor.submit(() -> ResponseEntity.ok(authService.register(request)));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<JwtResponse> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<JwtResponse>> login(@Valid @RequestBody LoginRequest request) {
         if (!captchaService.validateCaptcha(request.getCaptchaId(), request.getCaptchaAnswer())) {
             throw new IllegalArgumentException("Invalid CAPTCHA");
         }
-        return ResponseEntity.ok(authService.login(request));
+        return passwordHashingExecutor.submit(() -> ResponseEntity.ok(authService.login(request)));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest request,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        authService.logout(request != null ? request.getRefreshToken() : null, principal);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -7,11 +7,13 @@
  * - POST /api/admin/books - Create new book (admin only)
  * - PUT /api/admin/books/{id} - Update book (admin only)
  * - DELETE /api/admin/books/{id} - Delete book (admin only)
+ * - POST /api/admin/books/ratings/repair - Verify and repair rating aggregates (admin only)
  */
 package com.bookstore.controller;
 
+import com.bookstore.dto.BookDto;
 import com.bookstore.dto.BookRequest;
-import com.bookstore.entity.Book;
+import com.bookstore.service.BookRatingService;
 import com.bookstore.service.BookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -23,15 +25,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 public class BookController {
 
     private final BookService bookService;
+    private final BookRatingService bookRatingService;
 
     @GetMapping("/api/books")
-    public ResponseEntity<Page<Book>> getAllBooks(
+    public ResponseEntity<Page<BookDto>> getAllBooks(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
@@ -41,19 +45,19 @@ public class BookController {
     }
 
     @GetMapping("/api/books/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+    public ResponseEntity<BookDto> getBookById(@PathVariable Long id) {
         return ResponseEntity.ok(bookService.getBookById(id));
     }
 
     // Admin endpoints
 
     @PostMapping("/api/admin/books")
-    public ResponseEntity<Book> createBook(@Valid @RequestBody BookRequest request) {
+    public ResponseEntity<BookDto> createBook(@Valid @RequestBody BookRequest request) {
         return ResponseEntity.ok(bookService.createBook(request));
     }
 
     @PutMapping("/api/admin/books/{id}")
-    public ResponseEntity<Book> updateBook(@PathVariable Long id, @Valid @RequestBody BookRequest request) {
+    public ResponseEntity<BookDto> updateBook(@PathVariable Long id, @Valid @RequestBody BookRequest request) {
         return ResponseEntity.ok(bookService.updateBook(id, request));
     }
 
@@ -62,4 +66,9 @@ public class BookController {
         bookService.deleteBook(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/api/admin/books/ratings/repair")
+    public ResponseEntity<Map<String, Integer>> repairRatings() {
+        return ResponseEntity.ok(Map.of("booksRepaired", bookRatingService.repairAggregates()));
+    }
 }
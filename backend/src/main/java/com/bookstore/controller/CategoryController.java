@@ -8,8 +8,8 @@
  */
 package com.bookstore.controller;
 
+import com.bookstore.dto.CategoryDto;
 import com.bookstore.dto.CategoryRequest;
-import com.bookstore.entity.Category;
 import com.bookstore.service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,19 +25,19 @@ public class CategoryController {
     private final CategoryService categoryService;
 
     @GetMapping("/api/categories")
-    public ResponseEntity<List<Category>> getAllCategories() {
+    public ResponseEntity<List<CategoryDto>> getAllCategories() {
         return ResponseEntity.ok(categoryService.getAllCategories());
     }
 
     // Admin endpoints
 
     @PostMapping("/api/admin/categories")
-    public ResponseEntity<Category> createCategory(@Valid @RequestBody CategoryRequest request) {
+    public ResponseEntity<CategoryDto> createCategory(@Valid @RequestBody CategoryRequest request) {
         return ResponseEntity.ok(categoryService.createCategory(request));
     }
 
     @PutMapping("/api/admin/categories/{id}")
-    public ResponseEntity<Category> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryRequest request) {
+    public ResponseEntity<CategoryDto> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryRequest request) {
         return ResponseEntity.ok(categoryService.updateCategory(id, request));
     }
 
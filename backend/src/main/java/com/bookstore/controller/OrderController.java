@@ -2,26 +2,33 @@
  * OrderController - REST API for order management.
  * 
  * Endpoints:
- * - GET /api/orders - Get user's order history
+ * - GET /api/orders - Get user's order history (newest first, no total count)
  * - GET /api/orders/{id} - Get single order details
  * - POST /api/orders - Create new order from cart
+ * - GET /api/admin/orders/search - Filtered, keyset-paginated order search (admin)
+ * - GET /api/admin/orders/export - Stream filtered orders as CSV (admin)
  * - PUT /api/admin/orders/{id}/status - Update order status (admin)
  */
 package com.bookstore.controller;
 
+import com.bookstore.dto.OrderDto;
 import com.bookstore.dto.OrderRequest;
-import com.bookstore.entity.Order;
+import com.bookstore.dto.OrderSearchCriteria;
+import com.bookstore.dto.OrderSearchResponse;
 import com.bookstore.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
@@ -31,36 +38,52 @@ public class OrderController {
     private final OrderService orderService;
 
     @PostMapping("/api/orders")
-    public ResponseEntity<Order> placeOrder(@Valid @RequestBody OrderRequest request, Authentication authentication) {
+    public ResponseEntity<OrderDto> placeOrder(@Valid @RequestBody OrderRequest request, Authentication authentication) {
         return ResponseEntity.ok(orderService.placeOrder(authentication.getName(), request));
     }
 
     @GetMapping("/api/orders")
-    public ResponseEntity<Page<Order>> getUserOrders(
+    public ResponseEntity<Slice<OrderDto>> getUserOrders(
             Authentication authentication,
             @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         System.out.println("DEBUG: Fetching orders for user: " + authentication.getName());
-        Page<Order> orders = orderService.getUserOrders(authentication.getName(), pageable);
+        Slice<OrderDto> orders = orderService.getUserOrders(authentication.getName(), pageable);
         System.out
-                .println("DEBUG: Found " + orders.getTotalElements() + " orders for user " + authentication.getName());
+                .println("DEBUG: Found " + orders.getNumberOfElements() + " orders for user " + authentication.getName());
         return ResponseEntity.ok(orders);
     }
 
     @GetMapping("/api/orders/{id}")
-    public ResponseEntity<Order> getOrder(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<OrderDto> getOrder(@PathVariable Long id, Authentication authentication) {
         return ResponseEntity.ok(orderService.getOrder(authentication.getName(), id));
     }
 
     // Admin endpoints
 
     @GetMapping("/api/admin/orders")
-    public ResponseEntity<Page<Order>> getAllOrders(
+    public ResponseEntity<Page<OrderDto>> getAllOrders(
             @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         return ResponseEntity.ok(orderService.getAllOrders(pageable));
     }
 
+    @GetMapping("/api/admin/orders/search")
+    public ResponseEntity<OrderSearchResponse> searchOrders(
+            OrderSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.searchOrders(criteria, cursor, size));
+    }
+
+    @GetMapping("/api/admin/orders/export")
+    public void exportOrders(OrderSearchCriteria criteria, HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"orders.csv\"");
+        orderService.exportOrdersCsv(criteria, response.getWriter());
+    }
+
     @PutMapping("/api/admin/orders/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> statusMap) {
+    public ResponseEntity<OrderDto> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> statusMap) {
         String status = statusMap.get("status");
         return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
     }
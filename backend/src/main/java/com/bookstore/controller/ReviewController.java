@@ -3,14 +3,16 @@
  * 
  * Endpoints:
  * - GET /api/books/{id}/reviews - Get reviews for a book
+ * - GET /api/books/{id}/reviews/summary - Rating histogram, average, count and newest reviews
  * - POST /api/books/{id}/reviews - Add review (purchase required)
  * - PUT /api/reviews/{id} - Update own review
  * - DELETE /api/reviews/{id} - Delete own review
  */
 package com.bookstore.controller;
 
+import com.bookstore.dto.ReviewDto;
 import com.bookstore.dto.ReviewRequest;
-import com.bookstore.entity.Review;
+import com.bookstore.dto.ReviewSummaryDto;
 import com.bookstore.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -29,14 +31,23 @@ public class ReviewController {
     private final ReviewService reviewService;
 
     @GetMapping("/api/books/{bookId}/reviews")
-    public ResponseEntity<Page<Review>> getReviews(
+    public ResponseEntity<Page<ReviewDto>> getReviews(
             @PathVariable Long bookId,
             @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         return ResponseEntity.ok(reviewService.getReviewsByBook(bookId, pageable));
     }
 
+    @GetMapping("/api/books/{bookId}/reviews/summary")
+    public ResponseEntity<ReviewSummaryDto> getReviewSummary(
+            @PathVariable Long bookId,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        String viewer = authentication != null ? authentication.getName() : null;
+        return ResponseEntity.ok(reviewService.getReviewSummary(bookId, viewer, size));
+    }
+
     @PostMapping("/api/books/{bookId}/reviews")
-    public ResponseEntity<Review> createReview(
+    public ResponseEntity<ReviewDto> createReview(
             @PathVariable Long bookId,
             @Valid @RequestBody ReviewRequest request,
             Authentication authentication) {
@@ -44,7 +55,7 @@ public class ReviewController {
     }
 
     @PutMapping("/api/books/{bookId}/reviews/{reviewId}")
-    public ResponseEntity<Review> updateReview(
+    public ResponseEntity<ReviewDto> updateReview(
             @PathVariable Long bookId, // Not used but part of path
             @PathVariable Long reviewId,
             @Valid @RequestBody ReviewRequest request,
@@ -0,0 +1,56 @@
+/**
+ * StatsController - Admin sales analytics.
+ * 
+ * Endpoints:
+ * - GET /api/admin/stats - Sales totals per bucket, by category and by payment provider
+ * - POST /api/admin/stats/backfill - Rebuild rollups for up to a year of order history (one at a time)
+ */
+package com.bookstore.controller;
+
+import com.bookstore.dto.SalesStatsDto;
+import com.bookstore.entity.RollupGranularity;
+import com.bookstore.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final SalesRollupService salesRollupService;
+
+    @GetMapping
+    public ResponseEntity<?> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid date range"));
+        }
+        SalesStatsDto stats = salesRollupService.getStats(start, end, granularity);
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<?> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to) || from.plusDays(SalesRollupService.MAX_BACKFILL_DAYS).isBefore(to.plusDays(1))) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid date range"));
+        }
+        salesRollupService.rebuild(from, to);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "Backfill started", "from", from, "to", to));
+    }
+}
@@ -4,14 +4,16 @@
  * Endpoints:
  * - GET /api/users/me - Get current user profile
  * - PUT /api/users/me - Update profile information
- * - PUT /api/users/me/password - Change password
+ * - PUT /api/users/me/password - Change password (returns a new token, older ones are revoked)
  * - DELETE /api/users/me - Delete own account
  */
 package com.bookstore.controller;
 
 import com.bookstore.dto.ChangePasswordRequest;
+import com.bookstore.dto.JwtResponse;
 import com.bookstore.dto.UpdateProfileRequest;
 import com.bookstore.dto.UserProfileDto;
+import com.bookstore.security.PasswordHashingExecutor;
 import com.bookstore.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +24,8 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -29,6 +33,7 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @GetMapping("/me")
     @Operation(summary = "Get current user profile")
@@ -46,11 +51,11 @@ public class UserController {
 
     @PutMapping("/me/password")
     @Operation(summary = "Change password")
-    public ResponseEntity<String> changePassword(
+    public CompletableFuture<ResponseEntity<JwtResponse>> changePassword(
             @AuthenticationPrincipal UserDetails userDetails,
             @Valid @RequestBody ChangePasswordRequest request) {
-        userService.changePassword(userDetails.getUsername(), request);
-        return ResponseEntity.ok("Password changed successfully");
+        String email = userDetails.getUsername();
+        return passwordHashingExecutor.submit(() -> ResponseEntity.ok(userService.changePassword(email, request)));
     }
 
     @DeleteMapping("/me")
@@ -0,0 +1,62 @@
+package com.bookstore.datasource;
+
+import com.bookstore.security.UserPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a user's reads on the primary for a short while after they committed
+ * a write, so they see their own change even if the replicas lag behind.
+ * Only this node knows; a request served by another node may still read
+ * from a replica.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private static final int MAX_TRACKED_USERS = 100_000;
+
+    private final long windowNanos;
+    private final Map<Long, Long> lastWrite = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (userId != null) {
+            long now = System.nanoTime();
+            if (lastWrite.size() >= MAX_TRACKED_USERS) {
+                lastWrite.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+            }
+            lastWrite.put(userId, now);
+        }
+    }
+
+    /**
+     * Whether the current user wrote recently enough to read from the primary.
+     */
+    public boolean currentUserWroteRecently() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWrite.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt <= windowNanos;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                ? principal.getId() : null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.bookstore.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas as one DataSource. Connections are handed out round-robin
+ * over the replicas currently considered healthy; a replica that cannot hand
+ * one out in time is skipped for that request. Whether a replica is healthy is
+ * decided only by the periodic check, on a fresh connection outside its pool
+ * so a merely busy pool does not count as down: the connection must be valid
+ * and, on PostgreSQL with max-lag-seconds set, replay must not lag further
+ * behind. With no healthy replica, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaPool extends AbstractDataSource implements AutoCloseable {
+
+    // Time since the last replayed commit is only lag while there is WAL left to
+    // replay; a caught-up replica on an idle primary is not behind at all
+    private static final String LAG_SQL = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(List<HikariDataSource> replicas, DataSource primary, long maxLagSeconds) {
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    public int healthyCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            String problem = probe(replica.dataSource);
+            if (problem == null && !replica.healthy) {
+                replica.healthy = true;
+                log.info("Replica {} is back in rotation", replica.dataSource.getJdbcUrl());
+            } else if (problem != null && replica.healthy) {
+                replica.healthy = false;
+                log.warn("Replica {} taken out of rotation: {}", replica.dataSource.getJdbcUrl(), problem);
+            }
+        }
+    }
+
+    private Connection connect(ConnectionOpener opener) throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return opener.open(replica.dataSource);
+            } catch (SQLException e) {
+                log.debug("Replica {} handed out no connection: {}", replica.dataSource.getJdbcUrl(), e.getMessage());
+            }
+        }
+        return opener.open(primary);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    // null when healthy, otherwise why not
+    private String probe(HikariDataSource dataSource) {
+        try (Connection connection = DriverManager.getConnection(dataSource.getJdbcUrl(),
+                dataSource.getUsername(), dataSource.getPassword())) {
+            if (!connection.isValid(2)) {
+                return "connection not valid";
+            }
+            if (maxLagSeconds > 0 && connection.getMetaData().getDatabaseProductName().equals("PostgreSQL")) {
+                try (Statement statement = connection.createStatement();
+                        ResultSet lag = statement.executeQuery(LAG_SQL)) {
+                    if (lag.next() && lag.getDouble(1) > maxLagSeconds) {
+                        return "replication lag " + Math.round(lag.getDouble(1)) + " s";
+                    }
+                }
+            }
+            return null;
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.bookstore.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas (app.datasource.replicas) and how reads are routed to them.
+ * Routing is only set up when at least one replica is configured.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+    private Routing routing = new Routing();
+
+    @Data
+    public static class Replica {
+        private String url;
+        // Default to the primary's credentials when unset
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+
+    @Data
+    public static class Routing {
+        private long healthCheckMs = 5000;
+        // Replicas further behind than this are skipped; 0 = no lag check (PostgreSQL only)
+        private long maxLagSeconds = 0;
+        // How long a user's reads stay on the primary after their own write
+        private long readYourWritesMs = 5000;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bookstore.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class AccountDeletionJobDto {
+    private String jobId;
+    private AccountDeletionRequest.Mode mode;
+    private String status;
+    private int total;
+    private int processed;
+    private int failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<String> errors;
+}
@@ -0,0 +1,22 @@
+package com.bookstore.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AccountDeletionRequest {
+    @NotEmpty
+    @Size(max = 10_000)
+    private List<Long> userIds;
+    @NotNull
+    private Mode mode;
+
+    public enum Mode {
+        DELETE,
+        ANONYMIZE
+    }
+}
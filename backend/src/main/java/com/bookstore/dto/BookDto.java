@@ -0,0 +1,44 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.Book;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookDto {
+    private Long id;
+    private String title;
+    private String author;
+    private String description;
+    private String isbn;
+    private BigDecimal price;
+    private String coverImageUrl;
+    private Integer stockQuantity;
+    private CategoryDto category;
+    private Double ratingAverage;
+    private Integer ratingCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static BookDto from(Book book) {
+        return BookDto.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .description(book.getDescription())
+                .isbn(book.getIsbn())
+                .price(book.getPrice())
+                .coverImageUrl(book.getCoverImageUrl())
+                .stockQuantity(book.getStockQuantity())
+                .category(book.getCategory() != null ? CategoryDto.from(book.getCategory()) : null)
+                .ratingAverage(book.getRatingAverage())
+                .ratingCount(book.getRatingCount())
+                .createdAt(book.getCreatedAt())
+                .updatedAt(book.getUpdatedAt())
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookstore.dto;
 
+import com.bookstore.entity.Cart;
 import lombok.Builder;
 import lombok.Data;
 
@@ -12,4 +13,17 @@ public class CartDto {
     private Long id;
     private List<CartItemDto> items;
     private BigDecimal totalAmount;
+
+    public static CartDto from(Cart cart) {
+        List<CartItemDto> items = cart.getItems().stream().map(CartItemDto::from).toList();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItemDto item : items) {
+            total = total.add(item.getSubtotal());
+        }
+        return CartDto.builder()
+                .id(cart.getId())
+                .items(items)
+                .totalAmount(total)
+                .build();
+    }
 }
@@ -1,5 +1,6 @@
 package com.bookstore.dto;
 
+import com.bookstore.entity.CartItem;
 import lombok.Builder;
 import lombok.Data;
 
@@ -15,4 +16,16 @@ public class CartItemDto {
     private Integer quantity;
     private BigDecimal unitPrice;
     private BigDecimal subtotal;
+
+    public static CartItemDto from(CartItem item) {
+        return CartItemDto.builder()
+                .id(item.getId())
+                .bookId(item.getBook().getId())
+                .bookTitle(item.getBook().getTitle())
+                .coverImageUrl(item.getBook().getCoverImageUrl())
+                .quantity(item.getQuantity())
+                .unitPrice(item.getBook().getPrice())
+                .subtotal(item.getBook().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .build();
+    }
 }
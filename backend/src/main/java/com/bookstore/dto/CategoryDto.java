@@ -0,0 +1,23 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.Category;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CategoryDto {
+    private Long id;
+    private String name;
+    private String slug;
+    private String description;
+
+    public static CategoryDto from(Category category) {
+        return CategoryDto.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .slug(category.getSlug())
+                .description(category.getDescription())
+                .build();
+    }
+}
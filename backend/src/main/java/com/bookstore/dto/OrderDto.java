@@ -0,0 +1,50 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.Address;
+import com.bookstore.entity.Order;
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.entity.PaymentStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order with its items, the customer reduced to id and email. Built while the
+ * order's transaction is still open, since the items load lazily.
+ */
+@Data
+@Builder
+public class OrderDto {
+    private Long id;
+    private Long userId;
+    private String userEmail;
+    private List<OrderItemDto> orderItems;
+    private BigDecimal totalAmount;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private String paymentProvider;
+    private String paymentReference;
+    private Address shippingAddress;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static OrderDto from(Order order) {
+        return OrderDto.builder()
+                .id(order.getId())
+                .userId(order.getUser() != null ? order.getUser().getId() : null)
+                .userEmail(order.getUser() != null ? order.getUser().getEmail() : null)
+                .orderItems(order.getOrderItems().stream().map(OrderItemDto::from).toList())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .paymentProvider(order.getPaymentProvider())
+                .paymentReference(order.getPaymentReference())
+                .shippingAddress(order.getShippingAddress())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+}
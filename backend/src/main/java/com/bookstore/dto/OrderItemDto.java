@@ -0,0 +1,31 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.OrderItem;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class OrderItemDto {
+    private Long id;
+    private Long bookId;
+    private String bookTitle;
+    private String bookCover;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private BigDecimal subtotal;
+
+    public static OrderItemDto from(OrderItem item) {
+        return OrderItemDto.builder()
+                .id(item.getId())
+                .bookId(item.getBookId())
+                .bookTitle(item.getBookTitle())
+                .bookCover(item.getBookCover())
+                .unitPrice(item.getUnitPrice())
+                .quantity(item.getQuantity())
+                .subtotal(item.getSubtotal())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.entity.PaymentStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class OrderSearchCriteria {
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from; // inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to; // exclusive
+    private String email;
+    private BigDecimal minTotal;
+}
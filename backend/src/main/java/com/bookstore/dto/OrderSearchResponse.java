@@ -0,0 +1,13 @@
+package com.bookstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderSearchResponse {
+    private List<OrderSummaryDto> items;
+    private String nextCursor; // null on the last page
+}
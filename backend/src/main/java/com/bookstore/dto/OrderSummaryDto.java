@@ -0,0 +1,22 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.entity.PaymentStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class OrderSummaryDto {
+    private Long id;
+    private Long userId;
+    private String userEmail;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private String paymentProvider;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+}
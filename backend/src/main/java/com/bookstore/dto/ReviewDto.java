@@ -0,0 +1,50 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.Review;
+import com.bookstore.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight review view: the reviewer's display name instead of the full
+ * User entity, the book id instead of the full Book entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewDto {
+    private Long id;
+    private Long bookId;
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Author user;
+    private boolean mine;
+
+    // Used by JPQL constructor expressions
+    public ReviewDto(Long id, Long bookId, Integer rating, String comment, LocalDateTime createdAt,
+            LocalDateTime updatedAt, Long userId, String firstName, String lastName, Boolean mine) {
+        this(id, bookId, rating, comment, createdAt, updatedAt, new Author(userId, firstName, lastName),
+                Boolean.TRUE.equals(mine));
+    }
+
+    public static ReviewDto from(Review review, boolean mine) {
+        User user = review.getUser();
+        return new ReviewDto(review.getId(), review.getBook().getId(), review.getRating(), review.getComment(),
+                review.getCreatedAt(), review.getUpdatedAt(),
+                new Author(user.getId(), user.getFirstName(), user.getLastName()), mine);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Author {
+        private Long id;
+        private String firstName;
+        private String lastName;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bookstore.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class ReviewSummaryDto {
+    private Long bookId;
+    private Double ratingAverage;
+    private Integer ratingCount;
+    private Map<Integer, Integer> histogram; // stars (1-5) -> number of reviews
+    private List<ReviewDto> reviews;
+    private boolean hasMore;
+}
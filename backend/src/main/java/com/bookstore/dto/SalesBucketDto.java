@@ -0,0 +1,19 @@
+package com.bookstore.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class SalesBucketDto {
+    private LocalDateTime bucketStart;
+    private String key;
+    private String label;
+    private BigDecimal revenue;
+    private Long orderCount;
+    private Long unitsSold;
+    private BigDecimal averageOrderValue;
+}
@@ -0,0 +1,19 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.RollupGranularity;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class SalesStatsDto {
+    private RollupGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<SalesBucketDto> totals;
+    private List<SalesBucketDto> byCategory;
+    private List<SalesBucketDto> byPaymentProvider;
+}
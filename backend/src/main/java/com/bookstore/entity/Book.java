@@ -3,6 +3,8 @@
  * 
  * Contains book information including title, author, price, description,
  * cover image URL, category, stock, and average rating from reviews.
+ * Rating aggregates are maintained by BookRatingService delta updates only,
+ * and stock by BookStockService conditional updates only.
  */
 package com.bookstore.entity;
 
@@ -11,6 +13,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -18,7 +23,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_category_created", columnList = "category_id, created_at DESC"),
+        @Index(name = "idx_books_created", columnList = "created_at DESC"),
+        @Index(name = "idx_books_price", columnList = "price")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,7 +37,8 @@ import java.time.LocalDateTime;
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -45,16 +57,53 @@ public class Book {
 
     private String coverImageUrl;
 
-    @Column(nullable = false)
+    // Never written by entity updates, only by BookStockService: a cached copy may be stale
+    @Column(nullable = false, updatable = false)
     private Integer stockQuantity;
 
     @ManyToOne
     @JoinColumn(name = "category_id")
     private Category category;
 
+    // Rating aggregates: never written by entity updates, only by BookRatingService
+    @Column(updatable = false)
+    @ColumnDefault("0")
     private Double ratingAverage;
+
+    @Column(updatable = false)
+    @ColumnDefault("0")
     private Integer ratingCount;
 
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_1", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer rating1 = 0;
+
+    @Column(name = "rating_2", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer rating2 = 0;
+
+    @Column(name = "rating_3", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer rating3 = 0;
+
+    @Column(name = "rating_4", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer rating4 = 0;
+
+    @Column(name = "rating_5", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer rating5 = 0;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -11,7 +11,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -20,7 +20,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at DESC"),
+        @Index(name = "idx_orders_created_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at DESC, id DESC"),
+        @Index(name = "idx_orders_payment_status_created", columnList = "payment_status, created_at DESC, id DESC")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,7 +33,8 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -54,9 +60,19 @@ public class Order {
     @Embedded
     private Address shippingAddress;
 
-    @CreationTimestamp
+    // Partition column: added to Hibernate's UPDATE and DELETE statements so they hit one partition
+    @PartitionKey
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Not @CreationTimestamp: that is only filled in at insert, after persist has cascaded
+    // to the items, which copy createdAt into their foreign key to this order
+    @PrePersist
+    void stampCreatedAt() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
 }
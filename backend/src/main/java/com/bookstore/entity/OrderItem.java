@@ -14,9 +14,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order", columnList = "order_id"),
+        @Index(name = "idx_order_items_book_order", columnList = "book_id, order_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -24,7 +28,8 @@ import java.math.BigDecimal;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -32,10 +37,22 @@ public class OrderItem {
     @JsonIgnore
     private Order order;
 
+    // With order_id, the foreign key into orders, whose key includes the partition column
+    @Column(name = "order_created_at", nullable = false)
+    @JsonIgnore
+    private LocalDateTime orderCreatedAt;
+
     private Long bookId;
     private String bookTitle;
     private String bookCover; // Store cover image URL
     private BigDecimal unitPrice;
     private Integer quantity;
     private BigDecimal subtotal;
+
+    @PrePersist
+    void copyOrderCreatedAt() {
+        if (order != null) {
+            orderCreatedAt = order.getCreatedAt();
+        }
+    }
 }
@@ -0,0 +1,30 @@
+/**
+ * RateLimitBucket Entity - Shared rate limit state for one client and route.
+ * 
+ * Only used by the shared (jdbc) rate limit store. The bucket is kept as its
+ * theoretical arrival time: the instant, in epoch nanoseconds, at which the
+ * bucket will be full again. Rows whose time has passed are idle and purged.
+ */
+package com.bookstore.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "rate_limit_buckets", indexes = {
+        @Index(name = "idx_rate_limit_buckets_tat", columnList = "tat")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+
+    @Id
+    @Column(length = 200)
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private long tat;
+}
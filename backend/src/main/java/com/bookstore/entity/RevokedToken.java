@@ -0,0 +1,31 @@
+/**
+ * RevokedToken Entity - An access token revoked before its expiry (logout).
+ * 
+ * Kept until the token would have expired anyway; the ids are mirrored in an
+ * in-memory Bloom filter so requests only reach this table on a filter hit.
+ */
+package com.bookstore.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,13 @@
+/**
+ * RollupDimension Enum - What a sales rollup row is broken down by.
+ * TOTAL: all orders (key "ALL").
+ * CATEGORY: book category id of the order lines.
+ * PAYMENT_PROVIDER: the order's payment provider.
+ */
+package com.bookstore.entity;
+
+public enum RollupDimension {
+    TOTAL,
+    CATEGORY,
+    PAYMENT_PROVIDER
+}
@@ -0,0 +1,10 @@
+/**
+ * RollupGranularity Enum - Bucket width of a sales rollup row.
+ * HOUR: one bucket per clock hour. DAY: one bucket per calendar day.
+ */
+package com.bookstore.entity;
+
+public enum RollupGranularity {
+    HOUR,
+    DAY
+}
@@ -0,0 +1,37 @@
+/**
+ * SalesRollup Entity - Pre-aggregated sales for one time bucket.
+ * 
+ * Holds revenue, order count and units sold per hour/day and per
+ * dimension (total, category, payment provider). Maintained incrementally
+ * as orders commit, so dashboards read O(buckets) rows, not O(orders).
+ */
+package com.bookstore.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "sales_rollups")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+
+    @EmbeddedId
+    private SalesRollupId id;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false)
+    private Long unitsSold;
+}
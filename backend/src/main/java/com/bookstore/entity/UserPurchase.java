@@ -0,0 +1,26 @@
+/**
+ * UserPurchase Entity - Records that a user has bought a book.
+ * 
+ * One row per (user, book), written when an order is placed. Lets review
+ * creation verify a purchase with a primary-key lookup instead of scanning
+ * the user's order history (which may also have been archived).
+ */
+package com.bookstore.entity;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "user_purchases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPurchase {
+
+    @EmbeddedId
+    private UserPurchaseId id;
+}
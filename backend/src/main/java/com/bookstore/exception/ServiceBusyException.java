@@ -0,0 +1,19 @@
+package com.bookstore.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the request is shed instead
+ * of queued; answered with 503 Service Unavailable and a Retry-After.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,10 +1,13 @@
 package com.bookstore.repository;
 
 import com.bookstore.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +16,11 @@ import java.math.BigDecimal;
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    // Listing only: loaded read-only, so Hibernate keeps no dirty-checking snapshots, and never flushes first
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
     @Query("SELECT b FROM Book b WHERE " +
             "(:categoryId IS NULL OR b.category.id = :categoryId) AND " +
             "(:minPrice IS NULL OR b.price >= :minPrice) AND " +
@@ -25,4 +33,8 @@ public interface BookRepository extends JpaRepository<Book, Long> {
             Pageable pageable);
 
     java.util.List<Book> findByTitleContainingIgnoreCase(String title);
+
+    // [isbn, title, author] of every book, for deduplicating catalog imports in memory
+    @Query("SELECT b.isbn, b.title, b.author FROM Book b")
+    java.util.List<Object[]> findCatalogKeys();
 }
@@ -3,6 +3,9 @@ package com.bookstore.repository;
 import com.bookstore.entity.Cart;
 import com.bookstore.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +15,8 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUser(User user);
 
     Optional<Cart> findByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
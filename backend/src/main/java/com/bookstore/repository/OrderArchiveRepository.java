@@ -0,0 +1,37 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.OrderArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderArchiveRepository extends JpaRepository<OrderArchive, Long> {
+
+    long countByUserId(Long userId);
+
+    Optional<OrderArchive> findByIdAndUserId(Long id, Long userId);
+
+    // Archived orders are always older than hot ones, so they continue a newest-first listing
+    @Query(value = "SELECT * FROM orders_archive WHERE user_id = :userId " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<OrderArchive> findUserPage(@Param("userId") Long userId,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
+
+    @Query(value = "SELECT COUNT(*) > 0 FROM orders_archive WHERE created_at >= :from AND created_at < :to",
+            nativeQuery = true)
+    boolean existsInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM OrderArchive a WHERE a.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    List<OrderArchive> findByUserId(Long userId);
+}
@@ -1,17 +1,71 @@
 package com.bookstore.repository;
 
 import com.bookstore.entity.Order;
-import com.bookstore.entity.User;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    Page<Order> findByUser(User user, Pageable pageable); // Corrected to use Page
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository {
+    // Every lookup below carries a created_at bound, so Postgres prunes the monthly
+    // partitions outside it instead of probing each one's index
+    @Query("SELECT o FROM Order o WHERE o.id = :id AND o.createdAt >= :since")
+    Optional<Order> findByIdCreatedSince(@Param("id") Long id, @Param("since") LocalDateTime since);
 
-    List<Order> findByUser(User user);
+    // Order history pages, newest first; read-only entities, no auto-flush
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(value = "SELECT * FROM orders WHERE user_id = :userId AND created_at >= :since " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Order> findUserPageCreatedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+            @Param("limit") int limit, @Param("offset") long offset);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(value = "SELECT * FROM orders WHERE user_id = :userId AND created_at < :before " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Order> findUserPageCreatedBefore(@Param("userId") Long userId, @Param("before") LocalDateTime before,
+            @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND o.createdAt >= :since")
+    long countByUserIdCreatedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND o.createdAt < :before")
+    long countByUserIdCreatedBefore(@Param("userId") Long userId, @Param("before") LocalDateTime before);
+
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems " +
+            "WHERE o.id IN :ids AND o.createdAt BETWEEN :from AND :to")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") List<Long> ids, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId ORDER BY o.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteItemsByOrderIdIn(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :orderIds")
+    int deleteByIdIn(@Param("orderIds") List<Long> orderIds);
+
+    // Keeps the financial record, drops where it was shipped to
+    @Modifying
+    @Query("UPDATE Order o SET o.shippingAddress.line1 = NULL, o.shippingAddress.line2 = NULL, " +
+            "o.shippingAddress.city = NULL, o.shippingAddress.postcode = NULL WHERE o.user.id = :userId")
+    int anonymizeByUserId(@Param("userId") Long userId);
 }
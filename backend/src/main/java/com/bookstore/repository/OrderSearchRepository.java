@@ -0,0 +1,19 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.OrderSearchCriteria;
+import com.bookstore.dto.OrderSearchCursor;
+import com.bookstore.dto.OrderSummaryDto;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Admin order search over flat rows (no Order/User entities are loaded).
+ * Results are ordered newest first by (createdAt, id).
+ */
+public interface OrderSearchRepository {
+
+    List<OrderSummaryDto> search(OrderSearchCriteria criteria, OrderSearchCursor after, int limit);
+
+    void streamSearch(OrderSearchCriteria criteria, Consumer<OrderSummaryDto> consumer);
+}
@@ -0,0 +1,108 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.OrderSearchCriteria;
+import com.bookstore.dto.OrderSearchCursor;
+import com.bookstore.dto.OrderSummaryDto;
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.entity.PaymentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public OrderSearchRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        // Postgres only streams with a fetch size inside a transaction; otherwise
+        // the driver materialises the whole result set.
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    @Override
+    public List<OrderSummaryDto> search(OrderSearchCriteria criteria, OrderSearchCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = baseQuery(criteria, params);
+        if (after != null) {
+            // Row-value comparison lets the (created_at, id) index seek straight to the page
+            sql.append(" AND (o.created_at, o.id) < (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", after.getCreatedAt());
+            params.addValue("afterId", after.getId());
+        }
+        sql.append(" ORDER BY o.created_at DESC, o.id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> mapRow(rs));
+    }
+
+    @Override
+    public void streamSearch(OrderSearchCriteria criteria, Consumer<OrderSummaryDto> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = baseQuery(criteria, params);
+        sql.append(" ORDER BY o.created_at DESC, o.id DESC");
+        streamingJdbcTemplate.query(sql.toString(), params, rs -> {
+            consumer.accept(mapRow(rs));
+        });
+    }
+
+    private StringBuilder baseQuery(OrderSearchCriteria criteria, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT o.id, o.user_id, u.email, o.status, o.payment_status, o.payment_provider, "
+                        + "o.total_amount, o.created_at "
+                        + "FROM orders o JOIN users u ON u.id = o.user_id WHERE 1 = 1");
+        if (criteria.getStatus() != null) {
+            sql.append(" AND o.status = :status");
+            params.addValue("status", criteria.getStatus().name());
+        }
+        if (criteria.getPaymentStatus() != null) {
+            sql.append(" AND o.payment_status = :paymentStatus");
+            params.addValue("paymentStatus", criteria.getPaymentStatus().name());
+        }
+        if (criteria.getFrom() != null) {
+            sql.append(" AND o.created_at >= :from");
+            params.addValue("from", criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            sql.append(" AND o.created_at < :to");
+            params.addValue("to", criteria.getTo());
+        }
+        if (criteria.getEmail() != null && !criteria.getEmail().isBlank()) {
+            // Exact match so the unique email index resolves the user first
+            sql.append(" AND u.email = :email");
+            params.addValue("email", criteria.getEmail().trim());
+        }
+        if (criteria.getMinTotal() != null) {
+            sql.append(" AND o.total_amount >= :minTotal");
+            params.addValue("minTotal", criteria.getMinTotal());
+        }
+        return sql;
+    }
+
+    private OrderSummaryDto mapRow(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        String paymentStatus = rs.getString("payment_status");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return OrderSummaryDto.builder()
+                .id(rs.getLong("id"))
+                .userId(rs.getLong("user_id"))
+                .userEmail(rs.getString("email"))
+                .status(status != null ? OrderStatus.valueOf(status) : null)
+                .paymentStatus(paymentStatus != null ? PaymentStatus.valueOf(paymentStatus) : null)
+                .paymentProvider(rs.getString("payment_provider"))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .build();
+    }
+}
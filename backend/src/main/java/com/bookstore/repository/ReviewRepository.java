@@ -1,11 +1,15 @@
 package com.bookstore.repository;
 
+import com.bookstore.dto.ReviewDto;
 import com.bookstore.entity.Book;
 import com.bookstore.entity.Review;
 import com.bookstore.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +21,29 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByBook(Book book);
 
     List<Review> findByUser(User user);
+
+    // Projection without count query; "mine" flags the viewer's own reviews (viewer may be null)
+    @Query("SELECT new com.bookstore.dto.ReviewDto(r.id, r.book.id, r.rating, r.comment, r.createdAt, r.updatedAt, " +
+            "u.id, u.firstName, u.lastName, CASE WHEN u.email = :viewer THEN true ELSE false END) " +
+            "FROM Review r JOIN r.user u WHERE r.book.id = :bookId")
+    List<ReviewDto> findDtosByBookId(@Param("bookId") Long bookId,
+            @Param("viewer") String viewer,
+            Pageable pageable);
+
+    @Query(value = "SELECT new com.bookstore.dto.ReviewDto(r.id, r.book.id, r.rating, r.comment, r.createdAt, " +
+            "r.updatedAt, u.id, u.firstName, u.lastName, false) FROM Review r JOIN r.user u WHERE r.book.id = :bookId",
+            countQuery = "SELECT COUNT(r) FROM Review r WHERE r.book.id = :bookId")
+    Page<ReviewDto> findDtoPageByBookId(@Param("bookId") Long bookId, Pageable pageable);
+
+    @Query("SELECT r.id FROM Review r WHERE r.user.id = :userId ORDER BY r.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // (bookId, rating, number of reviews) for the rating aggregate deltas
+    @Query("SELECT r.book.id, r.rating, COUNT(r) FROM Review r WHERE r.id IN :reviewIds " +
+            "GROUP BY r.book.id, r.rating")
+    List<Object[]> countRatingsByBook(@Param("reviewIds") List<Long> reviewIds);
+
+    @Modifying
+    @Query("DELETE FROM Review r WHERE r.id IN :reviewIds")
+    int deleteByIdIn(@Param("reviewIds") List<Long> reviewIds);
 }
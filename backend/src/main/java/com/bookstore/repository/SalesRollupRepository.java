@@ -0,0 +1,30 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.RollupDimension;
+import com.bookstore.entity.RollupGranularity;
+import com.bookstore.entity.SalesRollup;
+import com.bookstore.entity.SalesRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId>, SalesRollupUpsertRepository {
+
+    @Query("SELECT r FROM SalesRollup r WHERE r.id.granularity = :granularity AND r.id.dimension = :dimension " +
+            "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+            "ORDER BY r.id.bucketStart, r.id.dimensionKey")
+    List<SalesRollup> findRange(@Param("granularity") RollupGranularity granularity,
+            @Param("dimension") RollupDimension dimension,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM SalesRollup r WHERE r.id.bucketStart >= :from AND r.id.bucketStart < :to")
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,13 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.SalesRollup;
+
+import java.util.Collection;
+
+/**
+ * Adds deltas to sales rollup cells, creating missing cells, in one batch.
+ */
+public interface SalesRollupUpsertRepository {
+
+    void addAll(Collection<SalesRollup> deltas);
+}
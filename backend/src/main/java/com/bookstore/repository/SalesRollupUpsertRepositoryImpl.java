@@ -0,0 +1,59 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.SalesRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+public class SalesRollupUpsertRepositoryImpl implements SalesRollupUpsertRepository {
+
+    // Postgres: atomic under concurrent inserts of the same new cell
+    private static final String POSTGRES_UPSERT = "INSERT INTO sales_rollups "
+            + "(granularity, bucket_start, dimension, dimension_key, revenue, order_count, units_sold) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (granularity, dimension, bucket_start, dimension_key) DO UPDATE SET "
+            + "revenue = sales_rollups.revenue + EXCLUDED.revenue, "
+            + "order_count = sales_rollups.order_count + EXCLUDED.order_count, "
+            + "units_sold = sales_rollups.units_sold + EXCLUDED.units_sold";
+
+    // Standard SQL for everything else (H2 in tests and local runs)
+    private static final String STANDARD_MERGE = "MERGE INTO sales_rollups r USING (VALUES (?, ?, ?, ?, ?, ?, ?)) "
+            + "AS d (granularity, bucket_start, dimension, dimension_key, revenue, order_count, units_sold) "
+            + "ON r.granularity = d.granularity AND r.dimension = d.dimension "
+            + "AND r.bucket_start = d.bucket_start AND r.dimension_key = d.dimension_key "
+            + "WHEN MATCHED THEN UPDATE SET revenue = r.revenue + d.revenue, "
+            + "order_count = r.order_count + d.order_count, units_sold = r.units_sold + d.units_sold "
+            + "WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, dimension, dimension_key, revenue, "
+            + "order_count, units_sold) VALUES (d.granularity, d.bucket_start, d.dimension, d.dimension_key, "
+            + "d.revenue, d.order_count, d.units_sold)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertSql;
+
+    public SalesRollupUpsertRepositoryImpl(DataSource dataSource) throws MetaDataAccessException {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.upsertSql = "PostgreSQL".equals(product) ? POSTGRES_UPSERT : STANDARD_MERGE;
+    }
+
+    @Override
+    public void addAll(Collection<SalesRollup> deltas) {
+        List<Object[]> rows = deltas.stream()
+                .map(r -> new Object[] {
+                        r.getId().getGranularity().name(),
+                        Timestamp.valueOf(r.getId().getBucketStart()),
+                        r.getId().getDimension().name(),
+                        r.getId().getDimensionKey(),
+                        r.getRevenue(),
+                        r.getOrderCount(),
+                        r.getUnitsSold() })
+                .toList();
+        jdbcTemplate.batchUpdate(upsertSql, rows);
+    }
+}
@@ -0,0 +1,11 @@
+package com.bookstore.repository;
+
+import java.util.Collection;
+
+/**
+ * Records (user, book) purchases in one batch, ignoring ones already recorded.
+ */
+public interface UserPurchaseInsertRepository {
+
+    void addAll(Long userId, Collection<Long> bookIds);
+}
@@ -0,0 +1,40 @@
+package com.bookstore.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Collection;
+import java.util.List;
+
+public class UserPurchaseInsertRepositoryImpl implements UserPurchaseInsertRepository {
+
+    // Postgres: safe when two orders of the same user record the same book concurrently
+    private static final String POSTGRES_INSERT = "INSERT INTO user_purchases (user_id, book_id) VALUES (?, ?) "
+            + "ON CONFLICT (user_id, book_id) DO NOTHING";
+
+    // Standard SQL for everything else (H2 in tests and local runs)
+    private static final String STANDARD_MERGE = "MERGE INTO user_purchases p USING (VALUES (?, ?)) "
+            + "AS d (user_id, book_id) ON p.user_id = d.user_id AND p.book_id = d.book_id "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, book_id) VALUES (d.user_id, d.book_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertSql;
+
+    public UserPurchaseInsertRepositoryImpl(DataSource dataSource) throws MetaDataAccessException {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.insertSql = "PostgreSQL".equals(product) ? POSTGRES_INSERT : STANDARD_MERGE;
+    }
+
+    @Override
+    public void addAll(Long userId, Collection<Long> bookIds) {
+        List<Object[]> rows = bookIds.stream()
+                .distinct()
+                .map(bookId -> new Object[] { userId, bookId })
+                .toList();
+        jdbcTemplate.batchUpdate(insertSql, rows);
+    }
+}
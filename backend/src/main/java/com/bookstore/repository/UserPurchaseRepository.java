@@ -0,0 +1,23 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.UserPurchase;
+import com.bookstore.entity.UserPurchaseId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserPurchaseRepository extends JpaRepository<UserPurchase, UserPurchaseId>,
+        UserPurchaseInsertRepository {
+
+    @Query("SELECT p.id.bookId FROM UserPurchase p WHERE p.id.userId = :userId ORDER BY p.id.bookId")
+    List<Long> findBookIdsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserPurchase p WHERE p.id.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
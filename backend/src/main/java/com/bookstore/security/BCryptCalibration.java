@@ -0,0 +1,34 @@
+package com.bookstore.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks a BCrypt cost for this machine: the highest cost whose hash time stays
+ * within the target, never below the minimum. Each cost step doubles the work,
+ * so one timed hash at the minimum cost is enough to estimate the others.
+ */
+public final class BCryptCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptCalibration() {
+    }
+
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode(SAMPLE_PASSWORD); // warm up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long started = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        double estimateMillis = best / 1_000_000.0;
+        int strength = minStrength;
+        while (strength < maxStrength && estimateMillis * 2 <= targetMillis) {
+            estimateMillis *= 2;
+            strength++;
+        }
+        return strength;
+    }
+}
@@ -1,71 +1,170 @@
 package com.bookstore.security;
 
-import com.bookstore.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Issues and verifies JWTs. The signing key and parser are built once; each
+ * token is parsed and verified at most once, after which its principal is kept
+ * in a bounded cache keyed by the token's SHA-256 digest until the token
+ * expires, so repeated requests with the same token skip the HMAC and JSON work.
+ * A full cache is swept for expired entries only once the earliest remaining
+ * entry has expired, so a cache full of live tokens costs nothing per request.
+ */
 @Component
 public class JwtUtils {
 
-    @Value("${app.jwtSecret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
-    private String jwtSecret;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+    static final String CLAIM_ROLES = "roles";
 
-    @Value("${app.jwtExpirationMs:1800000}") // 30 minutes
-    private int jwtExpirationMs;
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int jwtExpirationMs;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final int verifiedCacheSize;
+    private final Map<ByteBuffer, VerifiedToken> verified = new ConcurrentHashMap<>();
+    // No cached entry expires before this, so sweeping earlier would free nothing
+    private final AtomicLong nextSweepAt = new AtomicLong();
+
+    public JwtUtils(
+            @Value("${app.jwtSecret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}") String jwtSecret,
+            @Value("${app.jwtExpirationMs:900000}") int jwtExpirationMs, // 15 minutes, renewed via refresh tokens
+            @Value("${app.security.verified-tokens.max-size:10000}") int verifiedCacheSize) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedCacheSize = verifiedCacheSize;
+    }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        if (userDetails instanceof UserPrincipal principal) {
+            claims.put(CLAIM_USER_ID, principal.getId());
+            claims.put(CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    /**
+     * Verifies the token and rebuilds its user from the claims alone, without a
+     * database lookup. Returns null for tokens lacking the user id or version
+     * claims; throws JwtException for invalid or expired tokens.
+     */
+    public UserPrincipal getPrincipalFromJwtToken(String token) {
+        if (verifiedCacheSize <= 0) {
+            return toPrincipal(extractAllClaims(token));
+        }
+        ByteBuffer key = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verified.get(key);
+        if (cached != null) {
+            if (now < cached.expiresAt) {
+                return cached.principal;
+            }
+            verified.remove(key);
+            throw new ExpiredJwtException(null, null, "JWT expired");
+        }
 
-    public boolean validateJwtToken(String authToken, UserDetails userDetails) {
-        final String username = getUserNameFromJwtToken(authToken);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(authToken));
+        Claims claims = extractAllClaims(token);
+        UserPrincipal principal = toPrincipal(claims);
+        if (principal != null && claims.getExpiration() != null) {
+            if (verified.size() >= verifiedCacheSize) {
+                sweep(now);
+            }
+            // Still full of live tokens: leave this one uncached rather than evict
+            if (verified.size() < verifiedCacheSize) {
+                verified.put(key, new VerifiedToken(principal, claims.getExpiration().getTime()));
+            }
+        }
+        return principal;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // One thread sweeps at a time; the rest skip straight past
+    private void sweep(long now) {
+        long due = nextSweepAt.get();
+        if (now < due || !nextSweepAt.compareAndSet(due, Long.MAX_VALUE)) {
+            return;
+        }
+        long earliest = Long.MAX_VALUE;
+        for (Iterator<VerifiedToken> it = verified.values().iterator(); it.hasNext(); ) {
+            long expiresAt = it.next().expiresAt;
+            if (now >= expiresAt) {
+                it.remove();
+            } else {
+                earliest = Math.min(earliest, expiresAt);
+            }
+        }
+        nextSweepAt.set(earliest == Long.MAX_VALUE ? now : earliest);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    int cachedTokens() {
+        return verified.size();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public int getJwtExpirationMs() {
+        return jwtExpirationMs;
     }
 
+    // Checks signature and expiration
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static UserPrincipal toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        if (userId == null || tokenVersion == null) {
+            return null;
+        }
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of()
+                : roles.stream().map(role -> new SimpleGrantedAuthority(role.toString())).toList();
+        return new UserPrincipal(userId.longValue(), claims.getSubject(), null, tokenVersion.intValue(),
+                authorities, true, claims.getId());
+    }
+
+    private static class VerifiedToken {
+        private final UserPrincipal principal;
+        private final long expiresAt;
+
+        VerifiedToken(UserPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
     }
 }
@@ -0,0 +1,72 @@
+package com.bookstore.security;
+
+import com.bookstore.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt-bound work (login, registration, password change) on a small
+ * CPU-sized pool with a bounded queue instead of on Tomcat request threads, so
+ * a login storm cannot tie up the threads that serve the catalog. When the
+ * queue is full the request fails fast with 503 rather than waiting.
+ * Queue depth and pool usage are published as executor.* metrics named
+ * "password-hashing".
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService monitored;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = defaults.newThread(runnable);
+                    thread.setName("password-hashing-" + thread.getId());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.monitored = ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashing tasks shed because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the task on the hashing pool. Throws ServiceBusyException at once if
+     * the pool and its queue are full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, monitored);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in requests, please retry shortly", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    public int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,71 @@
+package com.bookstore.security;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Remembers one-time nonces until they expire, in a ring of buckets by expiry
+ * time. A bucket is reused, and its nonces forgotten, only once every nonce
+ * in it has expired, so nothing needs a timer. Each bucket holds at most
+ * maxPerBucket nonces; past that, new nonces are refused rather than stored.
+ */
+public class SeenNonceSet {
+
+    private final long bucketWidthSeconds;
+    private final int maxPerBucket;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * @param windowSeconds longest time from now until a nonce's expiry
+     */
+    public SeenNonceSet(long windowSeconds, int bucketCount, int maxPerBucket) {
+        this.bucketWidthSeconds = Math.max(1, (windowSeconds + bucketCount - 1) / bucketCount);
+        this.maxPerBucket = maxPerBucket;
+        // Live expiries span bucketCount + 1 buckets; one more keeps a slot from being reused while live
+        this.buckets = new AtomicReferenceArray<>(bucketCount + 2);
+    }
+
+    /**
+     * Records a nonce that expires at the given epoch second. Returns false if
+     * it was seen before or its bucket is full.
+     */
+    public boolean markSeen(long nonce, long expiresAtEpochSecond) {
+        long epoch = expiresAtEpochSecond / bucketWidthSeconds;
+        int slot = (int) Math.floorMod(epoch, buckets.length());
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.epoch != epoch) {
+            if (bucket != null && bucket.epoch > epoch) {
+                // Expired long ago; its slot already serves later nonces
+                return false;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = buckets.get(slot);
+            }
+        }
+
+        if (bucket.size.incrementAndGet() > maxPerBucket) {
+            bucket.size.decrementAndGet();
+            return false;
+        }
+        if (!bucket.nonces.add(nonce)) {
+            bucket.size.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private static class Bucket {
+        private final long epoch;
+        private final Set<Long> nonces = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger size = new AtomicInteger();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bookstore.security;
+
+import com.bookstore.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Current token version of recently active users, so a JWT can be checked for
+ * revocation without touching the database. Bumping users.token_version (password
+ * change, account deletion) revokes every token issued before; this node evicts
+ * the user on commit, other nodes pick the change up within the TTL.
+ * Disabled and deleted users have no current version, so all their tokens fail.
+ * Guarded by a ReentrantLock rather than a monitor: every request passes here,
+ * and virtual threads waiting for a monitor would pin their carrier threads.
+ */
+@Component
+public class TokenVersionCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<Long, Entry> cache;
+    // The latest load in flight per user; eviction drops it so an older read is never cached
+    private final Map<Long, Object> loads = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TokenVersionCache(UserRepository userRepository,
+            @Value("${app.security.token-versions.max-users:10000}") int maxUsers,
+            @Value("${app.security.token-versions.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.nanoTime();
+        Object load = new Object();
+        Entry entry;
+        lock.lock();
+        try {
+            entry = cache.get(userId);
+            if (entry == null || now - entry.loadedAt > ttlNanos) {
+                entry = null;
+                loads.put(userId, load);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            // Loaded outside the lock. If a revocation commits meanwhile, the version may
+            // predate it, so it is cached only while this is still the user's latest load
+            try {
+                entry = new Entry(userRepository.findActiveTokenVersion(userId).orElse(null), now);
+            } catch (RuntimeException e) {
+                forgetLoad(userId, load);
+                throw e;
+            }
+            lock.lock();
+            try {
+                if (loads.remove(userId, load)) {
+                    cache.put(userId, entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return entry.version != null && entry.version == tokenVersion;
+    }
+
+    /**
+     * Forgets the user's version once the current transaction commits, so the
+     * next request sees the new one.
+     */
+    public void evictAfterCommit(Long userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lock.lock();
+                try {
+                    cache.remove(userId);
+                    loads.remove(userId);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    private void forgetLoad(Long userId, Object load) {
+        lock.lock();
+        try {
+            loads.remove(userId, load);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Entry {
+        // null when the user is disabled or gone
+        private final Integer version;
+        private final long loadedAt;
+
+        Entry(Integer version, long loadedAt) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
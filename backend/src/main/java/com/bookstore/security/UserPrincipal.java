@@ -0,0 +1,53 @@
+package com.bookstore.security;
+
+import com.bookstore.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user as carried in a JWT: id, email, roles and the token
+ * version the token was issued for. Built from the database at login and
+ * from token claims alone on every other request (password is null then,
+ * tokenId is the token's jti).
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final int tokenVersion;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private final boolean enabled;
+    private final String tokenId;
+
+    public static UserPrincipal from(User user) {
+        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.name()))
+                .toList();
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword(), user.getTokenVersion(),
+                authorities, user.isEnabled(), null);
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bookstore.seed;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Volume searches against the Google Books API. One HttpClient and
+ * ObjectMapper serve every call; responses are parsed from the stream one
+ * volume at a time instead of being read into a string first.
+ */
+class BooksApiClient {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    BooksApiClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    List<CatalogSnapshot.BookLine> search(String query, String categorySlug, int maxResults)
+            throws IOException, InterruptedException {
+        URI uri = URI.create(baseUrl + "/volumes?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8)
+                + "&maxResults=" + maxResults + "&langRestrict=en&printType=books");
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Books API returned " + response.statusCode() + " for " + query);
+            }
+            List<CatalogSnapshot.BookLine> books = new ArrayList<>();
+            try (JsonParser parser = JSON.createParser(body)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Unexpected Books API response for " + query);
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY && field.equals("items")) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            CatalogSnapshot.BookLine book = toBook(parser.readValueAsTree(), categorySlug);
+                            if (book != null) {
+                                books.add(book);
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return books;
+        }
+    }
+
+    private static CatalogSnapshot.BookLine toBook(JsonNode item, String categorySlug) {
+        JsonNode info = item.path("volumeInfo");
+        String title = info.path("title").asText();
+        if (title.isBlank()) {
+            return null;
+        }
+        if (title.length() > 255) {
+            title = title.substring(0, 255);
+        }
+
+        String author = info.path("authors").path(0).asText("Unknown");
+        String description = info.path("description").asText();
+        if (description.length() > 2000) {
+            description = description.substring(0, 1997) + "...";
+        }
+        if (description.isEmpty()) {
+            description = "No description available.";
+        }
+
+        String isbn = null;
+        for (JsonNode identifier : info.path("industryIdentifiers")) {
+            String type = identifier.path("type").asText();
+            if (type.equals("ISBN_13") || (type.equals("ISBN_10") && isbn == null)) {
+                isbn = identifier.path("identifier").asText();
+            }
+        }
+
+        String cover = info.path("imageLinks").path("thumbnail").asText(null);
+        if (cover != null) {
+            cover = cover.replace("http://", "https://");
+        }
+
+        // Derived from the title when the API has no list price, so a refetch gives the same price
+        int hash = Math.floorMod(title.hashCode(), 1 << 16);
+        JsonNode listPrice = item.path("saleInfo").path("listPrice").path("amount");
+        BigDecimal price = listPrice.isNumber() ? new BigDecimal(listPrice.asText())
+                : BigDecimal.valueOf(799 + (hash % 18) * 100L, 2);
+        return new CatalogSnapshot.BookLine(categorySlug, title, author, description, isbn, price, cover,
+                20 + hash % 80);
+    }
+}
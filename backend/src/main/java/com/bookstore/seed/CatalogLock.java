@@ -0,0 +1,35 @@
+package com.bookstore.seed;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Serializes catalog imports across nodes: the snapshot load and the refresh
+ * job each take this PostgreSQL advisory lock at the start of their
+ * transaction, before reading what the catalog already holds, so the node that
+ * waited sees the other's books. Other databases run a single node (tests,
+ * local H2) and take no lock.
+ */
+@Component
+@RequiredArgsConstructor
+class CatalogLock {
+
+    // Arbitrary, but the same on every node
+    private static final long KEY = 0x5EED_CA7AL;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Held until the caller's transaction ends. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void acquire() {
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().equals("PostgreSQL")));
+        if (postgres) {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, KEY);
+        }
+    }
+}
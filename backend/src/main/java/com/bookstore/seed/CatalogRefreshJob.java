@@ -0,0 +1,161 @@
+package com.bookstore.seed;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Category;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adds new titles from the Google Books API to the catalog (app.seed.refresh,
+ * off by default). All categories are searched concurrently, with at most
+ * `parallelism` requests in flight; a category whose search fails is skipped
+ * until the next run. Books already in the catalog (same ISBN, or same title
+ * and author) are left alone; new books are added under the CatalogLock, so
+ * nodes running the same schedule add each title once. With snapshot-output
+ * set, the fetched catalog is also written as a snapshot, e.g. to replace the
+ * bundled one.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.seed.refresh.enabled", havingValue = "true")
+public class CatalogRefreshJob {
+
+    private final CatalogSeedProperties properties;
+    private final CategoryRepository categoryRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogLock catalogLock;
+    private final BooksApiClient booksApiClient;
+
+    public CatalogRefreshJob(CatalogSeedProperties properties, CategoryRepository categoryRepository,
+                             BookRepository bookRepository, TransactionTemplate transactionTemplate,
+                             CatalogLock catalogLock) {
+        this.properties = properties;
+        this.categoryRepository = categoryRepository;
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogLock = catalogLock;
+        this.booksApiClient = new BooksApiClient(properties.getRefresh().getBaseUrl(),
+                properties.getRefresh().getTimeout());
+    }
+
+    /** Fetches every category and returns how many new books were added. */
+    @Scheduled(cron = "${app.seed.refresh.cron:0 0 5 * * MON}")
+    public int refresh() {
+        long started = System.nanoTime();
+        List<Category> categories = categoryRepository.findAll();
+        List<CatalogSnapshot.BookLine> fetched = fetch(categories);
+        int added = transactionTemplate.execute(status -> addNew(categories, fetched));
+        log.info("Catalog refresh fetched {} books for {} categories, {} new, in {} ms", fetched.size(),
+                categories.size(), added, (System.nanoTime() - started) / 1_000_000);
+
+        String output = properties.getRefresh().getSnapshotOutput();
+        if (output != null && !output.isBlank()) {
+            writeSnapshot(Path.of(output), categories, fetched);
+        }
+        return added;
+    }
+
+    private List<CatalogSnapshot.BookLine> fetch(List<Category> categories) {
+        CatalogSeedProperties.Refresh refresh = properties.getRefresh();
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, refresh.getParallelism()), r -> {
+            Thread thread = new Thread(r, "catalog-refresh-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<Category, Future<List<CatalogSnapshot.BookLine>>> searches = new LinkedHashMap<>();
+            for (Category category : categories) {
+                searches.put(category, pool.submit(() -> booksApiClient.search("subject:" + category.getName(),
+                        category.getSlug(), refresh.getBooksPerCategory())));
+            }
+            List<CatalogSnapshot.BookLine> fetched = new ArrayList<>();
+            for (Map.Entry<Category, Future<List<CatalogSnapshot.BookLine>>> search : searches.entrySet()) {
+                try {
+                    fetched.addAll(search.getValue().get());
+                } catch (ExecutionException e) {
+                    log.warn("Skipping category {} this run: {}", search.getKey().getName(),
+                            e.getCause().toString());
+                }
+            }
+            return fetched;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int addNew(List<Category> categories, List<CatalogSnapshot.BookLine> fetched) {
+        Map<String, Category> bySlug = new LinkedHashMap<>();
+        categories.forEach(category -> bySlug.put(category.getSlug(), category));
+        // Nodes refreshing on the same schedule add each title once: the one that waited sees the other's books
+        catalogLock.acquire();
+        // Keys of the books already in the catalog, read once rather than queried per fetched book
+        Set<String> seen = new HashSet<>();
+        for (Object[] book : bookRepository.findCatalogKeys()) {
+            if (book[0] != null) {
+                seen.add((String) book[0]);
+            }
+            seen.add(titleAuthorKey((String) book[1], (String) book[2]));
+        }
+        List<Book> batch = new ArrayList<>();
+        int added = 0;
+        for (CatalogSnapshot.BookLine line : fetched) {
+            // The same book often comes back under several subjects
+            if (!seen.add(titleAuthorKey(line.title(), line.author()))
+                    || (line.isbn() != null && !seen.add(line.isbn()))) {
+                continue;
+            }
+            batch.add(line.toEntity(bySlug.get(line.category())));
+            if (batch.size() >= properties.getBatchSize()) {
+                bookRepository.saveAll(batch);
+                added += batch.size();
+                batch.clear();
+            }
+        }
+        bookRepository.saveAll(batch);
+        return added + batch.size();
+    }
+
+    private static String titleAuthorKey(String title, String author) {
+        return title.toLowerCase(Locale.ROOT) + "|" + author.toLowerCase(Locale.ROOT);
+    }
+
+    private void writeSnapshot(Path output, List<Category> categories, List<CatalogSnapshot.BookLine> fetched) {
+        List<CatalogSnapshot.CategoryLine> categoryLines = categories.stream()
+                .map(c -> new CatalogSnapshot.CategoryLine(c.getName(), c.getSlug(), c.getDescription()))
+                .toList();
+        try (OutputStream out = Files.newOutputStream(output)) {
+            CatalogSnapshot.write(out, LocalDate.now().toString(), categoryLines, fetched);
+            log.info("Wrote catalog snapshot with {} books to {}", fetched.size(), output);
+        } catch (IOException e) {
+            log.error("Failed to write catalog snapshot to {}", output, e);
+        }
+    }
+}
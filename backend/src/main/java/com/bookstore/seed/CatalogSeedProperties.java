@@ -0,0 +1,35 @@
+package com.bookstore.seed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Starter catalog (app.seed): the bundled snapshot loaded into an empty
+ * database, and the optional job that adds new titles from the Google Books API.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.seed")
+public class CatalogSeedProperties {
+
+    private boolean enabled = true;
+    private String snapshot = "classpath:seed/catalog-v1.ndjson.gz";
+    // Books per insert batch; matches hibernate.jdbc.batch_size
+    private int batchSize = 50;
+    private Refresh refresh = new Refresh();
+
+    @Data
+    public static class Refresh {
+        private boolean enabled = false;
+        private String baseUrl = "https://www.googleapis.com/books/v1";
+        // Requests to the Books API in flight at once
+        private int parallelism = 4;
+        private int booksPerCategory = 10;
+        private Duration timeout = Duration.ofSeconds(10);
+        // Also write the fetched books here as a snapshot; not written when unset
+        private String snapshotOutput;
+    }
+}
@@ -0,0 +1,124 @@
+package com.bookstore.seed;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Category;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The catalog snapshot format: gzip-compressed NDJSON. A header line
+ * ({"type":"snapshot","format":1,"version":...}) comes first, then one line
+ * per category and one per book. Categories come before the books, which
+ * refer to them by slug. Read one line at a time, so a snapshot of any size
+ * is never held in memory whole.
+ */
+final class CatalogSnapshot {
+
+    static final int FORMAT = 1;
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    record CategoryLine(String name, String slug, String description) {
+    }
+
+    record BookLine(String category, String title, String author, String description, String isbn, BigDecimal price,
+                String coverImageUrl, Integer stockQuantity) {
+
+        Book toEntity(Category category) {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor(author);
+            book.setDescription(description);
+            book.setIsbn(isbn);
+            book.setPrice(price);
+            book.setCoverImageUrl(coverImageUrl);
+            book.setStockQuantity(stockQuantity);
+            book.setCategory(category);
+            // Rating starts at 0, increases when users add reviews
+            book.setRatingAverage(0.0);
+            book.setRatingCount(0);
+            return book;
+        }
+    }
+
+    interface Handler {
+        void category(CategoryLine category);
+
+        void book(BookLine book);
+    }
+
+    private CatalogSnapshot() {
+    }
+
+    /** Hands every category and book to the handler, in file order, and returns the snapshot's version. */
+    static String read(InputStream in, Handler handler) throws IOException {
+        try (MappingIterator<JsonNode> lines = JSON.readerFor(JsonNode.class)
+                .readValues(new GZIPInputStream(in))) {
+            JsonNode header = lines.hasNext() ? lines.next() : null;
+            if (header == null || !"snapshot".equals(header.path("type").asText())) {
+                throw new IOException("Not a catalog snapshot");
+            }
+            if (header.path("format").asInt() != FORMAT) {
+                throw new IOException("Unsupported catalog snapshot format " + header.path("format"));
+            }
+            while (lines.hasNext()) {
+                JsonNode line = lines.next();
+                switch (line.path("type").asText()) {
+                    case "category" -> handler.category(JSON.treeToValue(line, CategoryLine.class));
+                    case "book" -> handler.book(JSON.treeToValue(line, BookLine.class));
+                    default -> throw new IOException("Unknown catalog snapshot line " + line.path("type"));
+                }
+            }
+            return header.path("version").asText();
+        }
+    }
+
+    static void write(OutputStream out, String version, List<CategoryLine> categories, List<BookLine> books)
+            throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(out),
+                StandardCharsets.UTF_8))) {
+            ObjectNode header = JSON.createObjectNode()
+                    .put("type", "snapshot")
+                    .put("format", FORMAT)
+                    .put("version", version)
+                    .put("createdAt", LocalDate.now().toString());
+            writeLine(writer, header);
+            for (CategoryLine category : categories) {
+                writeLine(writer, typed("category", category));
+            }
+            for (BookLine book : books) {
+                writeLine(writer, typed("book", book));
+            }
+        }
+    }
+
+    private static ObjectNode typed(String type, Object value) {
+        ObjectNode line = JSON.createObjectNode().put("type", type);
+        line.setAll((ObjectNode) JSON.valueToTree(value));
+        return line;
+    }
+
+    private static void writeLine(Writer writer, JsonNode line) throws IOException {
+        writer.write(JSON.writeValueAsString(line));
+        writer.write('\n');
+    }
+}
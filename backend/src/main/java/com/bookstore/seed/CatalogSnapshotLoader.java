@@ -0,0 +1,109 @@
+package com.bookstore.seed;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Category;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills an empty catalog from the bundled snapshot (app.seed.snapshot), with
+ * no network access. Categories that already exist are reused by slug; books
+ * are inserted in batches, all in one transaction, so a failed load leaves
+ * nothing half done. On PostgreSQL that transaction first takes an advisory
+ * lock and only then checks for books, so of several nodes starting at once
+ * one loads the snapshot and the others wait for it and find the books there.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotLoader {
+
+    private final CatalogSeedProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final CategoryRepository categoryRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final CatalogLock catalogLock;
+
+    /** Loads the snapshot if there are no books yet, and returns how many books it added. */
+    public int loadIfEmpty() {
+        long started = System.nanoTime();
+        Resource resource = resourceLoader.getResource(properties.getSnapshot());
+        Load load = new Load();
+        String version = transactionTemplate.execute(status -> {
+            catalogLock.acquire();
+            if (bookRepository.count() > 0) {
+                return null;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                String snapshotVersion = CatalogSnapshot.read(in, load);
+                load.flush();
+                return snapshotVersion;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read catalog snapshot " + properties.getSnapshot(), e);
+            }
+        });
+        if (version == null) {
+            return 0;
+        }
+        log.info("Loaded catalog snapshot {}: {} categories, {} books in {} ms", version, load.categories.size(),
+                load.books, (System.nanoTime() - started) / 1_000_000);
+        return load.books;
+    }
+
+    private class Load implements CatalogSnapshot.Handler {
+
+        private final Map<String, Category> categories = new HashMap<>();
+        private final List<Book> pending = new ArrayList<>();
+        private int books;
+
+        @Override
+        public void category(CatalogSnapshot.CategoryLine category) {
+            categories.put(category.slug(), categoryRepository.findBySlug(category.slug())
+                    .orElseGet(() -> {
+                        Category c = new Category();
+                        c.setName(category.name());
+                        c.setSlug(category.slug());
+                        c.setDescription(category.description());
+                        return categoryRepository.save(c);
+                    }));
+        }
+
+        @Override
+        public void book(CatalogSnapshot.BookLine book) {
+            Category category = categories.get(book.category());
+            if (category == null) {
+                throw new IllegalStateException("Book " + book.title() + " has unknown category " + book.category());
+            }
+            pending.add(book.toEntity(category));
+            if (pending.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        // One JDBC batch per call; cleared so the session stays small for large snapshots
+        void flush() {
+            bookRepository.saveAll(pending);
+            entityManager.flush();
+            entityManager.clear();
+            books += pending.size();
+            pending.clear();
+        }
+    }
+}
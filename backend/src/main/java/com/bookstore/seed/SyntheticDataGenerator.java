@@ -0,0 +1,363 @@
+package com.bookstore.seed;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Rows of the synthetic dataset. Each row depends only on the seed and its
+ * own id, never on rows generated before it, so any range of ids can be
+ * produced on any thread in any order and still come out the same.
+ *
+ * Popularity is Zipfian: a book's sales and review count follow its rank,
+ * and an order's user is drawn by rank too, which gives power-law orders per
+ * user. Ranks are scattered over ids by a fixed permutation so the best
+ * sellers are not simply the oldest books.
+ */
+final class SyntheticDataGenerator {
+
+    @FunctionalInterface
+    interface RowSink {
+        void add(Object... values) throws SQLException;
+    }
+
+    // Stream salts; each kind of value per id gets its own random stream
+    private static final long USER = 1;
+    private static final long BOOK = 2;
+    private static final long RATINGS = 3;
+    private static final long REVIEWS = 4;
+    private static final long REVIEW_COUNT = 5;
+    private static final long ORDER = 6;
+    private static final long ORDER_LINES = 7;
+    private static final long BOOK_TILT = 8;
+    private static final long TITLE = 9;
+
+    private static final String[] GENRES = {"Fiction", "Mystery", "Fantasy", "Science Fiction", "Romance",
+            "Thriller", "Horror", "Poetry", "Business", "Self-Help", "Psychology", "Philosophy", "Non-Fiction",
+            "Finance", "Biography", "Science", "History", "Travel", "Cooking", "Art", "Music", "Religion",
+            "Politics", "Technology", "Children", "Young Adult", "Graphic Novels", "Health", "Sports", "Education"};
+    private static final String[] TITLE_WORDS = {"Silent", "River", "Atomic", "Garden", "Empire", "Night",
+            "Habits", "Shadow", "Quantum", "Letters", "Winter", "Machine", "Ocean", "Crown", "Mind", "Stone",
+            "Glass", "Summer", "Fire", "Island", "Secret", "Light", "Iron", "City", "Wild", "Last", "Hidden",
+            "Golden", "Broken", "Paper", "Storm", "Memory"};
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Olivia", "Noah", "Amelia", "Liam", "Sophia",
+            "Arjun", "Mei", "Fatima", "Lucas", "Elena", "Kenji", "Aisha", "Mateo", "Zara", "Oscar", "Priya",
+            "Hugo", "Ingrid", "Omar", "Chloe", "Ravi", "Sofia"};
+    private static final String[] LAST_NAMES = {"Smith", "Jones", "Patel", "Garcia", "Chen", "Khan", "Müller",
+            "Silva", "Kim", "Nguyen", "Brown", "Rossi", "Novak", "Okafor", "Tanaka", "Dubois", "Larsen", "Haddad",
+            "Cohen", "Walsh", "Ivanova", "Sharma", "Moreno", "Evans"};
+    private static final String[] CITIES = {"London", "Manchester", "Leeds", "Bristol", "Glasgow", "Cardiff",
+            "Birmingham", "Edinburgh", "Liverpool", "Belfast"};
+    private static final String[][] COMMENTS = {
+            {"Could not finish it.", "Not for me at all.", "Disappointing."},
+            {"Slow and predictable.", "Had its moments, mostly dull.", "Expected more."},
+            {"Decent, but forgettable.", "Some good chapters.", "Okay for a long journey."},
+            {"Really enjoyed it.", "Well written and engaging.", "Would recommend."},
+            {"Couldn't put it down!", "One of the best I've read this year.", "A must read.", "Loved every page."}};
+    private static final String[] PAYMENT_PROVIDERS = {"simulated", "card", "paypal"};
+
+    // J-shaped star distribution of online reviews, cumulative over 1..5 stars
+    private static final double[] RATING_CDF = {0.11, 0.18, 0.30, 0.55, 1.0};
+
+    private final SyntheticSeedProperties properties;
+    private final String passwordHash;
+    private final long seed;
+    private final ZipfSampler bookPopularity;
+    private final ZipfSampler userActivity;
+    private final ZipfSampler categorySkew;
+    private final double bookNormalization;
+    private final Permutation bookRanks;
+    private final Permutation userRanks;
+    private final double[] linesCdf;
+    private final LocalDateTime start;
+    private final long historySeconds;
+
+    SyntheticDataGenerator(SyntheticSeedProperties properties, String passwordHash) {
+        this.properties = properties;
+        this.passwordHash = passwordHash;
+        this.seed = properties.getSeed();
+        this.bookPopularity = new ZipfSampler(properties.getBooks(), properties.getBookPopularity());
+        this.userActivity = new ZipfSampler(properties.getUsers(), properties.getUserActivity());
+        this.categorySkew = new ZipfSampler(properties.getCategories(), properties.getCategorySkew());
+        this.bookNormalization = ZipfSampler.normalization(properties.getBooks(), properties.getBookPopularity());
+        this.bookRanks = new Permutation(properties.getBooks());
+        this.userRanks = new Permutation(properties.getUsers());
+
+        // Lines per order: k lines with weight 1/k^2, so most orders hold a single book
+        int maxLines = Math.max(1, properties.getMaxItemsPerOrder());
+        this.linesCdf = new double[maxLines];
+        double total = 0;
+        for (int k = 1; k <= maxLines; k++) {
+            total += 1d / (k * k);
+            linesCdf[k - 1] = total;
+        }
+        for (int k = 0; k < maxLines; k++) {
+            linesCdf[k] /= total;
+        }
+
+        LocalDate endDate = properties.getEndDate() != null ? properties.getEndDate() : LocalDate.now();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+        this.start = end.minusDays(properties.getHistoryDays());
+        this.historySeconds = properties.getHistoryDays() * 86_400L;
+    }
+
+    LocalDateTime start() {
+        return start;
+    }
+
+    LocalDateTime end() {
+        return start.plusSeconds(historySeconds);
+    }
+
+    void categories(RowSink sink) throws SQLException {
+        for (int id = 1; id <= properties.getCategories(); id++) {
+            String genre = GENRES[(id - 1) % GENRES.length];
+            int series = (id - 1) / GENRES.length;
+            String name = series == 0 ? genre : genre + " " + (series + 1);
+            String slug = name.toLowerCase().replaceAll("[^a-z0-9]+", "-");
+            sink.add((long) id, name, slug, "Books about " + genre.toLowerCase(), start, start);
+        }
+    }
+
+    void users(long fromId, long toId, RowSink users, RowSink roles) throws SQLException {
+        for (long id = fromId; id < toId; id++) {
+            SplittableRandom random = random(USER, id);
+            LocalDateTime createdAt = at((id - 1 + random.nextDouble()) / properties.getUsers());
+            String email = id == 1 ? "admin@synthetic.example.com" : "user" + id + "@synthetic.example.com";
+            users.add(id, email, passwordHash, pick(FIRST_NAMES, random), pick(LAST_NAMES, random), true, 0,
+                    createdAt, createdAt);
+            roles.add(id, "ROLE_CUSTOMER");
+            if (id == 1) {
+                roles.add(id, "ROLE_ADMIN");
+            }
+        }
+    }
+
+    void books(long fromId, long toId, RowSink sink) throws SQLException {
+        int[] stars = new int[5];
+        for (long id = fromId; id < toId; id++) {
+            SplittableRandom random = random(BOOK, id);
+            long category = categorySkew.sample(random);
+            String author = pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random);
+            int stock = random.nextInt(200);
+            LocalDateTime createdAt = at((id - 1 + random.nextDouble()) / properties.getBooks());
+
+            // The same draws reviews() makes for this book, so the aggregates match its reviews
+            Arrays.fill(stars, 0);
+            int count = reviewCount(id);
+            SplittableRandom ratings = random(RATINGS, id);
+            double tilt = tilt(id);
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                int rating = rating(ratings, tilt);
+                stars[rating - 1]++;
+                sum += rating;
+            }
+            String title = title(id);
+            sink.add(id, title, author, title + " by " + author + ".", isbn(id), price(id), null, stock, category,
+                    count == 0 ? 0d : (double) sum / count, count, sum,
+                    stars[0], stars[1], stars[2], stars[3], stars[4], createdAt, createdAt);
+        }
+    }
+
+    /** Reviews of books fromId..toId-1, numbered from firstReviewId. */
+    void reviews(long fromId, long toId, long firstReviewId, RowSink sink) throws SQLException {
+        long reviewId = firstReviewId;
+        for (long bookId = fromId; bookId < toId; bookId++) {
+            int count = reviewCount(bookId);
+            if (count == 0) {
+                continue;
+            }
+            SplittableRandom ratings = random(RATINGS, bookId);
+            SplittableRandom random = random(REVIEWS, bookId);
+            double tilt = tilt(bookId);
+            double published = (bookId - 1 + 0.5) / properties.getBooks();
+            for (int i = 0; i < count; i++) {
+                int rating = rating(ratings, tilt);
+                long userId = userRanks.id(userActivity.sample(random));
+                String[] comments = COMMENTS[rating - 1];
+                String comment = random.nextInt(10) < 4 ? null : comments[random.nextInt(comments.length)];
+                LocalDateTime createdAt = at(published + random.nextDouble() * (1 - published));
+                sink.add(reviewId++, userId, bookId, rating, comment, createdAt, createdAt);
+            }
+        }
+    }
+
+    /** How many reviews books fromId..toId-1 get, to number the reviews of later ranges. */
+    long reviewCount(long fromId, long toId) {
+        long total = 0;
+        for (long id = fromId; id < toId; id++) {
+            total += reviewCount(id);
+        }
+        return total;
+    }
+
+    /** Orders fromId..toId-1 and their lines, numbered from firstItemId. */
+    void orders(long fromId, long toId, long firstItemId, RowSink orders, RowSink items) throws SQLException {
+        long itemId = firstItemId;
+        int maxLines = linesCdf.length;
+        long[] books = new long[maxLines];
+        int[] quantities = new int[maxLines];
+        LocalDateTime recent = end().minusDays(3);
+        for (long id = fromId; id < toId; id++) {
+            SplittableRandom random = random(ORDER, id);
+            long userId = userRanks.id(userActivity.sample(random));
+            LocalDateTime createdAt = at((id - 1 + random.nextDouble()) / properties.getOrders());
+
+            int lines = lines(id);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < lines; i++) {
+                books[i] = bookRanks.id(bookPopularity.sample(random));
+                double q = random.nextDouble();
+                quantities[i] = q < 0.85 ? 1 : q < 0.97 ? 2 : 3;
+                total = total.add(price(books[i]).multiply(BigDecimal.valueOf(quantities[i])));
+            }
+
+            // Recent orders are still moving through fulfilment; older ones have settled
+            String status;
+            String paymentStatus;
+            double s = random.nextDouble();
+            if (createdAt.isAfter(recent)) {
+                status = s < 0.2 ? "PENDING" : s < 0.6 ? "PAID" : "SHIPPED";
+                paymentStatus = s < 0.2 ? "PENDING" : "SUCCESS";
+            } else {
+                status = s < 0.04 ? "CANCELLED" : "DELIVERED";
+                paymentStatus = s < 0.04 ? "FAILED" : "SUCCESS";
+            }
+            double p = random.nextDouble();
+            String provider = PAYMENT_PROVIDERS[p < 0.6 ? 0 : p < 0.9 ? 1 : 2];
+            String reference = "SUCCESS".equals(paymentStatus) ? "PAY-" + id : null;
+            orders.add(id, userId, total, status, paymentStatus, provider, reference,
+                    (1 + random.nextInt(200)) + " " + pick(TITLE_WORDS, random) + " Street", null,
+                    pick(CITIES, random), String.format("AB%d %dCD", 1 + random.nextInt(99), random.nextInt(10)),
+                    "United Kingdom", createdAt, createdAt);
+
+            for (int i = 0; i < lines; i++) {
+                BigDecimal unitPrice = price(books[i]);
+                items.add(itemId++, id, books[i], title(books[i]), null, unitPrice, quantities[i],
+                        unitPrice.multiply(BigDecimal.valueOf(quantities[i])), createdAt);
+            }
+        }
+    }
+
+    /** How many lines orders fromId..toId-1 have, to number the lines of later ranges. */
+    long itemCount(long fromId, long toId) {
+        long total = 0;
+        for (long id = fromId; id < toId; id++) {
+            total += lines(id);
+        }
+        return total;
+    }
+
+    /** The book id holding popularity rank 1 (the best seller), rank 2 and so on. */
+    long bookWithRank(int rank) {
+        return bookRanks.id(rank);
+    }
+
+    private int reviewCount(long bookId) {
+        double expected = properties.getReviews() * Math.pow(bookRanks.rank(bookId), -properties.getBookPopularity())
+                / bookNormalization;
+        // Dithered so the counts add up to the configured total on average
+        return (int) (expected + unit(REVIEW_COUNT, bookId));
+    }
+
+    private int lines(long orderId) {
+        double u = unit(ORDER_LINES, orderId);
+        int k = 0;
+        while (k < linesCdf.length - 1 && u >= linesCdf[k]) {
+            k++;
+        }
+        return k + 1;
+    }
+
+    // How much better (> 0) or worse (< 0) than typical a book is reviewed
+    private double tilt(long bookId) {
+        return unit(BOOK_TILT, bookId) * 2 - 1;
+    }
+
+    private static int rating(SplittableRandom random, double tilt) {
+        double u = random.nextDouble();
+        int rating = 1;
+        while (u >= RATING_CDF[rating - 1]) {
+            rating++;
+        }
+        if (random.nextDouble() < Math.abs(tilt) * 0.4) {
+            rating = Math.max(1, Math.min(5, rating + (tilt > 0 ? 1 : -1)));
+        }
+        return rating;
+    }
+
+    private String title(long bookId) {
+        SplittableRandom random = random(TITLE, bookId);
+        String title = pick(TITLE_WORDS, random) + " " + pick(TITLE_WORDS, random);
+        return random.nextInt(3) == 0 ? "The " + title : title;
+    }
+
+    // 3.99 to 34.99, fixed per book
+    private BigDecimal price(long bookId) {
+        long pounds = 3 + (long) (unit(BOOK, bookId) * 32);
+        return BigDecimal.valueOf(pounds * 100 + 99, 2);
+    }
+
+    private static String isbn(long bookId) {
+        String digits = "978" + String.format("%09d", bookId % 1_000_000_000L);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+
+    private LocalDateTime at(double fractionOfHistory) {
+        return start.plusSeconds((long) (fractionOfHistory * historySeconds));
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private SplittableRandom random(long stream, long id) {
+        return new SplittableRandom(mix(seed ^ mix(stream * 0x9E3779B97F4A7C15L + id)));
+    }
+
+    private double unit(long stream, long id) {
+        return (mix(seed ^ mix(stream * 0xC2B2AE3D27D4EB4FL + id)) >>> 11) * 0x1.0p-53;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Bijection between ranks 1..n and ids 1..n: id - 1 = (rank - 1) * stride mod n. */
+    private static final class Permutation {
+
+        private final long n;
+        private final long stride;
+        private final long inverse;
+
+        Permutation(long n) {
+            this.n = n;
+            long stride = Math.max(1, (long) (n * 0.6180339887)) | 1;
+            while (!BigInteger.valueOf(stride).gcd(BigInteger.valueOf(n)).equals(BigInteger.ONE)) {
+                stride += 2;
+            }
+            this.stride = stride % n;
+            this.inverse = BigInteger.valueOf(stride).modInverse(BigInteger.valueOf(n)).longValue();
+        }
+
+        long id(long rank) {
+            return (rank - 1) * stride % n + 1;
+        }
+
+        long rank(long id) {
+            return (id - 1) * inverse % n + 1;
+        }
+    }
+}
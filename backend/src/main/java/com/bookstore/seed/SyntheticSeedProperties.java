@@ -0,0 +1,44 @@
+package com.bookstore.seed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+
+/**
+ * Size and shape of the synthetic dataset (app.synthetic-seed). The same
+ * seed, cardinalities and end date always produce the same rows.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.synthetic-seed")
+public class SyntheticSeedProperties {
+
+    private long seed = 42;
+    private int categories = 50;
+    private int books = 1_000_000;
+    private int users = 500_000;
+    private int orders = 2_000_000;
+    // Approximate: each book gets its share of this by popularity
+    private int reviews = 2_000_000;
+
+    // Zipf exponents: book popularity (sales and reviews), category sizes, and user
+    // activity (ranks 1..n, so orders per user follow a power law)
+    private double bookPopularity = 0.9;
+    private double categorySkew = 0.7;
+    private double userActivity = 0.6;
+
+    private int maxItemsPerOrder = 5;
+    // Users, books, orders and reviews are spread over this many days up to end-date
+    private int historyDays = 730;
+    // Today when unset; pin it to get the same timestamps on another day
+    private LocalDate endDate;
+    // Password of every generated account
+    private String password = "password";
+
+    // Rows per parallel unit of work (one connection and transaction each)
+    private int chunkSize = 50_000;
+    // Rows per COPY or JDBC batch
+    private int batchSize = 5_000;
+    // 0 = one worker per CPU
+    private int parallelism = 0;
+}
@@ -0,0 +1,317 @@
+package com.bookstore.seed;
+
+import com.bookstore.service.OrderPartitionService;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the synthetic dataset into a database without any books. Tables are
+ * split into chunks of ids that workers load in parallel, each chunk on its
+ * own connection and transaction: with COPY on PostgreSQL and batched inserts
+ * elsewhere. Tables go in dependency order (categories; users and books;
+ * orders and reviews); afterwards the id sequences are moved past the
+ * generated ids and the user_purchases index is filled.
+ */
+@Slf4j
+public class SyntheticSeeder {
+
+    private static final Table CATEGORIES = new Table("categories",
+            "id", "name", "slug", "description", "created_at", "updated_at");
+    private static final Table USERS = new Table("users",
+            "id", "email", "password", "first_name", "last_name", "enabled", "token_version", "created_at",
+            "updated_at");
+    private static final Table USER_ROLES = new Table("user_roles", "user_id", "role");
+    private static final Table BOOKS = new Table("books",
+            "id", "title", "author", "description", "isbn", "price", "cover_image_url", "stock_quantity",
+            "category_id", "rating_average", "rating_count", "rating_sum", "rating_1", "rating_2", "rating_3",
+            "rating_4", "rating_5", "created_at", "updated_at");
+    private static final Table REVIEWS = new Table("reviews",
+            "id", "user_id", "book_id", "rating", "comment", "created_at", "updated_at");
+    private static final Table ORDERS = new Table("orders",
+            "id", "user_id", "total_amount", "status", "payment_status", "payment_provider", "payment_reference",
+            "line1", "line2", "city", "postcode", "country", "created_at", "updated_at");
+    private static final Table ORDER_ITEMS = new Table("order_items",
+            "id", "order_id", "book_id", "book_title", "book_cover", "unit_price", "quantity", "subtotal",
+            "order_created_at");
+
+    private final DataSource dataSource;
+    private final SyntheticSeedProperties properties;
+    private final PasswordEncoder passwordEncoder;
+    private final OrderPartitionService orderPartitionService;
+
+    private boolean postgres;
+
+    public SyntheticSeeder(DataSource dataSource, SyntheticSeedProperties properties, PasswordEncoder passwordEncoder,
+                           OrderPartitionService orderPartitionService) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.passwordEncoder = passwordEncoder;
+        this.orderPartitionService = orderPartitionService;
+    }
+
+    public void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet books = statement.executeQuery("SELECT COUNT(*) FROM books")) {
+            books.next();
+            if (books.getLong(1) > 0) {
+                throw new IllegalStateException("The database already has books; synthetic data needs an empty one");
+            }
+            postgres = connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+        }
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(properties,
+                passwordEncoder.encode(properties.getPassword()));
+        int workers = workers();
+        log.info("Generating {} books, {} users, {} orders and about {} reviews with {} workers ({})",
+                properties.getBooks(), properties.getUsers(), properties.getOrders(), properties.getReviews(), workers,
+                postgres ? "COPY" : "batched inserts");
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "synthetic-seed-" + threads.incrementAndGet()));
+        long started = System.nanoTime();
+        try {
+            List<Callable<Long>> tasks = new ArrayList<>();
+            tasks.add(() -> load(CATEGORIES, null, (categories, none) -> generator.categories(categories)));
+            run(pool, "categories", tasks);
+
+            tasks.clear();
+            for (long[] chunk : chunks(properties.getUsers())) {
+                tasks.add(() -> load(USERS, USER_ROLES,
+                        (users, roles) -> generator.users(chunk[0], chunk[1], users, roles)));
+            }
+            for (long[] chunk : chunks(properties.getBooks())) {
+                tasks.add(() -> load(BOOKS, null, (books, none) -> generator.books(chunk[0], chunk[1], books)));
+            }
+            run(pool, "users and books", tasks);
+
+            orderPartitionService.ensurePartitions(YearMonth.from(generator.start()), YearMonth.from(generator.end()));
+            tasks.clear();
+            long firstItemId = 1;
+            for (long[] chunk : chunks(properties.getOrders())) {
+                long itemId = firstItemId;
+                tasks.add(() -> load(ORDERS, ORDER_ITEMS,
+                        (orders, items) -> generator.orders(chunk[0], chunk[1], itemId, orders, items)));
+                firstItemId += generator.itemCount(chunk[0], chunk[1]);
+            }
+            long firstReviewId = 1;
+            for (long[] chunk : chunks(properties.getBooks())) {
+                long reviewId = firstReviewId;
+                tasks.add(() -> load(REVIEWS, null,
+                        (reviews, none) -> generator.reviews(chunk[0], chunk[1], reviewId, reviews)));
+                firstReviewId += generator.reviewCount(chunk[0], chunk[1]);
+            }
+            run(pool, "orders and reviews", tasks);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        finish();
+        log.info("Synthetic dataset loaded in {} s", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    // Ids continue after the generated ones; purchases feed verified-review checks
+    private void finish() throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            restartIds(statement, "categories", null);
+            restartIds(statement, "users", null);
+            restartIds(statement, "books", "books_id_seq");
+            restartIds(statement, "reviews", "reviews_id_seq");
+            restartIds(statement, "orders", "orders_id_seq");
+            restartIds(statement, "order_items", "order_items_id_seq");
+            statement.executeUpdate("INSERT INTO user_purchases (user_id, book_id) "
+                    + "SELECT DISTINCT o.user_id, oi.book_id FROM order_items oi JOIN orders o ON o.id = oi.order_id "
+                    + "WHERE oi.book_id IS NOT NULL");
+            if (postgres) {
+                statement.execute("ANALYZE");
+            }
+        }
+        log.info("Restarted id sequences and indexed purchases in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void restartIds(Statement statement, String table, String sequence) throws SQLException {
+        long next;
+        try (ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            max.next();
+            next = max.getLong(1);
+        }
+        if (postgres) {
+            String name = sequence != null ? "'" + sequence + "'" : "pg_get_serial_sequence('" + table + "', 'id')";
+            statement.execute("SELECT setval(" + name + ", " + next + ", false)");
+        } else if (sequence != null) {
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+        } else {
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    private void run(ExecutorService pool, String phase, List<Callable<Long>> tasks) {
+        long started = System.nanoTime();
+        long rows = 0;
+        try {
+            for (Future<Long> result : pool.invokeAll(tasks)) {
+                rows += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading " + phase, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load " + phase, e.getCause());
+        }
+        double seconds = Math.max(1e-3, (System.nanoTime() - started) / 1e9);
+        log.info("Loaded {} rows of {} in {} s ({} rows/s)", rows, phase, String.format("%.1f", seconds),
+                Math.round(rows / seconds));
+    }
+
+    private long load(Table table, Table childTable, ChunkWriter writer) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            Sink sink = new Sink(connection, table, null);
+            Sink children = childTable != null ? new Sink(connection, childTable, sink) : null;
+            writer.write(sink, children);
+            sink.flush();
+            if (children != null) {
+                children.flush();
+            }
+            connection.commit();
+            return sink.written + (children != null ? children.written : 0);
+        }
+    }
+
+    private List<long[]> chunks(int rows) {
+        List<long[]> chunks = new ArrayList<>();
+        for (long from = 1; from <= rows; from += properties.getChunkSize()) {
+            chunks.add(new long[]{from, Math.min(rows + 1L, from + properties.getChunkSize())});
+        }
+        return chunks;
+    }
+
+    // One per CPU by default, never more than the pool can hand out connections
+    private int workers() throws SQLException {
+        int workers = properties.getParallelism() > 0 ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            workers = Math.min(workers, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        }
+        return Math.max(1, workers);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(Sink rows, Sink childRows) throws SQLException;
+    }
+
+    private record Table(String name, String... columns) {
+
+        String insertSql() {
+            return "INSERT INTO " + name + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        }
+
+        String copySql() {
+            return "COPY " + name + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        }
+    }
+
+    /**
+     * Buffers a batch of rows for one table. Rows that reference a parent table
+     * (order lines, roles) are only written once the parent's buffered rows are.
+     */
+    private final class Sink implements SyntheticDataGenerator.RowSink {
+
+        private final Connection connection;
+        private final Table table;
+        private final Sink parent;
+        private final List<Object[]> rows = new ArrayList<>();
+        private long written;
+
+        Sink(Connection connection, Table table, Sink parent) {
+            this.connection = connection;
+            this.table = table;
+            this.parent = parent;
+        }
+
+        @Override
+        public void add(Object... values) throws SQLException {
+            rows.add(values);
+            if (rows.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (parent != null) {
+                parent.flush();
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+            if (postgres) {
+                copy();
+            } else {
+                insert();
+            }
+            written += rows.size();
+            rows.clear();
+        }
+
+        private void copy() throws SQLException {
+            StringBuilder csv = new StringBuilder(rows.size() * 128);
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        csv.append(',');
+                    }
+                    Object value = row[i];
+                    if (value instanceof String text) {
+                        csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+                    } else if (value != null) {
+                        csv.append(value);
+                    }
+                }
+                csv.append('\n');
+            }
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(table.copySql(),
+                        new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into " + table.name() + " failed", e);
+            }
+        }
+
+        private void insert() throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(table.insertSql())) {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+}
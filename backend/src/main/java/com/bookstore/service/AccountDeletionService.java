@@ -0,0 +1,271 @@
+/**
+ * AccountDeletionService - Set-based account deletion and anonymization.
+ *
+ * Removes an account with bulk DELETE statements in chunks of orders and
+ * reviews, each chunk in its own short transaction, instead of loading and
+ * cascading every row in one long transaction. Ratings of deleted reviews
+ * leave the book aggregates as one delta per book and chunk. Admins can
+ * delete or anonymize many accounts as a background job and poll its progress.
+ */
+package com.bookstore.service;
+
+import com.bookstore.dto.AccountDeletionJobDto;
+import com.bookstore.dto.AccountDeletionRequest;
+import com.bookstore.entity.Role;
+import com.bookstore.entity.User;
+import com.bookstore.repository.*;
+import com.bookstore.security.TokenVersionCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class AccountDeletionService {
+
+    private static final int MAX_RETAINED_JOBS = 50;
+    private static final int MAX_REPORTED_ERRORS = 20;
+    // Never matches a BCrypt hash, so an anonymized account cannot log in
+    private static final String UNUSABLE_PASSWORD = "!";
+
+    private final UserRepository userRepository;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final OrderRepository orderRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final ReviewRepository reviewRepository;
+    private final BookRatingService bookRatingService;
+    private final PurchaseIndexService purchaseIndexService;
+    private final OrderArchiveService orderArchiveService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenVersionCache tokenVersionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    // Most recent jobs by id, oldest first
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public AccountDeletionService(UserRepository userRepository, CartRepository cartRepository,
+            CartItemRepository cartItemRepository, OrderRepository orderRepository,
+            OrderArchiveRepository orderArchiveRepository, ReviewRepository reviewRepository,
+            BookRatingService bookRatingService, PurchaseIndexService purchaseIndexService,
+            OrderArchiveService orderArchiveService, RefreshTokenService refreshTokenService,
+            TokenVersionCache tokenVersionCache,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.accounts.deletion.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.orderRepository = orderRepository;
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.reviewRepository = reviewRepository;
+        this.bookRatingService = bookRatingService;
+        this.purchaseIndexService = purchaseIndexService;
+        this.orderArchiveService = orderArchiveService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Deletes an account and everything it owns. The account is disabled and its
+     * tokens revoked first so it cannot be used while its orders and reviews are removed chunk by chunk;
+     * the user row goes in a last transaction that also sweeps up any stragglers.
+     * Sales rollups are left alone: the sales still happened.
+     */
+    public void deleteAccount(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            user.setEnabled(false);
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            tokenVersionCache.evictAfterCommit(userId);
+        });
+
+        while (transactionTemplate.execute(status -> deleteOrderChunk(userId)) == chunkSize) {
+            // next chunk
+        }
+        while (transactionTemplate.execute(status -> deleteReviewChunk(userId)) == chunkSize) {
+            // next chunk
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Orders or reviews committed since the chunked passes
+            while (deleteOrderChunk(userId) == chunkSize) {
+                // next chunk
+            }
+            while (deleteReviewChunk(userId) == chunkSize) {
+                // next chunk
+            }
+            cartItemRepository.deleteByUserId(userId);
+            cartRepository.deleteByUserId(userId);
+            orderArchiveRepository.deleteByUserId(userId);
+            purchaseIndexService.deleteUserPurchases(userId);
+            refreshTokenService.deleteAllForUser(userId);
+            userRepository.deleteById(userId);
+        });
+    }
+
+    /**
+     * Strips personal data from an account but keeps its orders and reviews:
+     * the account can no longer log in, its email and name are replaced, and
+     * shipping addresses are reduced to their country. Runs in one transaction,
+     * as every statement is a single set-based UPDATE or DELETE for the user.
+     */
+    public void anonymizeAccount(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            cartItemRepository.deleteByUserId(userId);
+            cartRepository.deleteByUserId(userId);
+            orderRepository.anonymizeByUserId(userId);
+            orderArchiveService.anonymizeUserOrders(userId);
+            purchaseIndexService.deleteUserPurchases(userId);
+            refreshTokenService.deleteAllForUser(userId);
+
+            user.setEmail("deleted-" + userId + "@anonymized.invalid");
+            user.setPassword(UNUSABLE_PASSWORD);
+            user.setFirstName(null);
+            user.setLastName(null);
+            user.setRoles(new HashSet<>());
+            user.setEnabled(false);
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            tokenVersionCache.evictAfterCommit(userId);
+        });
+    }
+
+    public AccountDeletionJobDto createJob(AccountDeletionRequest request) {
+        Job job = new Job(UUID.randomUUID().toString(), request.getMode(),
+                List.copyOf(new LinkedHashSet<>(request.getUserIds())));
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            Iterator<Job> oldest = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && oldest.hasNext()) {
+                if (oldest.next().finishedAt != null) {
+                    oldest.remove();
+                }
+            }
+        }
+        return job.toDto();
+    }
+
+    public Optional<AccountDeletionJobDto> getJob(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+        }
+    }
+
+    /**
+     * Processes every account of a job created by {@link #createJob}, one at a
+     * time. A failing account is reported and skipped; admin accounts are never
+     * touched by batch jobs.
+     */
+    @Async
+    public void runJob(String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new RuntimeException("Job not found");
+        }
+        job.status = "RUNNING";
+        long started = System.currentTimeMillis();
+        for (Long userId : job.userIds) {
+            try {
+                boolean admin = userRepository.findById(userId)
+                        .orElseThrow(() -> new RuntimeException("User not found"))
+                        .getRoles().contains(Role.ROLE_ADMIN);
+                if (admin) {
+                    throw new RuntimeException("Admin accounts are not processed");
+                }
+                if (job.mode == AccountDeletionRequest.Mode.DELETE) {
+                    deleteAccount(userId);
+                } else {
+                    anonymizeAccount(userId);
+                }
+            } catch (Exception e) {
+                job.fail(userId, e);
+            } finally {
+                job.processed.incrementAndGet();
+            }
+        }
+        job.finishedAt = LocalDateTime.now();
+        job.status = "COMPLETED";
+        log.info("Account {} job {} finished: {} accounts, {} failed, {} ms", job.mode, job.id,
+                job.userIds.size(), job.failed.get(), System.currentTimeMillis() - started);
+    }
+
+    // Returns the number of orders deleted, at most chunkSize
+    private int deleteOrderChunk(Long userId) {
+        List<Long> orderIds = orderRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        orderRepository.deleteItemsByOrderIdIn(orderIds);
+        return orderRepository.deleteByIdIn(orderIds);
+    }
+
+    // Returns the number of reviews deleted, at most chunkSize
+    private int deleteReviewChunk(Long userId) {
+        List<Long> reviewIds = reviewRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+        if (reviewIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, int[]> removedPerStar = new HashMap<>();
+        for (Object[] row : reviewRepository.countRatingsByBook(reviewIds)) {
+            int rating = ((Number) row[1]).intValue();
+            removedPerStar.computeIfAbsent((Long) row[0], bookId -> new int[5])[rating - 1] +=
+                    ((Number) row[2]).intValue();
+        }
+        int deleted = reviewRepository.deleteByIdIn(reviewIds);
+        removedPerStar.forEach(bookRatingService::removeRatings);
+        return deleted;
+    }
+
+    private static class Job {
+        private final String id;
+        private final AccountDeletionRequest.Mode mode;
+        private final List<Long> userIds;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = "QUEUED";
+        private volatile LocalDateTime finishedAt;
+
+        Job(String id, AccountDeletionRequest.Mode mode, List<Long> userIds) {
+            this.id = id;
+            this.mode = mode;
+            this.userIds = userIds;
+        }
+
+        void fail(Long userId, Exception e) {
+            if (failed.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add("User " + userId + ": " + e.getMessage());
+            }
+        }
+
+        AccountDeletionJobDto toDto() {
+            return AccountDeletionJobDto.builder()
+                    .jobId(id)
+                    .mode(mode)
+                    .status(status)
+                    .total(userIds.size())
+                    .processed(processed.get())
+                    .failed(failed.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
+}
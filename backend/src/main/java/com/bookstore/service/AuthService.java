@@ -3,6 +3,8 @@
  * 
  * Handles user registration with password encoding,
  * login with JWT token generation, and credential validation.
+ * Login hands out a short-lived access token plus a refresh token; logout
+ * revokes both.
  */
 package com.bookstore.service;
 
@@ -13,18 +15,18 @@ import com.bookstore.entity.Role;
 import com.bookstore.entity.User;
 import com.bookstore.repository.UserRepository;
 import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +36,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional
     public String register(RegisterRequest request) {
@@ -61,10 +65,31 @@ public class AuthService {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String jwt = jwtUtils.generateToken(userDetails);
-
+        if (userDetails instanceof UserPrincipal principal) {
+            return new JwtResponse(jwt, refreshTokenService.issue(principal.getId()));
+        }
         return new JwtResponse(jwt);
     }
+
+    public JwtResponse refresh(String refreshToken) {
+        return refreshTokenService.rotate(refreshToken);
+    }
+
+    /**
+     * Ends a session: revokes the refresh token's family and, when the request
+     * was authenticated, the access token it carried. Its expiry is not kept in
+     * the principal, so the revocation is held for the longest possible lifetime.
+     */
+    @Transactional
+    public void logout(String refreshToken, UserPrincipal principal) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (principal != null && principal.getTokenId() != null) {
+            tokenRevocationService.revoke(principal.getTokenId(),
+                    LocalDateTime.now().plusNanos(jwtUtils.getJwtExpirationMs() * 1_000_000L));
+        }
+    }
 }
@@ -0,0 +1,344 @@
+/**
+ * BookRatingService - Incremental book rating aggregates.
+ *
+ * Keeps ratingCount, ratingSum, ratingAverage and the 1-5 star histogram on
+ * each book up to date without re-reading every review. Review changes are
+ * buffered per book after their transaction commits and a small worker pool
+ * applies each book's coalesced delta in one UPDATE, at most
+ * max-staleness-ms later, so a burst of reviews touches the books row once
+ * instead of contending with checkout for its lock on every review.
+ * A repair job recomputes the aggregates from the reviews table to verify
+ * (and fix) any drift, e.g. deltas lost in a crash.
+ */
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+@Slf4j
+@Service
+public class BookRatingService {
+
+    private static final String APPLY_DELTA_SQL = "UPDATE books SET "
+            + "rating_count = rating_count + ?, "
+            + "rating_sum = rating_sum + ?, "
+            + "rating_1 = rating_1 + ?, "
+            + "rating_2 = rating_2 + ?, "
+            + "rating_3 = rating_3 + ?, "
+            + "rating_4 = rating_4 + ?, "
+            + "rating_5 = rating_5 + ?, "
+            + "rating_average = CASE WHEN rating_count + ? > 0 "
+            + "THEN (rating_sum + ?) * 1.0 / (rating_count + ?) ELSE 0.0 END "
+            + "WHERE id = ?";
+
+    private static final String RECOMPUTE_BOOK_SQL = "UPDATE books SET "
+            + "rating_count = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id), "
+            + "rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM reviews r WHERE r.book_id = books.id), "
+            + "rating_1 = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 1), "
+            + "rating_2 = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 2), "
+            + "rating_3 = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 3), "
+            + "rating_4 = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 4), "
+            + "rating_5 = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 5), "
+            + "rating_average = COALESCE((SELECT AVG(r.rating * 1.0) FROM reviews r WHERE r.book_id = books.id), 0) "
+            + "WHERE id = ?";
+
+    private static final String DRIFTED_BOOKS_SQL = "SELECT b.id FROM books b LEFT JOIN ("
+            + "SELECT book_id, COUNT(*) AS cnt, SUM(rating) AS total, "
+            + "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END) AS r1, "
+            + "SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END) AS r2, "
+            + "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END) AS r3, "
+            + "SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END) AS r4, "
+            + "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) AS r5 "
+            + "FROM reviews GROUP BY book_id) a ON a.book_id = b.id "
+            + "WHERE COALESCE(b.rating_count, -1) <> COALESCE(a.cnt, 0) "
+            + "OR b.rating_sum <> COALESCE(a.total, 0) "
+            + "OR b.rating_1 <> COALESCE(a.r1, 0) OR b.rating_2 <> COALESCE(a.r2, 0) "
+            + "OR b.rating_3 <> COALESCE(a.r3, 0) OR b.rating_4 <> COALESCE(a.r4, 0) "
+            + "OR b.rating_5 <> COALESCE(a.r5, 0)";
+
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean async;
+    private final long maxStalenessNanos;
+    private final int workerCount;
+
+    // Per-book deltas waiting to be applied; only mutated inside merge()
+    private final ConcurrentHashMap<Long, PendingDelta> pending = new ConcurrentHashMap<>();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService workers;
+
+    public BookRatingService(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+            @Value("${app.reviews.rating-aggregation.async:true}") boolean async,
+            @Value("${app.reviews.rating-aggregation.max-staleness-ms:1000}") long maxStalenessMs,
+            @Value("${app.reviews.rating-aggregation.workers:2}") int workerCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.async = async;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        this.workerCount = Math.max(1, workerCount);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!async) {
+            return;
+        }
+        workers = Executors.newFixedThreadPool(workerCount, namedThreads("rating-worker"));
+        dispatcher = Executors.newSingleThreadScheduledExecutor(namedThreads("rating-dispatcher"));
+        long tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(10), maxStalenessNanos / 10);
+        dispatcher.scheduleWithFixedDelay(this::dispatchDue, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!async) {
+            return;
+        }
+        dispatcher.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Records a review change: {@code addedRating} enters and/or {@code removedRating}
+     * leaves the book's aggregates (0 for none). Must run in the review's transaction;
+     * the delta is queued once that transaction commits (or applied in it when
+     * rating aggregation is synchronous).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(Long bookId, int addedRating, int removedRating) {
+        if (addedRating == removedRating) {
+            return;
+        }
+        PendingDelta delta = new PendingDelta();
+        delta.add(addedRating, removedRating);
+        record(bookId, delta);
+    }
+
+    /**
+     * Takes many reviews of one book out of its aggregates at once, e.g. when an
+     * account is deleted. {@code removedPerStar[i]} is the number of removed
+     * (i + 1)-star reviews. Must run in the transaction that deletes them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeRatings(Long bookId, int[] removedPerStar) {
+        PendingDelta delta = new PendingDelta();
+        for (int star = 1; star <= 5; star++) {
+            delta.remove(star, removedPerStar[star - 1]);
+        }
+        record(bookId, delta);
+    }
+
+    private void record(Long bookId, PendingDelta delta) {
+        if (!async) {
+            apply(bookId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.merge(bookId, delta, PendingDelta::merge);
+            }
+        });
+    }
+
+    /**
+     * Applies every pending delta now, on the calling thread. Returns the number of
+     * books updated. Used by tests, before repairs and on shutdown.
+     */
+    public int flush() {
+        int flushed = 0;
+        for (Long bookId : new ArrayList<>(pending.keySet())) {
+            if (flushBook(bookId)) {
+                flushed++;
+            }
+        }
+        return flushed;
+    }
+
+    public int pendingBooks() {
+        return pending.size();
+    }
+
+    /**
+     * Recomputes aggregates from scratch for every book whose stored values disagree
+     * with its reviews, after applying pending deltas. Returns the number of books repaired.
+     */
+    @Scheduled(cron = "${app.reviews.rating-repair.cron:0 30 4 * * SUN}")
+    public int repairAggregates() {
+        flush();
+        List<Long> drifted = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(DRIFTED_BOOKS_SQL, Long.class);
+            for (Long bookId : ids) {
+                jdbcTemplate.update(RECOMPUTE_BOOK_SQL, bookId);
+            }
+            return ids;
+        });
+        if (drifted == null || drifted.isEmpty()) {
+            log.info("Book rating aggregates verified, no drift");
+            return 0;
+        }
+        // Plain JDBC writes bypass Hibernate, so drop the cached copies by hand
+        drifted.forEach(bookId -> entityManagerFactory.getCache().evict(Book.class, bookId));
+        log.warn("Repaired rating aggregates of {} books: {}", drifted.size(),
+                drifted.size() > 20 ? drifted.subList(0, 20) + "..." : drifted);
+        return drifted.size();
+    }
+
+    private void dispatchDue() {
+        try {
+            long now = System.nanoTime();
+            pending.forEach((bookId, delta) -> {
+                if (now - delta.queuedAt >= delayOf(delta) && inFlight.add(bookId)) {
+                    workers.execute(() -> {
+                        try {
+                            flushBook(bookId);
+                        } finally {
+                            inFlight.remove(bookId);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; stop() flushes what is left
+        } catch (Exception e) {
+            log.error("Failed to dispatch rating updates", e);
+        }
+    }
+
+    private boolean flushBook(Long bookId) {
+        PendingDelta delta = pending.remove(bookId);
+        if (delta == null) {
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(bookId, delta));
+            return true;
+        } catch (Exception e) {
+            delta.failed();
+            log.error("Failed to update rating aggregates of book {}, retrying in {} ms", bookId,
+                    TimeUnit.NANOSECONDS.toMillis(delayOf(delta)), e);
+            // Changes queued meanwhile wait with the failed ones, so the book backs off as a whole
+            pending.merge(bookId, delta, (queued, failed) -> failed.merge(queued));
+            return false;
+        }
+    }
+
+    // Backs off exponentially after failures, so a book whose update keeps failing
+    // is not retried on every tick
+    private long delayOf(PendingDelta delta) {
+        if (delta.failures == 0) {
+            return maxStalenessNanos;
+        }
+        return Math.min(MAX_RETRY_DELAY_NANOS, maxStalenessNanos << Math.min(delta.failures, 20));
+    }
+
+    // Runs in a transaction. A JPQL bulk update would invalidate every cached book, so this
+    // is plain JDBC and only this book's cached copy is dropped, once the change is committed
+    private void apply(Long bookId, PendingDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(APPLY_DELTA_SQL, delta.count, delta.sum,
+                delta.stars[0], delta.stars[1], delta.stars[2], delta.stars[3], delta.stars[4],
+                delta.count, delta.sum, delta.count, bookId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Book.class, bookId);
+            }
+        });
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName(prefix + "-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Net change of one book's aggregates since its last flush.
+     */
+    private static class PendingDelta {
+        private long queuedAt = System.nanoTime();
+        private int failures;
+        private int count;
+        private long sum;
+        private final int[] stars = new int[5];
+
+        void add(int addedRating, int removedRating) {
+            if (addedRating > 0) {
+                count++;
+                sum += addedRating;
+                stars[addedRating - 1]++;
+            }
+            if (removedRating > 0) {
+                remove(removedRating, 1);
+            }
+        }
+
+        void remove(int rating, int reviews) {
+            count -= reviews;
+            sum -= (long) rating * reviews;
+            stars[rating - 1] -= reviews;
+        }
+
+        void failed() {
+            failures++;
+            queuedAt = System.nanoTime();
+        }
+
+        PendingDelta merge(PendingDelta other) {
+            count += other.count;
+            sum += other.sum;
+            for (int i = 0; i < stars.length; i++) {
+                stars[i] += other.stars[i];
+            }
+            return this;
+        }
+
+        boolean isEmpty() {
+            if (count != 0 || sum != 0) {
+                return false;
+            }
+            for (int star : stars) {
+                if (star != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
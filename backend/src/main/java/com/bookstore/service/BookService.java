@@ -6,6 +6,7 @@
  */
 package com.bookstore.service;
 
+import com.bookstore.dto.BookDto;
 import com.bookstore.dto.BookRequest;
 import com.bookstore.entity.Book;
 import com.bookstore.entity.Category;
@@ -15,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 
@@ -24,23 +26,26 @@ public class BookService {
 
     private final BookRepository bookRepository;
     private final CategoryRepository categoryRepository;
+    private final BookStockService bookStockService;
 
-    public Page<Book> getAllBooks(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, String search,
+    @Transactional(readOnly = true)
+    public Page<BookDto> getAllBooks(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, String search,
             Pageable pageable) {
         if (search == null || search.trim().isEmpty()) {
             search = "%";
         } else {
             search = "%" + search + "%";
         }
-        return bookRepository.findAllWithFilters(categoryId, minPrice, maxPrice, search, pageable);
+        return bookRepository.findAllWithFilters(categoryId, minPrice, maxPrice, search, pageable).map(BookDto::from);
     }
 
-    public Book getBookById(Long id) {
-        return bookRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+    @Transactional(readOnly = true)
+    public BookDto getBookById(Long id) {
+        return BookDto.from(findBook(id));
     }
 
-    public Book createBook(BookRequest request) {
+    @Transactional
+    public BookDto createBook(BookRequest request) {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found"));
 
@@ -57,11 +62,12 @@ public class BookService {
                 .ratingCount(0)
                 .build();
 
-        return bookRepository.save(book);
+        return BookDto.from(bookRepository.save(book));
     }
 
-    public Book updateBook(Long id, BookRequest request) {
-        Book book = getBookById(id);
+    @Transactional
+    public BookDto updateBook(Long id, BookRequest request) {
+        Book book = findBook(id);
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found"));
 
@@ -71,13 +77,21 @@ public class BookService {
         book.setIsbn(request.getIsbn());
         book.setPrice(request.getPrice());
         book.setCoverImageUrl(request.getCoverImageUrl());
-        book.setStockQuantity(request.getStockQuantity());
         book.setCategory(category);
+        Book saved = bookRepository.save(book);
+        bookStockService.set(id, request.getStockQuantity());
+        saved.setStockQuantity(request.getStockQuantity());
 
-        return bookRepository.save(book);
+        return BookDto.from(saved);
     }
 
+    @Transactional
     public void deleteBook(Long id) {
         bookRepository.deleteById(id);
     }
+
+    private Book findBook(Long id) {
+        return bookRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Book not found"));
+    }
 }
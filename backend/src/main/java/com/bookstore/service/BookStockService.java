@@ -0,0 +1,60 @@
+/**
+ * BookStockService - Stock levels of books.
+ *
+ * Books sit in the node-local second-level cache, so a cached stockQuantity
+ * may be stale and must never be written back. Stock is therefore changed
+ * only here, by conditional UPDATEs against the row itself: a checkout takes
+ * stock only if the row still has enough, however stale the copy it was shown.
+ * Cached stock is good for display and early validation only.
+ */
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+public class BookStockService {
+
+    private static final String TAKE_SQL =
+            "UPDATE books SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+    private static final String SET_SQL = "UPDATE books SET stock_quantity = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Takes {@code quantity} from the book's stock in the caller's transaction.
+     * Returns false, leaving the stock alone, when the book has fewer left.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean take(Long bookId, int quantity) {
+        boolean taken = jdbcTemplate.update(TAKE_SQL, quantity, bookId, quantity) == 1;
+        // Either way this node's cached copy is now known to be stale
+        evictAfterCompletion(bookId);
+        return taken;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void set(Long bookId, int quantity) {
+        jdbcTemplate.update(SET_SQL, quantity, bookId);
+        evictAfterCompletion(bookId);
+    }
+
+    // Plain JDBC writes bypass Hibernate, so drop the cached copy by hand
+    private void evictAfterCompletion(Long bookId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                entityManagerFactory.getCache().evict(Book.class, bookId);
+            }
+        });
+    }
+}
@@ -1,25 +1,66 @@
 package com.bookstore.service;
 
 import com.bookstore.dto.CaptchaResponse;
+import com.bookstore.security.SeenNonceSet;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Stateless arithmetic captchas. The captcha id is a signed token holding a
+ * nonce, its expiry and a MAC over the expected answer, so any node sharing
+ * the secret can check it without a store. Each nonce is accepted once per
+ * node, tracked in a bounded set that forgets nonces as they expire.
+ */
 @Service
 public class CaptchaService {
 
-    private final Map<String, Integer> captchaStore = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private static final int NONCE_LENGTH = 8;
+    private static final int EXPIRY_LENGTH = 8;
+    private static final int MAC_LENGTH = 16;
+    private static final int TOKEN_LENGTH = NONCE_LENGTH + EXPIRY_LENGTH + 2 * MAC_LENGTH;
+    private static final byte SIGNATURE_TAG = 's';
+    private static final byte ANSWER_TAG = 'a';
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final SeenNonceSet seenNonces;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> mac;
+
+    public CaptchaService(
+            @Value("${app.security.captcha.secret:}") String captchaSecret,
+            @Value("${app.jwtSecret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}") String jwtSecret,
+            @Value("${app.security.captcha.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.security.captcha.replay.buckets:10}") int replayBuckets,
+            @Value("${app.security.captcha.replay.max-per-bucket:50000}") int maxPerBucket) {
+        // Without a dedicated secret, derive one from the JWT secret all nodes already share
+        byte[] secret = captchaSecret.isBlank()
+                ? hmac(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"),
+                        "captcha".getBytes(StandardCharsets.UTF_8))
+                : captchaSecret.getBytes(StandardCharsets.UTF_8);
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        this.ttlSeconds = ttlSeconds;
+        this.seenNonces = new SeenNonceSet(ttlSeconds, replayBuckets, maxPerBucket);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
 
     public CaptchaResponse generateCaptcha() {
-        int num1 = (int) (Math.random() * 10);
-        int num2 = (int) (Math.random() * 10);
-        String operation = Math.random() > 0.5 ? "+" : "-";
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int num1 = rnd.nextInt(10);
+        int num2 = rnd.nextInt(10);
+        String operation = rnd.nextBoolean() ? "+" : "-";
 
         // Ensure positive result for subtraction
         if (operation.equals("-") && num1 < num2) {
@@ -30,31 +71,78 @@ public class CaptchaService {
 
         int answer = operation.equals("+") ? num1 + num2 : num1 - num2;
         String question = num1 + " " + operation + " " + num2 + " = ?";
-        String id = UUID.randomUUID().toString();
 
-        captchaStore.put(id, answer);
+        ByteBuffer token = ByteBuffer.allocate(TOKEN_LENGTH);
+        token.putLong(random.nextLong());
+        token.putLong(Instant.now().getEpochSecond() + ttlSeconds);
+        byte[] claims = Arrays.copyOf(token.array(), NONCE_LENGTH + EXPIRY_LENGTH);
+        token.put(sign(SIGNATURE_TAG, claims, 0));
+        token.put(sign(ANSWER_TAG, claims, answer));
 
-        // Expire after 5 minutes
-        scheduler.schedule(() -> captchaStore.remove(id), 5, TimeUnit.MINUTES);
-
-        return new CaptchaResponse(id, question);
+        return new CaptchaResponse(Base64.getUrlEncoder().withoutPadding().encodeToString(token.array()), question);
     }
 
+    /**
+     * Checks an answer. A well-formed, unexpired captcha is used up by its first
+     * attempt, right or wrong, so answers cannot be guessed one by one.
+     */
     public boolean validateCaptcha(String id, String answer) {
-        if (id == null || answer == null || !captchaStore.containsKey(id)) {
+        if (id == null || answer == null) {
             return false;
         }
-
+        int parsedAnswer;
+        byte[] token;
         try {
-            int parsedAnswer = Integer.parseInt(answer.trim());
-            Integer expectedAnswer = captchaStore.get(id);
+            parsedAnswer = Integer.parseInt(answer.trim());
+            token = Base64.getUrlDecoder().decode(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (token.length != TOKEN_LENGTH) {
+            return false;
+        }
 
-            // Remove after validation to prevent reuse
-            captchaStore.remove(id);
+        ByteBuffer buffer = ByteBuffer.wrap(token);
+        long nonce = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        byte[] claims = Arrays.copyOf(token, NONCE_LENGTH + EXPIRY_LENGTH);
+        byte[] signature = Arrays.copyOfRange(token, claims.length, claims.length + MAC_LENGTH);
+        byte[] answerMac = Arrays.copyOfRange(token, claims.length + MAC_LENGTH, TOKEN_LENGTH);
 
-            return expectedAnswer != null && expectedAnswer.equals(parsedAnswer);
-        } catch (NumberFormatException e) {
+        // Forged tokens never reach the nonce set
+        if (!MessageDigest.isEqual(signature, sign(SIGNATURE_TAG, claims, 0))
+                || expiresAt <= Instant.now().getEpochSecond()
+                || !seenNonces.markSeen(nonce, expiresAt)) {
             return false;
         }
+        return MessageDigest.isEqual(answerMac, sign(ANSWER_TAG, claims, parsedAnswer));
+    }
+
+    private byte[] sign(byte purpose, byte[] claims, int answer) {
+        Mac instance = mac.get();
+        instance.update(purpose);
+        instance.update(claims);
+        instance.update(ByteBuffer.allocate(Integer.BYTES).putInt(answer).array());
+        return Arrays.copyOf(instance.doFinal(), MAC_LENGTH);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance("HmacSHA256");
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        try {
+            Mac instance = Mac.getInstance("HmacSHA256");
+            instance.init(key);
+            return instance.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -9,7 +9,6 @@ package com.bookstore.service;
 
 import com.bookstore.dto.AddToCartRequest;
 import com.bookstore.dto.CartDto;
-import com.bookstore.dto.CartItemDto;
 import com.bookstore.entity.Book;
 import com.bookstore.entity.Cart;
 import com.bookstore.entity.CartItem;
@@ -22,9 +21,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -40,7 +37,7 @@ public class CartService {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         Cart cart = getOrCreateCart(user);
-        return mapToDto(cart);
+        return CartDto.from(cart);
     }
 
     @Transactional
@@ -77,7 +74,7 @@ public class CartService {
             cartItemRepository.save(newItem);
         }
 
-        return mapToDto(cart);
+        return CartDto.from(cart);
     }
 
     @Transactional
@@ -104,7 +101,7 @@ public class CartService {
             cartItemRepository.save(item);
         }
 
-        return mapToDto(cart);
+        return CartDto.from(cart);
     }
 
     @Transactional
@@ -140,30 +137,4 @@ public class CartService {
                     return cartRepository.save(newCart);
                 });
     }
-
-    private CartDto mapToDto(Cart cart) {
-        BigDecimal total = BigDecimal.ZERO;
-        var items = cart.getItems().stream().map(item -> {
-            BigDecimal subtotal = item.getBook().getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-            return CartItemDto.builder()
-                    .id(item.getId())
-                    .bookId(item.getBook().getId())
-                    .bookTitle(item.getBook().getTitle())
-                    .coverImageUrl(item.getBook().getCoverImageUrl())
-                    .quantity(item.getQuantity())
-                    .unitPrice(item.getBook().getPrice())
-                    .subtotal(subtotal)
-                    .build();
-        }).collect(Collectors.toList());
-
-        for (var item : items) {
-            total = total.add(item.getSubtotal());
-        }
-
-        return CartDto.builder()
-                .id(cart.getId())
-                .items(items)
-                .totalAmount(total)
-                .build();
-    }
 }
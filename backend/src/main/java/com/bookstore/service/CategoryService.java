@@ -6,11 +6,13 @@
  */
 package com.bookstore.service;
 
+import com.bookstore.dto.CategoryDto;
 import com.bookstore.dto.CategoryRequest;
 import com.bookstore.entity.Category;
 import com.bookstore.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -20,28 +22,32 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<CategoryDto> getAllCategories() {
+        return categoryRepository.findAll().stream().map(CategoryDto::from).toList();
     }
 
-    public Category createCategory(CategoryRequest request) {
+    @Transactional
+    public CategoryDto createCategory(CategoryRequest request) {
         Category category = Category.builder()
                 .name(request.getName())
                 .slug(request.getSlug())
                 .description(request.getDescription())
                 .build();
-        return categoryRepository.save(category);
+        return CategoryDto.from(categoryRepository.save(category));
     }
 
-    public Category updateCategory(Long id, CategoryRequest request) {
+    @Transactional
+    public CategoryDto updateCategory(Long id, CategoryRequest request) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
         category.setName(request.getName());
         category.setSlug(request.getSlug());
         category.setDescription(request.getDescription());
-        return categoryRepository.save(category);
+        return CategoryDto.from(categoryRepository.save(category));
     }
 
+    @Transactional
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
     }
@@ -0,0 +1,212 @@
+/**
+ * OrderArchiveService - Cold archive for old orders.
+ *
+ * Moves whole monthly order partitions into orders_archive as compressed
+ * JSON and serves archived orders back as regular Order objects, so order
+ * history keeps working after the hot rows are gone.
+ */
+package com.bookstore.service;
+
+import com.bookstore.entity.*;
+import com.bookstore.repository.OrderArchiveRepository;
+import com.bookstore.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    private static final int ARCHIVE_CHUNK_SIZE = 500;
+    private static final Pattern PARTITION_NAME = Pattern.compile("orders_p\\d{6}");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final OrderRepository orderRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public long countUserOrders(User user) {
+        return orderArchiveRepository.countByUserId(user.getId());
+    }
+
+    public List<Order> getUserOrders(User user, int limit, long offset) {
+        return orderArchiveRepository.findUserPage(user.getId(), limit, offset).stream()
+                .map(archive -> decode(archive, user))
+                .toList();
+    }
+
+    public Optional<Order> getUserOrder(User user, Long orderId) {
+        return orderArchiveRepository.findByIdAndUserId(orderId, user.getId())
+                .map(archive -> decode(archive, user));
+    }
+
+    /**
+     * Copies every order of one monthly partition (with its items) into the archive,
+     * then removes the items and detaches and drops the partition, all in one
+     * transaction. Returns the number of archived orders.
+     */
+    @Transactional
+    public int archivePartition(String partition) {
+        if (!PARTITION_NAME.matcher(partition).matches()) {
+            throw new IllegalArgumentException("Not an order partition: " + partition);
+        }
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + partition + " ORDER BY id", Long.class);
+        LocalDateTime archivedAt = LocalDateTime.now();
+        YearMonth month = YearMonth.parse(partition.substring("orders_p".length()), PARTITION_MONTH);
+        LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+        LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay().minusNanos(1000);
+
+        for (int from = 0; from < ids.size(); from += ARCHIVE_CHUNK_SIZE) {
+            List<Order> orders = orderRepository.findAllWithItemsByIdIn(
+                    ids.subList(from, Math.min(from + ARCHIVE_CHUNK_SIZE, ids.size())), monthStart, monthEnd);
+            List<Object[]> rows = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                rows.add(new Object[] { order.getId(), order.getUser().getId(),
+                        Timestamp.valueOf(order.getCreatedAt()), Timestamp.valueOf(archivedAt), encode(order) });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO orders_archive (id, user_id, created_at, archived_at, payload) "
+                    + "VALUES (?, ?, ?, ?, ?)", rows);
+            entityManager.clear();
+        }
+
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (SELECT id FROM " + partition + ")");
+        jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        log.info("Archived {} orders from partition {}", ids.size(), partition);
+        return ids.size();
+    }
+
+    /**
+     * Drops the street-level shipping address (keeping the country) from every
+     * archived order of a user, for account anonymization. Returns the number of
+     * rewritten orders.
+     */
+    @Transactional
+    public int anonymizeUserOrders(Long userId) {
+        List<OrderArchive> archives = orderArchiveRepository.findByUserId(userId);
+        for (OrderArchive archive : archives) {
+            ArchivedOrder snapshot = read(archive);
+            Address address = snapshot.getShippingAddress();
+            if (address != null) {
+                snapshot.setShippingAddress(Address.builder().country(address.getCountry()).build());
+            }
+            archive.setPayload(write(snapshot));
+        }
+        orderArchiveRepository.saveAll(archives);
+        return archives.size();
+    }
+
+    private byte[] encode(Order order) {
+        ArchivedOrder snapshot = new ArchivedOrder(order.getId(), order.getTotalAmount(), order.getStatus(),
+                order.getPaymentStatus(), order.getPaymentProvider(), order.getPaymentReference(),
+                order.getShippingAddress(), order.getCreatedAt(), order.getUpdatedAt(),
+                order.getOrderItems().stream()
+                        .map(item -> new ArchivedOrderItem(item.getId(), item.getBookId(), item.getBookTitle(),
+                                item.getBookCover(), item.getUnitPrice(), item.getQuantity(), item.getSubtotal()))
+                        .toList());
+        return write(snapshot);
+    }
+
+    private byte[] write(ArchivedOrder snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private ArchivedOrder read(OrderArchive archive) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(archive.getPayload()))) {
+            return objectMapper.readValue(gzip, ArchivedOrder.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Order decode(OrderArchive archive, User user) {
+        ArchivedOrder snapshot = read(archive);
+        Order order = Order.builder()
+                .id(snapshot.getId())
+                .user(user)
+                .totalAmount(snapshot.getTotalAmount())
+                .status(snapshot.getStatus())
+                .paymentStatus(snapshot.getPaymentStatus())
+                .paymentProvider(snapshot.getPaymentProvider())
+                .paymentReference(snapshot.getPaymentReference())
+                .shippingAddress(snapshot.getShippingAddress())
+                .createdAt(snapshot.getCreatedAt())
+                .updatedAt(snapshot.getUpdatedAt())
+                .build();
+        for (ArchivedOrderItem item : snapshot.getItems()) {
+            order.getOrderItems().add(OrderItem.builder()
+                    .id(item.getId())
+                    .order(order)
+                    .bookId(item.getBookId())
+                    .bookTitle(item.getBookTitle())
+                    .bookCover(item.getBookCover())
+                    .unitPrice(item.getUnitPrice())
+                    .quantity(item.getQuantity())
+                    .subtotal(item.getSubtotal())
+                    .build());
+        }
+        return order;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class ArchivedOrder {
+        private Long id;
+        private BigDecimal totalAmount;
+        private OrderStatus status;
+        private PaymentStatus paymentStatus;
+        private String paymentProvider;
+        private String paymentReference;
+        private Address shippingAddress;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private List<ArchivedOrderItem> items;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class ArchivedOrderItem {
+        private Long id;
+        private Long bookId;
+        private String bookTitle;
+        private String bookCover;
+        private BigDecimal unitPrice;
+        private Integer quantity;
+        private BigDecimal subtotal;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * OrderPartitionService - Maintenance of the monthly orders partitions (Postgres).
+ * 
+ * Creates partitions ahead of time so new orders never land in the default
+ * partition, and (when enabled) hands partitions older than the retention
+ * window to OrderArchiveService. Does nothing on databases without the
+ * partitioned schema, e.g. H2 in tests.
+ */
+package com.bookstore.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderPartitionService {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderArchiveService orderArchiveService;
+
+    @Value("${app.orders.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.orders.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.orders.archive.after-months:12}")
+    private int archiveAfterMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.orders.partitions.cron:0 15 3 * * *}")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now();
+        ensurePartitions(current, current.plusMonths(monthsAhead));
+    }
+
+    /** Creates the partitions for every month from..to (inclusive) that does not have one yet. */
+    public void ensurePartitions(YearMonth from, YearMonth to) {
+        if (!isPartitioned()) {
+            return;
+        }
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            jdbcTemplate.queryForObject("SELECT ensure_orders_partition(?)::text", String.class, month.atDay(1));
+        }
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 45 3 * * *}")
+    public void archiveOldPartitions() {
+        if (!archiveEnabled || !isPartitioned()) {
+            return;
+        }
+        // A partition is archived once its whole month lies before the cutoff month
+        String cutoff = "orders_p" + YearMonth.now().minusMonths(archiveAfterMonths).format(PARTITION_SUFFIX);
+        for (String partition : listPartitions()) {
+            if (partition.compareTo(cutoff) < 0) {
+                try {
+                    orderArchiveService.archivePartition(partition);
+                } catch (Exception e) {
+                    log.error("Failed to archive order partition {}", partition, e);
+                    return;
+                }
+            }
+        }
+    }
+
+    public List<String> listPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                + "JOIN pg_class p ON p.oid = i.inhparent "
+                + "WHERE p.relname = 'orders' AND c.relname ~ '^orders_p[0-9]{6}$' "
+                + "ORDER BY c.relname", String.class);
+    }
+
+    private boolean isPartitioned() {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT to_regproc('ensure_orders_partition') IS NOT NULL", Boolean.class));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Order;
+import com.bookstore.entity.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when an order starts (+1) or stops (-1) counting as a sale.
+ * Carries a detached snapshot so listeners never touch the entity after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderSalesEvent {
+
+    private final Long orderId;
+    private final LocalDateTime createdAt;
+    private final String paymentProvider;
+    private final BigDecimal totalAmount;
+    private final List<Line> lines;
+    private final int sign;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Line {
+        private final Long bookId;
+        private final int quantity;
+        private final BigDecimal subtotal;
+    }
+
+    public static OrderSalesEvent of(Order order, int sign) {
+        List<Line> lines = order.getOrderItems().stream()
+                .map((OrderItem item) -> new Line(item.getBookId(), item.getQuantity(), item.getSubtotal()))
+                .toList();
+        // createdAt is only stamped at insert time, which may still be pending at publish time
+        LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        return new OrderSalesEvent(order.getId(), createdAt, order.getPaymentProvider(),
+                order.getTotalAmount(), lines, sign);
+    }
+}
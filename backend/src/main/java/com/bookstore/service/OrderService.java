@@ -6,20 +6,40 @@
  */
 package com.bookstore.service;
 
+import com.bookstore.dto.OrderDto;
 import com.bookstore.dto.OrderRequest;
+import com.bookstore.dto.OrderSearchCriteria;
+import com.bookstore.dto.OrderSearchCursor;
+import com.bookstore.dto.OrderSearchResponse;
+import com.bookstore.dto.OrderSummaryDto;
 import com.bookstore.entity.*;
-import com.bookstore.repository.BookRepository;
 import com.bookstore.repository.CartRepository;
 import com.bookstore.repository.OrderRepository;
 import com.bookstore.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,11 +49,22 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
-    private final BookRepository bookRepository;
+    private final BookStockService bookStockService;
     private final CartService cartService; // To clear cart
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderArchiveService orderArchiveService;
+    private final PurchaseIndexService purchaseIndexService;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final List<Sort> NEWEST_FIRST = List.of(
+            Sort.by(Sort.Direction.DESC, "createdAt"),
+            Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+
+    @Value("${app.orders.hot-window-days:90}")
+    private int hotWindowDays;
 
     @Transactional
-    public Order placeOrder(String userEmail, OrderRequest request) {
+    public OrderDto placeOrder(String userEmail, OrderRequest request) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         Cart cart = cartRepository.findByUser(user)
@@ -45,7 +76,7 @@ public class OrderService {
 
         // Validate stock and calculate total
         BigDecimal totalAmount = BigDecimal.ZERO;
-        List<OrderItem> orderItems = new java.util.ArrayList<>();
+        List<OrderItem> orderItems = new ArrayList<>();
 
         // Create Order skeleton
         Order order = Order.builder()
@@ -58,12 +89,12 @@ public class OrderService {
 
         for (CartItem cartItem : cart.getItems()) {
             Book book = cartItem.getBook();
-            if (book.getStockQuantity() < cartItem.getQuantity()) {
+            // Checked and reduced against the row itself; the book may come from the cache
+            if (!bookStockService.take(book.getId(), cartItem.getQuantity())) {
                 throw new RuntimeException("Not enough stock for book: " + book.getTitle());
             }
-            // Reduce stock
+            // Mirrored for the rest of this session only; stockQuantity is never written back
             book.setStockQuantity(book.getStockQuantity() - cartItem.getQuantity());
-            bookRepository.save(book);
 
             BigDecimal subtotal = book.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity()));
             totalAmount = totalAmount.add(subtotal);
@@ -104,6 +135,11 @@ public class OrderService {
         }
 
         Order savedOrder = orderRepository.save(order);
+        purchaseIndexService.recordPurchases(user.getId(),
+                orderItems.stream().map(OrderItem::getBookId).toList());
+        if (SalesRollupService.countsAsSale(savedOrder)) {
+            eventPublisher.publishEvent(OrderSalesEvent.of(savedOrder, 1));
+        }
         System.out.println(
                 "DEBUG: Order saved successfully with ID: " + savedOrder.getId() + " for user: " + user.getEmail());
 
@@ -112,36 +148,185 @@ public class OrderService {
             cartService.clearCart(userEmail);
         }
 
-        return savedOrder;
+        return OrderDto.from(savedOrder);
     }
 
     private boolean simulatePayment() {
         return Math.random() > 0.1; // 90% success
     }
 
-    public Page<Order> getUserOrders(String userEmail, Pageable pageable) {
+    /**
+     * One page of a user's order history, newest first. Orders come from three
+     * consecutive slices of time: the hot window (recent partitions only), older
+     * hot partitions, then the archive. A slice is counted only when the page
+     * starts beyond it, so the first pages never leave the hot window. Returns a
+     * Slice, as an exact total would need a count over every partition.
+     */
+    @Transactional(readOnly = true)
+    public Slice<OrderDto> getUserOrders(String userEmail, Pageable pageable) {
+        if (pageable.getSort().isSorted() && !NEWEST_FIRST.contains(pageable.getSort())) {
+            throw new IllegalArgumentException("Order history can only be sorted newest first (sort=createdAt,desc)");
+        }
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return orderRepository.findByUser(user, pageable);
+        Long userId = user.getId();
+        LocalDateTime since = hotWindowStart();
+        List<HistorySlice> slices = List.of(
+                new HistorySlice((limit, offset) -> orderRepository.findUserPageCreatedSince(userId, since, limit,
+                        offset), () -> orderRepository.countByUserIdCreatedSince(userId, since)),
+                new HistorySlice((limit, offset) -> orderRepository.findUserPageCreatedBefore(userId, since, limit,
+                        offset), () -> orderRepository.countByUserIdCreatedBefore(userId, since)),
+                new HistorySlice((limit, offset) -> orderArchiveService.getUserOrders(user, limit, offset),
+                        () -> orderArchiveService.countUserOrders(user)));
+
+        // One row past the page tells whether there is a next one
+        int wanted = pageable.getPageSize() + 1;
+        long skip = pageable.getOffset();
+        List<Order> hot = new ArrayList<>();
+        List<Order> content = new ArrayList<>();
+        for (int i = 0; i < slices.size() && content.size() < wanted; i++) {
+            HistorySlice slice = slices.get(i);
+            List<Order> rows = slice.fetch().apply(wanted - content.size(), skip);
+            if (rows.isEmpty() && skip > 0) {
+                skip = Math.max(0, skip - slice.count().getAsLong());
+                continue;
+            }
+            skip = 0;
+            content.addAll(rows);
+            if (i < 2) {
+                hot.addAll(rows);
+            }
+        }
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        Map<Long, Order> loaded = withItems(hot);
+        return new SliceImpl<>(content.stream()
+                .map(order -> OrderDto.from(loaded.getOrDefault(order.getId(), order)))
+                .toList(), pageable, hasNext);
     }
 
-    public Order getOrder(String userEmail, Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+    private record HistorySlice(BiFunction<Integer, Long, List<Order>> fetch, LongSupplier count) {
+    }
+
+    @Transactional(readOnly = true)
+    public OrderDto getOrder(String userEmail, Long orderId) {
+        Optional<Order> hot = findHotOrder(orderId);
+        if (hot.isEmpty()) {
+            User user = userRepository.findByEmail(userEmail)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            return orderArchiveService.getUserOrder(user, orderId).map(OrderDto::from)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+        }
+        Order order = hot.get();
         if (!order.getUser().getEmail().equals(userEmail)) {
             throw new RuntimeException("Access denied");
         }
-        return order;
+        return OrderDto.from(order);
+    }
+
+    // Most lookups are for recent orders: try the hot window's partitions before all of them
+    private Optional<Order> findHotOrder(Long orderId) {
+        Optional<Order> recent = orderRepository.findByIdCreatedSince(orderId, hotWindowStart());
+        return recent.isPresent() ? recent : orderRepository.findById(orderId);
+    }
+
+    private LocalDateTime hotWindowStart() {
+        return LocalDate.now().minusDays(hotWindowDays).atStartOfDay();
     }
 
-    public Page<Order> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<OrderDto> getAllOrders(Pageable pageable) {
+        Page<Order> page = orderRepository.findAll(pageable);
+        Map<Long, Order> loaded = withItems(page.getContent());
+        return page.map(order -> OrderDto.from(loaded.getOrDefault(order.getId(), order)));
     }
 
-    public Order updateOrderStatus(Long orderId, String status) {
-        Order order = orderRepository.findById(orderId)
+    // Loads the items of every order on the page in one query instead of one per order,
+    // bounded to the page's time span so only its partitions are read
+    private Map<Long, Order> withItems(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        LocalDateTime oldest = orders.stream().map(Order::getCreatedAt).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime newest = orders.stream().map(Order::getCreatedAt).max(Comparator.naturalOrder()).orElseThrow();
+        return orderRepository.findAllWithItemsByIdIn(ids, oldest, newest).stream()
+                .collect(Collectors.toMap(Order::getId, order -> order));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderSearchResponse searchOrders(OrderSearchCriteria criteria, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        OrderSearchCursor after = cursor != null && !cursor.isBlank() ? OrderSearchCursor.decode(cursor) : null;
+
+        // Fetch one extra row to know whether another page exists
+        List<OrderSummaryDto> rows = orderRepository.search(criteria, after, limit + 1);
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            OrderSummaryDto last = rows.get(limit - 1);
+            nextCursor = new OrderSearchCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new OrderSearchResponse(rows, nextCursor);
+    }
+
+    /**
+     * Streams every matching order as CSV straight from a JDBC cursor.
+     * Runs in a read-only transaction so Postgres honours the fetch size.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrdersCsv(OrderSearchCriteria criteria, Writer writer) throws IOException {
+        writer.write("id,created_at,user_id,user_email,status,payment_status,payment_provider,total_amount\n");
+        try {
+            orderRepository.streamSearch(criteria, order -> {
+                try {
+                    writer.write(order.getId() + ","
+                            + csv(order.getCreatedAt()) + ","
+                            + order.getUserId() + ","
+                            + csv(order.getUserEmail()) + ","
+                            + csv(order.getStatus()) + ","
+                            + csv(order.getPaymentStatus()) + ","
+                            + csv(order.getPaymentProvider()) + ","
+                            + csv(order.getTotalAmount()) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Text a spreadsheet would run as a formula is kept as text
+        if (value instanceof CharSequence && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    @Transactional
+    public OrderDto updateOrderStatus(Long orderId, String status) {
+        Order order = findHotOrder(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
+        boolean countedBefore = SalesRollupService.countsAsSale(order);
         order.setStatus(OrderStatus.valueOf(status));
-        return orderRepository.save(order);
+        boolean countedAfter = SalesRollupService.countsAsSale(order);
+        if (countedBefore != countedAfter) {
+            eventPublisher.publishEvent(OrderSalesEvent.of(order, countedAfter ? 1 : -1));
+        }
+        return OrderDto.from(orderRepository.save(order));
     }
 }
@@ -0,0 +1,150 @@
+/**
+ * PurchaseIndexService - Fast "has this user bought this book?" checks.
+ * 
+ * Backed by the user_purchases table and fronted by a bounded LRU cache
+ * holding each recently active user's purchased book ids as a sorted long[],
+ * so a verified-purchase check is a binary search in memory. The cache only
+ * answers yes: a book missing from it is looked up in user_purchases, as the
+ * purchase may be newer than the cached ids (e.g. placed on another node).
+ * The cache is guarded by a ReentrantLock so waiting virtual threads do not
+ * pin carriers.
+ */
+package com.bookstore.service;
+
+import com.bookstore.entity.UserPurchaseId;
+import com.bookstore.repository.UserPurchaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class PurchaseIndexService {
+
+    private final UserPurchaseRepository userPurchaseRepository;
+    private final Map<Long, long[]> cache;
+    // Loads in progress per user; an eviction withdraws the load's token so its result is not cached
+    private final Map<Long, Object> loads = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public PurchaseIndexService(UserPurchaseRepository userPurchaseRepository,
+            @Value("${app.reviews.purchase-cache.max-users:10000}") int maxUsers) {
+        this.userPurchaseRepository = userPurchaseRepository;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public boolean hasPurchased(Long userId, Long bookId) {
+        if (Arrays.binarySearch(purchasedBookIds(userId), bookId) >= 0) {
+            return true;
+        }
+        if (!userPurchaseRepository.existsById(new UserPurchaseId(userId, bookId))) {
+            return false;
+        }
+        evict(userId);
+        return true;
+    }
+
+    /**
+     * Records the books of a new order. Runs in the order's transaction; the
+     * user's cached ids are dropped once it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPurchases(Long userId, Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        userPurchaseRepository.addAll(userId, bookIds);
+        evictAfterCommit(userId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteUserPurchases(Long userId) {
+        userPurchaseRepository.deleteByUserId(userId);
+        evictAfterCommit(userId);
+    }
+
+    private long[] purchasedBookIds(Long userId) {
+        Object load = new Object();
+        lock.lock();
+        try {
+            long[] ids = cache.get(userId);
+            if (ids != null) {
+                return ids;
+            }
+            loads.put(userId, load);
+        } finally {
+            lock.unlock();
+        }
+        // Loaded outside the lock. If a purchase commits meanwhile, the ids may predate
+        // it, so they are cached only while this is still the user's latest load
+        long[] ids;
+        try {
+            ids = userPurchaseRepository.findBookIdsByUserId(userId).stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+        } catch (RuntimeException e) {
+            forgetLoad(userId, load);
+            throw e;
+        }
+        lock.lock();
+        try {
+            if (loads.remove(userId, load)) {
+                cache.put(userId, ids);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return ids;
+    }
+
+    private void forgetLoad(Long userId, Object load) {
+        lock.lock();
+        try {
+            loads.remove(userId, load);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int pendingLoads() {
+        lock.lock();
+        try {
+            return loads.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictAfterCommit(Long userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+    }
+
+    private void evict(Long userId) {
+        lock.lock();
+        try {
+            cache.remove(userId);
+            loads.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
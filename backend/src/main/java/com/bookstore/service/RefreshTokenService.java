@@ -0,0 +1,137 @@
+/**
+ * RefreshTokenService - Rotating refresh tokens.
+ *
+ * A refresh token is 256 random bits handed to the client once; only its
+ * SHA-256 hash is stored. Every refresh revokes the presented token and
+ * issues a successor in the same family. A revoked token presented again
+ * means it was copied, so the whole family is revoked.
+ */
+package com.bookstore.service;
+
+import com.bookstore.dto.JwtResponse;
+import com.bookstore.entity.RefreshToken;
+import com.bookstore.entity.User;
+import com.bookstore.exception.InvalidTokenException;
+import com.bookstore.repository.RefreshTokenRepository;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtils jwtUtils;
+    private final long ttlDays;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            JwtUtils jwtUtils, @Value("${app.security.refresh-tokens.ttl-days:14}") long ttlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtUtils = jwtUtils;
+        this.ttlDays = ttlDays;
+    }
+
+    /**
+     * Starts a new token family for a fresh sign-in and returns the raw token.
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public JwtResponse rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        LocalDateTime now = LocalDateTime.now();
+        boolean claimed = refreshTokenRepository.claim(tokenHash, now) == 1;
+        RefreshToken current = refreshTokenRepository.findById(tokenHash)
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        if (!claimed) {
+            if (!current.getExpiresAt().isAfter(now)) {
+                throw new InvalidTokenException("Refresh token expired");
+            }
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            log.warn("Reuse of a rotated refresh token for user {}, revoked {} tokens of its family",
+                    current.getUserId(), revoked);
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        User user = userRepository.findById(current.getUserId())
+                .filter(User::isEnabled)
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+
+        String next = issue(user.getId(), current.getFamilyId());
+        return new JwtResponse(jwtUtils.generateToken(UserPrincipal.from(user)), next);
+    }
+
+    /**
+     * Signs a session out: revokes the token's whole family. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findById(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeByUserId(userId, LocalDateTime.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteAllForUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(cron = "${app.security.refresh-tokens.purge-cron:0 0 4 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired refresh tokens", purged);
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .userId(userId)
+                .familyId(familyId)
+                .createdAt(now)
+                .expiresAt(now.plusDays(ttlDays))
+                .build());
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,23 +2,28 @@
  * ReviewService - Business logic for book reviews.
  * 
  * Manages review creation (purchase verification required),
- * updates, deletions, and automatic book rating recalculation.
+ * updates, deletions, and incremental book rating updates.
  */
 package com.bookstore.service;
 
+import com.bookstore.dto.ReviewDto;
 import com.bookstore.dto.ReviewRequest;
+import com.bookstore.dto.ReviewSummaryDto;
 import com.bookstore.entity.*;
 import com.bookstore.repository.BookRepository;
-import com.bookstore.repository.OrderRepository;
 import com.bookstore.repository.ReviewRepository;
 import com.bookstore.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -27,16 +32,56 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
-    private final OrderRepository orderRepository;
+    private final PurchaseIndexService purchaseIndexService;
 
-    public Page<Review> getReviewsByBook(Long bookId, Pageable pageable) {
+    private static final int MAX_SUMMARY_PAGE_SIZE = 50;
+    private final BookRatingService bookRatingService;
+
+    @Transactional(readOnly = true)
+    public Page<ReviewDto> getReviewsByBook(Long bookId, Pageable pageable) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new RuntimeException("Book not found");
+        }
+        return reviewRepository.findDtoPageByBookId(bookId, pageable);
+    }
+
+    /**
+     * Rating summary from the book's maintained aggregates plus the newest reviews,
+     * without loading every review or running a count query.
+     */
+    @Transactional(readOnly = true)
+    public ReviewSummaryDto getReviewSummary(Long bookId, String viewerEmail, int size) {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RuntimeException("Book not found"));
-        return reviewRepository.findByBook(book, pageable);
+        int limit = Math.max(1, Math.min(size, MAX_SUMMARY_PAGE_SIZE));
+        // One row past the page tells whether there are more; the aggregates may lag behind
+        List<ReviewDto> reviews = reviewRepository.findDtosByBookId(bookId, viewerEmail,
+                PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.DESC, "createdAt")));
+        boolean hasMore = reviews.size() > limit;
+        if (hasMore) {
+            reviews = reviews.subList(0, limit);
+        }
+
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        histogram.put(5, book.getRating5());
+        histogram.put(4, book.getRating4());
+        histogram.put(3, book.getRating3());
+        histogram.put(2, book.getRating2());
+        histogram.put(1, book.getRating1());
+
+        int ratingCount = book.getRatingCount() != null ? book.getRatingCount() : 0;
+        return ReviewSummaryDto.builder()
+                .bookId(bookId)
+                .ratingAverage(book.getRatingAverage())
+                .ratingCount(ratingCount)
+                .histogram(histogram)
+                .reviews(reviews)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Transactional
-    public Review createReview(String userEmail, Long bookId, ReviewRequest request) {
+    public ReviewDto createReview(String userEmail, Long bookId, ReviewRequest request) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         Book book = bookRepository.findById(bookId)
@@ -54,12 +99,12 @@ public class ReviewService {
                 .build();
 
         Review savedReview = reviewRepository.save(review);
-        updateBookRating(book);
-        return savedReview;
+        bookRatingService.applyDelta(book.getId(), savedReview.getRating(), 0);
+        return ReviewDto.from(savedReview, true);
     }
 
     @Transactional
-    public Review updateReview(String userEmail, Long reviewId, ReviewRequest request) {
+    public ReviewDto updateReview(String userEmail, Long reviewId, ReviewRequest request) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
@@ -67,12 +112,13 @@ public class ReviewService {
             throw new RuntimeException("Access denied");
         }
 
+        int oldRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
 
         Review savedReview = reviewRepository.save(review);
-        updateBookRating(review.getBook());
-        return savedReview;
+        bookRatingService.applyDelta(review.getBook().getId(), savedReview.getRating(), oldRating);
+        return ReviewDto.from(savedReview, true);
     }
 
     @Transactional
@@ -84,28 +130,11 @@ public class ReviewService {
             throw new RuntimeException("Access denied");
         }
 
-        Book book = review.getBook();
         reviewRepository.delete(review);
-        updateBookRating(book);
+        bookRatingService.applyDelta(review.getBook().getId(), 0, review.getRating());
     }
 
     private boolean hasPurchasedBook(User user, Book book) {
-        List<Order> orders = orderRepository.findByUser(user);
-        return orders.stream()
-                .anyMatch(order -> order.getOrderItems().stream()
-                        .anyMatch(item -> item.getBookId().equals(book.getId())));
-    }
-
-    private void updateBookRating(Book book) {
-        List<Review> reviews = reviewRepository.findByBook(book);
-        if (reviews.isEmpty()) {
-            book.setRatingAverage(0.0);
-            book.setRatingCount(0);
-        } else {
-            double avg = reviews.stream().mapToInt(Review::getRating).average().orElse(0.0);
-            book.setRatingAverage(avg);
-            book.setRatingCount(reviews.size());
-        }
-        bookRepository.save(book);
+        return purchaseIndexService.hasPurchased(user.getId(), book.getId());
     }
 }
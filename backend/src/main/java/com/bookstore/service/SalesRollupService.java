@@ -0,0 +1,296 @@
+/**
+ * SalesRollupService - Pre-aggregated sales analytics.
+ * 
+ * Keeps hourly and daily rollups (total, per category, per payment
+ * provider) up to date as orders commit, serves the admin dashboard
+ * from them, and rebuilds them from order history in parallel chunks.
+ */
+package com.bookstore.service;
+
+import com.bookstore.dto.SalesBucketDto;
+import com.bookstore.dto.SalesStatsDto;
+import com.bookstore.entity.*;
+import com.bookstore.exception.ServiceBusyException;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CategoryRepository;
+import com.bookstore.repository.OrderArchiveRepository;
+import com.bookstore.repository.SalesRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+
+    static final String ALL_KEY = "ALL";
+    static final String NONE_KEY = "none";
+    public static final int MAX_BACKFILL_DAYS = 366;
+    private static final int BACKFILL_RETRY_AFTER_SECONDS = 60;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.stats.backfill-parallelism:4}")
+    private int backfillParallelism;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private ExecutorService backfillExecutor;
+
+    /**
+     * An order counts as a sale once its payment succeeded, until it is cancelled.
+     */
+    public static boolean countsAsSale(Order order) {
+        return order.getPaymentStatus() == PaymentStatus.SUCCESS && order.getStatus() != OrderStatus.CANCELLED;
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderSales(OrderSalesEvent event) {
+        Map<Long, Long> categoryByBook = bookRepository.findAllById(
+                event.getLines().stream().map(OrderSalesEvent.Line::getBookId).collect(Collectors.toSet()))
+                .stream()
+                .filter(book -> book.getCategory() != null)
+                .collect(Collectors.toMap(Book::getId, book -> book.getCategory().getId()));
+
+        RollupAccumulator accumulator = new RollupAccumulator();
+        accumulator.add(event.getCreatedAt(), event.getPaymentProvider(), event.getTotalAmount(),
+                event.getLines(), categoryByBook, event.getSign());
+        salesRollupRepository.addAll(accumulator.rows());
+    }
+
+    @Transactional(readOnly = true)
+    public SalesStatsDto getStats(LocalDate from, LocalDate to, RollupGranularity granularity) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        List<SalesRollup> categoryRows = salesRollupRepository.findRange(granularity, RollupDimension.CATEGORY,
+                start, end);
+        Map<String, String> categoryNames = categoryRepository.findAllById(categoryRows.stream()
+                .map(row -> row.getId().getDimensionKey())
+                .filter(key -> !NONE_KEY.equals(key))
+                .map(Long::valueOf)
+                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(category -> category.getId().toString(), Category::getName));
+
+        return SalesStatsDto.builder()
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .totals(toBuckets(salesRollupRepository.findRange(granularity, RollupDimension.TOTAL, start, end),
+                        key -> null))
+                .byCategory(toBuckets(categoryRows, key -> categoryNames.getOrDefault(key, "Uncategorized")))
+                .byPaymentProvider(toBuckets(salesRollupRepository.findRange(granularity,
+                        RollupDimension.PAYMENT_PROVIDER, start, end), Function.identity()))
+                .build();
+    }
+
+    @PostConstruct
+    void startBackfillExecutor() {
+        int threads = Math.max(1, backfillParallelism);
+        AtomicInteger created = new AtomicInteger();
+        // One backfill at a time, so the queue never holds more than a full range of days
+        backfillExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_BACKFILL_DAYS), runnable -> {
+                    Thread thread = new Thread(runnable, "rollup-backfill-" + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stopBackfillExecutor() {
+        backfillExecutor.shutdownNow();
+    }
+
+    /**
+     * Rebuilds rollups for [from, to] (at most MAX_BACKFILL_DAYS days) from order
+     * history and returns at once; the future completes when every day is done.
+     * Each day is deleted and recomputed in its own transaction, several days at a
+     * time on a shared pool. Only one backfill runs at a time.
+     * Days that already contain archived orders are left untouched.
+     * Intended for history: a day still receiving orders may briefly double count
+     * orders committed while its chunk is being rebuilt.
+     */
+    public CompletableFuture<Void> rebuild(LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || from.plusDays(MAX_BACKFILL_DAYS).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("Backfill range must be 1 to " + MAX_BACKFILL_DAYS + " days");
+        }
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new ServiceBusyException("A sales rollup backfill is already running", BACKFILL_RETRY_AFTER_SECONDS);
+        }
+        long started = System.currentTimeMillis();
+        List<CompletableFuture<Void>> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate chunkDay = day;
+            days.add(CompletableFuture.runAsync(
+                    () -> transactionTemplate.executeWithoutResult(status -> rebuildDay(chunkDay)), backfillExecutor));
+        }
+        return CompletableFuture.allOf(days.toArray(CompletableFuture[]::new)).whenComplete((done, failure) -> {
+            backfillRunning.set(false);
+            if (failure != null) {
+                log.error("Sales rollup backfill for {} to {} failed", from, to, failure);
+            } else {
+                log.info("Rebuilt sales rollups for {} to {} in {} ms", from, to,
+                        System.currentTimeMillis() - started);
+            }
+        });
+    }
+
+    private void rebuildDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        if (orderArchiveRepository.existsInRange(start, end)) {
+            // Archived orders are gone from the orders table; their rollups are all that is left
+            log.info("Skipping rollup rebuild for archived day {}", day);
+            return;
+        }
+        salesRollupRepository.deleteRange(start, end);
+
+        // One pass over the day's order lines, grouped back into orders in Java
+        Map<Long, DayOrder> orders = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT o.id, o.created_at, o.payment_provider, o.total_amount, "
+                + "oi.book_id, oi.quantity, oi.subtotal, b.category_id "
+                + "FROM orders o "
+                + "LEFT JOIN order_items oi ON oi.order_id = o.id "
+                + "LEFT JOIN books b ON b.id = oi.book_id "
+                + "WHERE o.created_at >= ? AND o.created_at < ? "
+                + "AND o.payment_status = 'SUCCESS' AND o.status <> 'CANCELLED'",
+                rs -> {
+                    DayOrder order = orders.computeIfAbsent(rs.getLong("id"), id -> new DayOrder());
+                    order.createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+                    order.paymentProvider = rs.getString("payment_provider");
+                    order.totalAmount = rs.getBigDecimal("total_amount");
+                    long bookId = rs.getLong("book_id");
+                    if (!rs.wasNull()) {
+                        order.lines.add(new OrderSalesEvent.Line(bookId, rs.getInt("quantity"),
+                                rs.getBigDecimal("subtotal")));
+                        long categoryId = rs.getLong("category_id");
+                        if (!rs.wasNull()) {
+                            order.categoryByBook.put(bookId, categoryId);
+                        }
+                    }
+                },
+                Timestamp.valueOf(start), Timestamp.valueOf(end));
+
+        RollupAccumulator accumulator = new RollupAccumulator();
+        for (DayOrder order : orders.values()) {
+            accumulator.add(order.createdAt, order.paymentProvider, order.totalAmount, order.lines,
+                    order.categoryByBook, 1);
+        }
+        salesRollupRepository.addAll(accumulator.rows());
+    }
+
+    private List<SalesBucketDto> toBuckets(List<SalesRollup> rows, Function<String, String> labeler) {
+        return rows.stream()
+                .map(row -> SalesBucketDto.builder()
+                        .bucketStart(row.getId().getBucketStart())
+                        .key(row.getId().getDimensionKey())
+                        .label(labeler.apply(row.getId().getDimensionKey()))
+                        .revenue(row.getRevenue())
+                        .orderCount(row.getOrderCount())
+                        .unitsSold(row.getUnitsSold())
+                        .averageOrderValue(row.getOrderCount() > 0
+                                ? row.getRevenue().divide(BigDecimal.valueOf(row.getOrderCount()), 2,
+                                        RoundingMode.HALF_UP)
+                                : BigDecimal.ZERO)
+                        .build())
+                .toList();
+    }
+
+    private static class DayOrder {
+        LocalDateTime createdAt;
+        String paymentProvider;
+        BigDecimal totalAmount;
+        final List<OrderSalesEvent.Line> lines = new ArrayList<>();
+        final Map<Long, Long> categoryByBook = new HashMap<>();
+    }
+
+    /**
+     * Folds orders into rollup cells for both granularities and all dimensions.
+     */
+    private static class RollupAccumulator {
+
+        private final Map<SalesRollupId, SalesRollup> cells = new HashMap<>();
+
+        void add(LocalDateTime createdAt, String paymentProvider, BigDecimal totalAmount,
+                List<OrderSalesEvent.Line> lines, Map<Long, Long> categoryByBook, int sign) {
+            long units = lines.stream().mapToLong(OrderSalesEvent.Line::getQuantity).sum();
+            String provider = paymentProvider != null && !paymentProvider.isBlank() ? paymentProvider : NONE_KEY;
+
+            Map<String, BigDecimal> revenueByCategory = new HashMap<>();
+            Map<String, Long> unitsByCategory = new HashMap<>();
+            for (OrderSalesEvent.Line line : lines) {
+                Long categoryId = categoryByBook.get(line.getBookId());
+                String key = categoryId != null ? categoryId.toString() : NONE_KEY;
+                BigDecimal subtotal = line.getSubtotal() != null ? line.getSubtotal() : BigDecimal.ZERO;
+                revenueByCategory.merge(key, subtotal, BigDecimal::add);
+                unitsByCategory.merge(key, (long) line.getQuantity(), Long::sum);
+            }
+
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucket = granularity == RollupGranularity.HOUR
+                        ? createdAt.truncatedTo(ChronoUnit.HOURS)
+                        : createdAt.toLocalDate().atStartOfDay();
+                merge(granularity, bucket, RollupDimension.TOTAL, ALL_KEY, totalAmount, units, sign);
+                merge(granularity, bucket, RollupDimension.PAYMENT_PROVIDER, provider, totalAmount, units, sign);
+                for (Map.Entry<String, BigDecimal> category : revenueByCategory.entrySet()) {
+                    merge(granularity, bucket, RollupDimension.CATEGORY, category.getKey(), category.getValue(),
+                            unitsByCategory.get(category.getKey()), sign);
+                }
+            }
+        }
+
+        private void merge(RollupGranularity granularity, LocalDateTime bucket, RollupDimension dimension,
+                String key, BigDecimal revenue, long units, int sign) {
+            SalesRollupId id = new SalesRollupId(granularity, bucket, dimension, key);
+            SalesRollup cell = cells.computeIfAbsent(id, k -> SalesRollup.builder()
+                    .id(k)
+                    .revenue(BigDecimal.ZERO)
+                    .orderCount(0L)
+                    .unitsSold(0L)
+                    .build());
+            cell.setRevenue(cell.getRevenue().add(revenue.multiply(BigDecimal.valueOf(sign))));
+            cell.setOrderCount(cell.getOrderCount() + sign);
+            cell.setUnitsSold(cell.getUnitsSold() + sign * units);
+        }
+
+        Collection<SalesRollup> rows() {
+            return cells.values();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * TokenRevocationService - Revocation of individual access tokens.
+ *
+ * Revoked token ids (jti) are stored until the token would have expired and
+ * mirrored in an in-memory Bloom filter. A request's revocation check is a
+ * filter probe - no allocation, no I/O - and only a filter hit (a revoked
+ * token or a rare false positive) is confirmed against the database.
+ * The filter is rebuilt periodically, which drops expired ids and picks up
+ * revocations made on other instances.
+ */
+package com.bookstore.service;
+
+import com.bookstore.entity.RevokedToken;
+import com.bookstore.repository.RevokedTokenRepository;
+import com.bookstore.security.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // Committed since the last rebuild started, re-added to the next filter
+    private final Queue<String> recentlyRevoked = new ConcurrentLinkedQueue<>();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.security.token-revocation.expected-revocations:100000}") int expectedRevocations,
+            @Value("${app.security.token-revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    @PostConstruct
+    void load() {
+        rebuild();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Revokes the token. Inside a transaction the id is queued only once it
+     * commits, so a rebuild never clears it before its snapshot has the row.
+     */
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(jti);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(jti);
+            }
+        });
+    }
+
+    private void remember(String jti) {
+        recentlyRevoked.add(jti);
+        filter.add(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.token-revocation.refresh-ms:60000}",
+            initialDelayString = "${app.security.token-revocation.refresh-ms:60000}")
+    public void rebuild() {
+        recentlyRevoked.clear();
+        LocalDateTime now = LocalDateTime.now();
+        List<String> active = transactionTemplate.execute(status -> {
+            revokedTokenRepository.deleteExpired(now);
+            return revokedTokenRepository.findActiveJtis(now);
+        });
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, 2 * active.size()), falsePositiveRate);
+        active.forEach(rebuilt::add);
+        filter = rebuilt;
+        recentlyRevoked.forEach(rebuilt::add);
+        log.debug("Rebuilt token revocation filter with {} ids", active.size());
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ * CheckoutAdmissionController - Virtual waiting room for checkout traffic.
+ * 
+ * Admits checkout requests at a token-bucket rate and caps how many run at
+ * once, so a flash sale cannot exhaust the connection pool that catalog
+ * browsing also needs. Requests that are not admitted wait in a bounded FIFO
+ * queue and get a ticket with their position and an ETA. Users finishing a
+ * checkout, or who already put items in their cart, queue in a priority lane.
+ * State is guarded by a ReentrantLock: under a flash sale many request threads
+ * contend here, and virtual threads blocked on a monitor would pin carriers.
+ * Every step under the lock is O(1) (amortized), whatever the queue length:
+ * tickets carry a sequence number within their lane, so a position is a
+ * subtraction, and tickets leaving mid-lane are dropped once they reach its head.
+ */
+package com.bookstore.throttle;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class CheckoutAdmissionController {
+
+    private static final long CART_HOLDER_TTL_NANOS = 30L * 60 * 1_000_000_000L;
+    private static final int MAX_CART_HOLDERS = 100_000;
+
+    private final double ratePerSecond;
+    private final int maxInFlight;
+    private final int queueCapacity;
+    private final long ticketTtlNanos;
+
+    private final TokenBucket bucket;
+    private final Lane priorityLane = new Lane();
+    private final Lane standardLane = new Lane();
+    // Least recently polled first, so expired tickets are found at the front
+    private final LinkedHashMap<String, Ticket> ticketsByOwner = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Long> cartHolders = new LinkedHashMap<>();
+    private int inFlight;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public CheckoutAdmissionController(
+            @Value("${app.checkout.admission.rate-per-second:20}") double ratePerSecond,
+            @Value("${app.checkout.admission.burst:20}") int burst,
+            @Value("${app.checkout.admission.max-in-flight:6}") int maxInFlight,
+            @Value("${app.checkout.admission.queue-capacity:2000}") int queueCapacity,
+            @Value("${app.checkout.admission.ticket-ttl-seconds:20}") int ticketTtlSeconds) {
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+        this.queueCapacity = queueCapacity;
+        this.ticketTtlNanos = ticketTtlSeconds * 1_000_000_000L;
+        this.bucket = new TokenBucket(ratePerSecond, burst, System.nanoTime());
+    }
+
+    /**
+     * Decides whether a request from {@code owner} may run now. An admitted request
+     * must be followed by exactly one {@link #release()} once it completes.
+     */
+    public Decision tryAdmit(String owner, boolean checkout) {
+        lock.lock();
+        try {
+            return admitLocked(owner, checkout);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Decision admitLocked(String owner, boolean checkout) {
+        long now = System.nanoTime();
+        purgeExpired(now);
+        boolean priority = checkout || isCartHolder(owner, now);
+
+        Ticket ticket = ticketsByOwner.remove(owner);
+        if (ticket == null) {
+            if (ticketsByOwner.isEmpty() && admit(now)) {
+                return Decision.admitted();
+            }
+            if (queueSize() >= queueCapacity) {
+                return Decision.rejected(retryAfterSeconds(queueSize()));
+            }
+            ticket = new Ticket(UUID.randomUUID().toString(), owner);
+            (priority ? priorityLane : standardLane).add(ticket);
+        } else if (priority && ticket.lane == standardLane) {
+            // Promote a waiting user who has since started checking out
+            standardLane.remove(ticket);
+            priorityLane.add(ticket);
+        }
+        ticket.lastSeen = now;
+        ticketsByOwner.put(owner, ticket);
+
+        if (isHead(ticket) && admit(now)) {
+            dequeue(ticket);
+            return Decision.admitted();
+        }
+        int position = positionOf(ticket);
+        return Decision.queued(ticket.id, position, retryAfterSeconds(position + 1));
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remembers that {@code owner} holds a cart, which moves them to the priority lane.
+     */
+    public void markCartHolder(String owner) {
+        lock.lock();
+        try {
+            cartHolders.remove(owner);
+            cartHolders.put(owner, System.nanoTime());
+            if (cartHolders.size() > MAX_CART_HOLDERS) {
+                cartHolders.remove(cartHolders.keySet().iterator().next());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean admit(long now) {
+        if (inFlight >= maxInFlight || !bucket.tryAcquire(now)) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    private boolean isCartHolder(String owner, long now) {
+        Long since = cartHolders.get(owner);
+        return since != null && now - since < CART_HOLDER_TTL_NANOS;
+    }
+
+    private boolean isHead(Ticket ticket) {
+        Lane lane = priorityLane.isEmpty() ? standardLane : priorityLane;
+        return lane.head() == ticket;
+    }
+
+    // Tickets that left mid-lane still count until they reach its head, so this
+    // can overstate a position, never understate it
+    private int positionOf(Ticket ticket) {
+        int ahead = (int) (ticket.seq - ticket.lane.head().seq);
+        return ticket.lane == priorityLane ? ahead : priorityLane.size() + ahead;
+    }
+
+    private void dequeue(Ticket ticket) {
+        ticket.lane.remove(ticket);
+        ticketsByOwner.remove(ticket.owner);
+    }
+
+    // Tickets whose holder stopped polling would block the head of the queue forever
+    private void purgeExpired(long now) {
+        for (Iterator<Ticket> it = ticketsByOwner.values().iterator(); it.hasNext();) {
+            Ticket ticket = it.next();
+            if (now - ticket.lastSeen <= ticketTtlNanos) {
+                break;
+            }
+            ticket.lane.remove(ticket);
+            it.remove();
+        }
+        for (Iterator<Long> it = cartHolders.values().iterator(); it.hasNext();) {
+            if (now - it.next() < CART_HOLDER_TTL_NANOS) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    private int queueSize() {
+        return ticketsByOwner.size();
+    }
+
+    private long retryAfterSeconds(int requestsAhead) {
+        return Math.max(1, (long) Math.ceil(requestsAhead / ratePerSecond));
+    }
+
+    /**
+     * FIFO of tickets numbered in arrival order. A ticket removed from the middle
+     * stays in the deque, marked by no longer pointing at this lane, until it
+     * reaches the head.
+     */
+    private static class Lane {
+        private final ArrayDeque<Ticket> tickets = new ArrayDeque<>();
+        private long nextSeq;
+        private int size;
+
+        void add(Ticket ticket) {
+            // Left tickets stuck behind a waiting head would pile up; sweep once they are half the deque
+            if (tickets.size() > 2 * size + 64) {
+                tickets.removeIf(waiting -> waiting.lane != this);
+            }
+            ticket.lane = this;
+            ticket.seq = nextSeq++;
+            tickets.addLast(ticket);
+            size++;
+        }
+
+        void remove(Ticket ticket) {
+            ticket.lane = null;
+            size--;
+        }
+
+        Ticket head() {
+            while (!tickets.isEmpty() && tickets.peekFirst().lane != this) {
+                tickets.pollFirst();
+            }
+            return tickets.peekFirst();
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    private static class Ticket {
+        private final String id;
+        private final String owner;
+        private Lane lane;
+        private long seq;
+        private long lastSeen;
+
+        Ticket(String id, String owner) {
+            this.id = id;
+            this.owner = owner;
+        }
+    }
+
+    @Getter
+    public static class Decision {
+        private final boolean admitted;
+        private final String ticket;
+        private final int position;
+        private final long retryAfterSeconds;
+
+        private Decision(boolean admitted, String ticket, int position, long retryAfterSeconds) {
+            this.admitted = admitted;
+            this.ticket = ticket;
+            this.position = position;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        static Decision admitted() {
+            return new Decision(true, null, 0, 0);
+        }
+
+        static Decision queued(String ticket, int position, long retryAfterSeconds) {
+            return new Decision(false, ticket, position, retryAfterSeconds);
+        }
+
+        static Decision rejected(long retryAfterSeconds) {
+            return new Decision(false, null, -1, retryAfterSeconds);
+        }
+    }
+}
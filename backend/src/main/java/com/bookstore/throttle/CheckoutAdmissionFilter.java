@@ -0,0 +1,95 @@
+package com.bookstore.throttle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gates the checkout write paths (placing an order, adding to the cart) through
+ * the CheckoutAdmissionController. Everything else, including catalog browsing,
+ * passes straight through.
+ */
+@Component
+@RequiredArgsConstructor
+public class CheckoutAdmissionFilter extends OncePerRequestFilter {
+
+    public static final String TICKET_HEADER = "X-Checkout-Ticket";
+
+    private final CheckoutAdmissionController admissionController;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.checkout.admission.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !path.equals("/api/orders") && !path.equals("/api/cart/items");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            // Rejected by the security chain anyway; don't let it take a checkout slot
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String owner = authentication.getName();
+        boolean checkout = request.getRequestURI().equals("/api/orders");
+        CheckoutAdmissionController.Decision decision = admissionController.tryAdmit(owner, checkout);
+        if (!decision.isAdmitted()) {
+            reject(response, decision);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admissionController.release();
+        }
+        if (!checkout && response.getStatus() < 300) {
+            admissionController.markCartHolder(owner);
+        }
+    }
+
+    private void reject(HttpServletResponse response, CheckoutAdmissionController.Decision decision)
+            throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(decision.getRetryAfterSeconds()));
+        if (decision.getTicket() != null) {
+            response.setHeader(TICKET_HEADER, decision.getTicket());
+            body.put("message", "Checkout is busy. You are in the queue.");
+            body.put("ticket", decision.getTicket());
+            body.put("position", decision.getPosition() + 1);
+        } else {
+            body.put("message", "Checkout is at capacity. Please try again shortly.");
+        }
+        body.put("etaSeconds", decision.getRetryAfterSeconds());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
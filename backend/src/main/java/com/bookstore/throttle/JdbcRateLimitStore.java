@@ -0,0 +1,72 @@
+package com.bookstore.throttle;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Buckets shared by all nodes in the rate_limit_buckets table, so a limit
+ * holds across the cluster. Each acquire reads the bucket and moves its TAT
+ * with a compare-and-set UPDATE; a lost race is retried a few times, then
+ * the request is refused. Costs two statements per limited request and
+ * relies on node clocks being roughly in sync (times are epoch nanoseconds).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Decision tryAcquire(String key, RateLimitProperties.Rule rule) {
+        long interval = rule.emissionIntervalNanos();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long now = epochNanos();
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT tat FROM rate_limit_buckets WHERE bucket_key = ?", Long.class, key);
+            if (current.isEmpty()) {
+                try {
+                    jdbcTemplate.update("INSERT INTO rate_limit_buckets (bucket_key, tat) VALUES (?, ?)",
+                            key, now + interval);
+                    return RateLimitStore.decide(rule, interval);
+                } catch (DuplicateKeyException e) {
+                    continue;
+                }
+            }
+
+            long tat = current.get(0);
+            long next = Math.max(tat, now) + interval;
+            Decision decision = RateLimitStore.decide(rule, next - now);
+            if (!decision.isAllowed()) {
+                return decision;
+            }
+            int updated = jdbcTemplate.update(
+                    "UPDATE rate_limit_buckets SET tat = ? WHERE bucket_key = ? AND tat = ?", next, key, tat);
+            if (updated == 1) {
+                return decision;
+            }
+        }
+        // Heavily contended key: refuse rather than spin
+        return RateLimitStore.decide(rule, rule.burstNanos() + interval);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE tat <= ?", epochNanos());
+    }
+
+    private static long epochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
@@ -0,0 +1,60 @@
+package com.bookstore.throttle;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory buckets for a single node. Lock-free: each bucket is an
+ * AtomicLong TAT updated by compare-and-set, so requests for the same key
+ * never block each other. Idle buckets are swept periodically; when
+ * max-keys is reached anyway (many distinct clients at once), new clients
+ * share an overflow bucket per rule until the next sweep.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+
+    public LocalRateLimitStore(RateLimitProperties properties) {
+        this.maxKeys = properties.getMaxKeys();
+    }
+
+    @Override
+    public Decision tryAcquire(String key, RateLimitProperties.Rule rule) {
+        long now = System.nanoTime();
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            if (buckets.size() >= maxKeys) {
+                evictIdle();
+                if (buckets.size() >= maxKeys) {
+                    key = rule.getName() + ":overflow";
+                }
+            }
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        long interval = rule.emissionIntervalNanos();
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            Decision decision = RateLimitStore.decide(rule, next - now);
+            if (!decision.isAllowed() || tat.compareAndSet(current, next)) {
+                return decision;
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(tat -> tat.get() - now <= 0);
+    }
+}
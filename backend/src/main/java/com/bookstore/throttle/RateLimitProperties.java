@@ -0,0 +1,57 @@
+package com.bookstore.throttle;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit rules (app.rate-limit). The first rule matching a request
+ * applies; each allows {@code limit} requests per {@code period} per key,
+ * bursting up to {@code limit}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // local (per node, in memory) or jdbc (shared through the database)
+    private String store = "local";
+    // Buckets kept by the local store before new clients share an overflow bucket
+    private int maxKeys = 100_000;
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum KeyType {
+        // Remote address of the client
+        CLIENT_IP,
+        // Authenticated user, falling back to the client address for anonymous requests
+        USER
+    }
+
+    @Data
+    public static class Rule {
+        private String name;
+        // Any method when unset
+        private String method;
+        private String pattern;
+        // Only requests carrying this query parameter, when set
+        private String queryParam;
+        private KeyType key = KeyType.USER;
+        private int limit;
+        private Duration period;
+
+        // Time one request uses up of the bucket
+        public long emissionIntervalNanos() {
+            return period.toNanos() / limit;
+        }
+
+        // How far ahead of now a bucket may be booked: a full burst
+        public long burstNanos() {
+            return emissionIntervalNanos() * limit;
+        }
+    }
+}
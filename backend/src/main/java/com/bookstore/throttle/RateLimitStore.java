@@ -0,0 +1,49 @@
+package com.bookstore.throttle;
+
+import lombok.Getter;
+
+/**
+ * Keeps rate limit buckets. Buckets follow the generic cell rate algorithm,
+ * the token bucket expressed as a single timestamp per key: the theoretical
+ * arrival time (TAT) at which the bucket is full again. A request books one
+ * emission interval past max(TAT, now) and is admitted while that stays
+ * within one burst of now. That makes a bucket one CAS-able long.
+ */
+public interface RateLimitStore {
+
+    Decision tryAcquire(String key, RateLimitProperties.Rule rule);
+
+    /**
+     * Drops buckets that have refilled completely; they are recreated full on demand.
+     */
+    void evictIdle();
+
+    /**
+     * Outcome for a request whose booking would move the bucket's TAT to
+     * {@code now + ahead}.
+     */
+    static Decision decide(RateLimitProperties.Rule rule, long ahead) {
+        long burst = rule.burstNanos();
+        if (ahead > burst) {
+            return new Decision(false, rule.getLimit(), 0, ahead - rule.emissionIntervalNanos(), ahead - burst);
+        }
+        return new Decision(true, rule.getLimit(), (int) ((burst - ahead) / rule.emissionIntervalNanos()), ahead, 0);
+    }
+
+    @Getter
+    class Decision {
+        private final boolean allowed;
+        private final int limit;
+        private final int remaining;
+        private final long resetNanos;
+        private final long retryAfterNanos;
+
+        Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.resetNanos = resetNanos;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+    }
+}
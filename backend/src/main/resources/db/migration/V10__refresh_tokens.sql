@@ -0,0 +1,22 @@
+-- Rotating refresh tokens (hash only) and access tokens revoked before expiry.
+CREATE TABLE refresh_tokens (
+    token_hash VARCHAR(64)  NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    family_id  VARCHAR(36)  NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6),
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (token_hash)
+);
+
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at);
+
+CREATE TABLE revoked_tokens (
+    jti        VARCHAR(36)  NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT revoked_tokens_pkey PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens (expires_at);
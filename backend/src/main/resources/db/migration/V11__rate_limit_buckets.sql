@@ -0,0 +1,8 @@
+-- Rate limit buckets shared by all nodes (app.rate-limit.store=jdbc).
+CREATE TABLE rate_limit_buckets (
+    bucket_key VARCHAR(200) NOT NULL,
+    tat        BIGINT       NOT NULL,
+    CONSTRAINT rate_limit_buckets_pkey PRIMARY KEY (bucket_key)
+);
+
+CREATE INDEX idx_rate_limit_buckets_tat ON rate_limit_buckets (tat);
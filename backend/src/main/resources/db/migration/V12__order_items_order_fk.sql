@@ -0,0 +1,45 @@
+-- Restores the order_items -> orders foreign key that V6 had to drop. A key into the
+-- partitioned orders table must include the partition key, so each item now carries
+-- its order's created_at and references (id, created_at).
+
+ALTER TABLE order_items ADD COLUMN order_created_at TIMESTAMP(6);
+
+UPDATE order_items oi
+SET order_created_at = o.created_at
+FROM orders o
+WHERE o.id = oi.order_id;
+
+-- Items left without an order while the key was missing; no read path can reach them
+DELETE FROM order_items WHERE order_created_at IS NULL;
+
+ALTER TABLE order_items ALTER COLUMN order_created_at SET NOT NULL;
+
+ALTER TABLE order_items
+    ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id, order_created_at)
+        REFERENCES orders (id, created_at);
+
+-- Rows leaving orders_default are still referenced by their items, and the key is
+-- checked against that partition, so the items are set aside until the new one is attached
+CREATE OR REPLACE FUNCTION ensure_orders_partition(p_month DATE) RETURNS VOID AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name  TEXT := 'orders_p' || to_char(v_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    CREATE TEMP TABLE moving_order_items AS
+        SELECT * FROM order_items
+        WHERE order_created_at >= v_start AND order_created_at < v_end
+          AND (order_id, order_created_at) IN (SELECT id, created_at FROM orders_default);
+    DELETE FROM order_items WHERE id IN (SELECT id FROM moving_order_items);
+    EXECUTE format('CREATE TABLE %I (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format('INSERT INTO %I SELECT * FROM orders_default WHERE created_at >= %L AND created_at < %L',
+                   v_name, v_start, v_end);
+    EXECUTE format('DELETE FROM orders_default WHERE created_at >= %L AND created_at < %L', v_start, v_end);
+    EXECUTE format('ALTER TABLE orders ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_name, v_start, v_end);
+    INSERT INTO order_items SELECT * FROM moving_order_items;
+    DROP TABLE moving_order_items;
+END;
+$$ LANGUAGE plpgsql;
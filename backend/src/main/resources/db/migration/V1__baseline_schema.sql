@@ -0,0 +1,121 @@
+-- Baseline: the schema as previously generated by Hibernate (ddl-auto: update).
+-- Constraint names match the generated ones so that databases created before
+-- migrations were introduced (baselined at version 1) and fresh databases
+-- converge on identical schemas.
+
+CREATE TABLE users (
+    id         BIGSERIAL    NOT NULL,
+    created_at TIMESTAMP(6),
+    email      VARCHAR(255) NOT NULL,
+    enabled    BOOLEAN      NOT NULL,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    password   VARCHAR(255) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role    VARCHAR(255),
+    CONSTRAINT user_roles_role_check CHECK (role IN ('ROLE_CUSTOMER', 'ROLE_ADMIN')),
+    CONSTRAINT fkhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE categories (
+    id          BIGSERIAL    NOT NULL,
+    created_at  TIMESTAMP(6),
+    description TEXT,
+    name        VARCHAR(255) NOT NULL,
+    slug        VARCHAR(255) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT categories_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_t8o6pivur7nn124jehx7cygw5 UNIQUE (name),
+    CONSTRAINT uk_oul14ho7bctbefv8jywp5v3i2 UNIQUE (slug)
+);
+
+CREATE TABLE books (
+    id              BIGSERIAL      NOT NULL,
+    author          VARCHAR(255)   NOT NULL,
+    cover_image_url VARCHAR(255),
+    created_at      TIMESTAMP(6),
+    description     TEXT,
+    isbn            VARCHAR(255),
+    price           NUMERIC(38, 2) NOT NULL,
+    rating_average  FLOAT(53),
+    rating_count    INTEGER,
+    stock_quantity  INTEGER        NOT NULL,
+    title           VARCHAR(255)   NOT NULL,
+    updated_at      TIMESTAMP(6),
+    category_id     BIGINT,
+    CONSTRAINT books_pkey PRIMARY KEY (id),
+    CONSTRAINT fkleqa3hhc0uhfvurq6mil47xk0 FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE carts (
+    id         BIGSERIAL NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    user_id    BIGINT,
+    CONSTRAINT carts_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_64t7ox312pqal3p7fg9o503c2 UNIQUE (user_id),
+    CONSTRAINT fkb5o626f86h46m4s7ms6ginnop FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE cart_items (
+    id       BIGSERIAL NOT NULL,
+    quantity INTEGER,
+    book_id  BIGINT,
+    cart_id  BIGINT,
+    CONSTRAINT cart_items_pkey PRIMARY KEY (id),
+    CONSTRAINT fkhiu1jw80o45wfiw5tgok1xpkl FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fkpcttvuq4mxppo8sxggjtn5i2c FOREIGN KEY (cart_id) REFERENCES carts (id)
+);
+
+CREATE TABLE orders (
+    id                BIGSERIAL      NOT NULL,
+    created_at        TIMESTAMP(6),
+    payment_provider  VARCHAR(255),
+    payment_reference VARCHAR(255),
+    payment_status    VARCHAR(255),
+    city              VARCHAR(255),
+    country           VARCHAR(255),
+    line1             VARCHAR(255),
+    line2             VARCHAR(255),
+    postcode          VARCHAR(255),
+    status            VARCHAR(255),
+    total_amount      NUMERIC(38, 2) NOT NULL,
+    updated_at        TIMESTAMP(6),
+    user_id           BIGINT         NOT NULL,
+    CONSTRAINT orders_pkey PRIMARY KEY (id),
+    CONSTRAINT orders_status_check CHECK (status IN ('PENDING', 'PAID', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    CONSTRAINT orders_payment_status_check CHECK (payment_status IN ('PENDING', 'SUCCESS', 'FAILED')),
+    CONSTRAINT fk32ql8ubntj5uh44ph9659tiih FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_items (
+    id          BIGSERIAL      NOT NULL,
+    book_cover  VARCHAR(255),
+    book_id     BIGINT,
+    book_title  VARCHAR(255),
+    quantity    INTEGER,
+    subtotal    NUMERIC(38, 2),
+    unit_price  NUMERIC(38, 2),
+    order_id    BIGINT,
+    CONSTRAINT order_items_pkey PRIMARY KEY (id),
+    CONSTRAINT fkbioxgbv59vetrxe0ejfubep1w FOREIGN KEY (order_id) REFERENCES orders (id)
+);
+
+CREATE TABLE reviews (
+    id         BIGSERIAL NOT NULL,
+    comment    TEXT,
+    created_at TIMESTAMP(6),
+    rating     INTEGER   NOT NULL,
+    updated_at TIMESTAMP(6),
+    book_id    BIGINT    NOT NULL,
+    user_id    BIGINT    NOT NULL,
+    CONSTRAINT reviews_pkey PRIMARY KEY (id),
+    CONSTRAINT fk6a9k6xvev80se5rreqvuqr7f9 FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fkcgy7qjc1r99dp117y9en6lxye FOREIGN KEY (user_id) REFERENCES users (id)
+);
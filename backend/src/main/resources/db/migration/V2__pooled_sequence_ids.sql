@@ -0,0 +1,37 @@
+-- Moves the high-volume tables from one-at-a-time bigserial ids to pooled
+-- sequence allocation (blocks of 50, pooled-lo optimizer) so Hibernate can
+-- batch inserts. Hibernate refuses to start while a sequence increment
+-- differs from the entity's allocationSize.
+--
+-- The bigserial column defaults are kept: a raw INSERT that draws from the
+-- sequence simply claims a whole block, so it can never collide with ids
+-- handed out by Hibernate.
+--
+-- Re-seeding never moves a sequence backwards: the next block starts past both
+-- MAX(id) and any block a running instance may still be handing out, so the
+-- script is also safe on a database where it was already applied by hand.
+
+ALTER SEQUENCE books_id_seq INCREMENT BY 50;
+SELECT setval('books_id_seq',
+              GREATEST(COALESCE((SELECT MAX(id) FROM books), 0) + 1, (SELECT last_value FROM books_id_seq) + 50),
+              false);
+
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+SELECT setval('orders_id_seq',
+              GREATEST(COALESCE((SELECT MAX(id) FROM orders), 0) + 1, (SELECT last_value FROM orders_id_seq) + 50),
+              false);
+
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+SELECT setval('order_items_id_seq',
+              GREATEST(COALESCE((SELECT MAX(id) FROM order_items), 0) + 1, (SELECT last_value FROM order_items_id_seq) + 50),
+              false);
+
+ALTER SEQUENCE cart_items_id_seq INCREMENT BY 50;
+SELECT setval('cart_items_id_seq',
+              GREATEST(COALESCE((SELECT MAX(id) FROM cart_items), 0) + 1, (SELECT last_value FROM cart_items_id_seq) + 50),
+              false);
+
+ALTER SEQUENCE reviews_id_seq INCREMENT BY 50;
+SELECT setval('reviews_id_seq',
+              GREATEST(COALESCE((SELECT MAX(id) FROM reviews), 0) + 1, (SELECT last_value FROM reviews_id_seq) + 50),
+              false);
@@ -0,0 +1,25 @@
+-- Secondary indexes for the hot predicates. Each one is declared on its entity
+-- as well (@Table(indexes = ...)) so the H2 test schema carries the same plan.
+-- carts.user_id is already covered by the unique constraint of the one-to-one.
+
+-- BookRepository.findAllWithFilters: category filter sorted by newest first,
+-- unfiltered listing by newest first, and price range filters.
+CREATE INDEX IF NOT EXISTS idx_books_category_created ON books (category_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_books_created ON books (created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_books_price ON books (price);
+
+-- OrderRepository.findByUser (order history, newest first) and the admin listing.
+CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_created ON orders (created_at DESC);
+
+-- Order lines by order (cascade loads) and by book (purchase checks).
+CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items (order_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_book_order ON order_items (book_id, order_id);
+
+-- ReviewRepository.findByBook (paged, newest first) and findByUser.
+CREATE INDEX IF NOT EXISTS idx_reviews_book_created ON reviews (book_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_reviews_user ON reviews (user_id);
+
+-- Cart contents and the FK side of book deletes.
+CREATE INDEX IF NOT EXISTS idx_cart_items_cart ON cart_items (cart_id);
+CREATE INDEX IF NOT EXISTS idx_cart_items_book ON cart_items (book_id);
@@ -0,0 +1,8 @@
+-- Admin order search: keyset pagination walks (created_at, id) newest first, so
+-- the plain created_at index is superseded by one that includes the tie-breaker.
+DROP INDEX IF EXISTS idx_orders_created;
+CREATE INDEX IF NOT EXISTS idx_orders_created_id ON orders (created_at DESC, id DESC);
+
+-- Status filters keep the same ordering so a filtered page is an index range scan.
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_payment_status_created ON orders (payment_status, created_at DESC, id DESC);
@@ -0,0 +1,12 @@
+-- Pre-aggregated sales per hour/day, per dimension (TOTAL, CATEGORY, PAYMENT_PROVIDER).
+-- Maintained incrementally after each order commit; rebuilt via POST /api/admin/stats/backfill.
+CREATE TABLE sales_rollups (
+    granularity varchar(255) NOT NULL,
+    dimension varchar(255) NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    dimension_key varchar(255) NOT NULL,
+    revenue numeric(38,2) NOT NULL,
+    order_count bigint NOT NULL,
+    units_sold bigint NOT NULL,
+    CONSTRAINT sales_rollups_pkey PRIMARY KEY (granularity, dimension, bucket_start, dimension_key)
+);
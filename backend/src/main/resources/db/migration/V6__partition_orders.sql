@@ -0,0 +1,99 @@
+-- Monthly range partitioning of orders on created_at, plus a compressed cold archive.
+--
+-- A partitioned table's primary key must contain the partition key, so it becomes
+-- (id, created_at). Foreign keys into a partitioned table must reference such a key,
+-- which order_items (order_id only) cannot, so that foreign key is dropped; order_items
+-- are only ever written through the Order aggregate.
+
+ALTER TABLE order_items DROP CONSTRAINT IF EXISTS fkbioxgbv59vetrxe0ejfubep1w;
+
+ALTER TABLE orders RENAME TO orders_legacy;
+ALTER TABLE orders_legacy RENAME CONSTRAINT orders_pkey TO orders_legacy_pkey;
+ALTER SEQUENCE orders_id_seq OWNED BY NONE;
+
+CREATE TABLE orders (
+    id                BIGINT         NOT NULL DEFAULT nextval('orders_id_seq'),
+    created_at        TIMESTAMP(6)   NOT NULL,
+    payment_provider  VARCHAR(255),
+    payment_reference VARCHAR(255),
+    payment_status    VARCHAR(255),
+    city              VARCHAR(255),
+    country           VARCHAR(255),
+    line1             VARCHAR(255),
+    line2             VARCHAR(255),
+    postcode          VARCHAR(255),
+    status            VARCHAR(255),
+    total_amount      NUMERIC(38, 2) NOT NULL,
+    updated_at        TIMESTAMP(6),
+    user_id           BIGINT         NOT NULL,
+    CONSTRAINT orders_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT orders_status_check CHECK (status IN ('PENDING', 'PAID', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    CONSTRAINT orders_payment_status_check CHECK (payment_status IN ('PENDING', 'SUCCESS', 'FAILED')),
+    CONSTRAINT fk32ql8ubntj5uh44ph9659tiih FOREIGN KEY (user_id) REFERENCES users (id)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE orders_id_seq OWNED BY orders.id;
+
+-- Catches rows outside every monthly partition; OrderPartitionService keeps it empty.
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+
+-- Creates the partition orders_pYYYYMM for the month containing p_month, moving any
+-- matching rows out of the default partition first. Idempotent; used by the
+-- migration and by OrderPartitionService.
+CREATE OR REPLACE FUNCTION ensure_orders_partition(p_month DATE) RETURNS VOID AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name  TEXT := 'orders_p' || to_char(v_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format('INSERT INTO %I SELECT * FROM orders_default WHERE created_at >= %L AND created_at < %L',
+                   v_name, v_start, v_end);
+    EXECUTE format('DELETE FROM orders_default WHERE created_at >= %L AND created_at < %L', v_start, v_end);
+    EXECUTE format('ALTER TABLE orders ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_name, v_start, v_end);
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per month of existing history, up to three months ahead.
+DO $$
+DECLARE
+    v_month DATE;
+BEGIN
+    FOR v_month IN
+        SELECT generate_series(
+                       date_trunc('month', COALESCE((SELECT MIN(created_at) FROM orders_legacy), now())),
+                       date_trunc('month', now()) + INTERVAL '3 months',
+                       INTERVAL '1 month')::DATE
+    LOOP
+        PERFORM ensure_orders_partition(v_month);
+    END LOOP;
+END $$;
+
+INSERT INTO orders (id, created_at, payment_provider, payment_reference, payment_status, city, country, line1,
+                    line2, postcode, status, total_amount, updated_at, user_id)
+SELECT id, COALESCE(created_at, updated_at, now()), payment_provider, payment_reference, payment_status, city,
+       country, line1, line2, postcode, status, total_amount, updated_at, user_id
+FROM orders_legacy;
+
+DROP TABLE orders_legacy;
+
+-- Partitioned indexes: created on the parent, cascaded to every partition.
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at DESC);
+CREATE INDEX idx_orders_created_id ON orders (created_at DESC, id DESC);
+CREATE INDEX idx_orders_status_created ON orders (status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_payment_status_created ON orders (payment_status, created_at DESC, id DESC);
+
+-- Cold storage: one row per archived order, order + items as gzip-compressed JSON.
+CREATE TABLE orders_archive (
+    id          BIGINT       NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL,
+    payload     BYTEA        NOT NULL,
+    CONSTRAINT orders_archive_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_orders_archive_user_created ON orders_archive (user_id, created_at DESC, id DESC);
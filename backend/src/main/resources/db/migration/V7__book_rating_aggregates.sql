@@ -0,0 +1,38 @@
+-- O(1) rating aggregates on books: running sum and a 1-5 star histogram next to
+-- rating_count/rating_average, maintained by one delta UPDATE per review change.
+ALTER TABLE books ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE books ADD COLUMN rating_1 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE books ADD COLUMN rating_2 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE books ADD COLUMN rating_3 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE books ADD COLUMN rating_4 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE books ADD COLUMN rating_5 INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill every aggregate from the reviews in one pass
+UPDATE books SET
+    rating_count = COALESCE(a.cnt, 0),
+    rating_sum = COALESCE(a.total, 0),
+    rating_1 = COALESCE(a.r1, 0),
+    rating_2 = COALESCE(a.r2, 0),
+    rating_3 = COALESCE(a.r3, 0),
+    rating_4 = COALESCE(a.r4, 0),
+    rating_5 = COALESCE(a.r5, 0),
+    rating_average = COALESCE(a.total::DOUBLE PRECISION / NULLIF(a.cnt, 0), 0)
+FROM books b
+LEFT JOIN (
+    SELECT book_id,
+           COUNT(*) AS cnt,
+           SUM(rating) AS total,
+           SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END) AS r1,
+           SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END) AS r2,
+           SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END) AS r3,
+           SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END) AS r4,
+           SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) AS r5
+    FROM reviews
+    GROUP BY book_id
+) a ON a.book_id = b.id
+WHERE books.id = b.id;
+
+ALTER TABLE books ALTER COLUMN rating_count SET DEFAULT 0;
+ALTER TABLE books ALTER COLUMN rating_count SET NOT NULL;
+ALTER TABLE books ALTER COLUMN rating_average SET DEFAULT 0;
+ALTER TABLE books ALTER COLUMN rating_average SET NOT NULL;
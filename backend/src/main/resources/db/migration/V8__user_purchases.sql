@@ -0,0 +1,14 @@
+-- Verified-purchase index: one row per (user, book) ever ordered, written by placeOrder.
+-- Review creation checks it by primary key instead of scanning the user's orders.
+CREATE TABLE user_purchases (
+    user_id BIGINT NOT NULL,
+    book_id BIGINT NOT NULL,
+    CONSTRAINT user_purchases_pkey PRIMARY KEY (user_id, book_id)
+);
+
+INSERT INTO user_purchases (user_id, book_id)
+SELECT DISTINCT o.user_id, oi.book_id
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+WHERE oi.book_id IS NOT NULL
+ON CONFLICT DO NOTHING;
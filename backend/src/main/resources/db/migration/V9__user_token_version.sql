@@ -0,0 +1,2 @@
+-- Incremented to revoke every JWT issued to a user before (password change, deletion).
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,34 @@
+package com.bookstore.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaPoolTest {
+
+    @Test
+    void getConnectionWithCredentials_ShouldUseReplicasThenPrimary() throws Exception {
+        HikariDataSource busy = mock(HikariDataSource.class);
+        HikariDataSource replica = mock(HikariDataSource.class);
+        DataSource primary = mock(DataSource.class);
+        Connection replicaConnection = mock(Connection.class);
+        Connection primaryConnection = mock(Connection.class);
+        when(busy.getConnection("reader", "secret")).thenThrow(new SQLException("timeout"));
+        when(replica.getConnection("reader", "secret")).thenReturn(replicaConnection);
+        when(primary.getConnection("reader", "secret")).thenReturn(primaryConnection);
+
+        ReplicaPool pool = new ReplicaPool(List.of(busy, replica), primary, 0);
+        assertSame(replicaConnection, pool.getConnection("reader", "secret"));
+        assertSame(replicaConnection, pool.getConnection("reader", "secret"));
+
+        when(replica.getConnection("reader", "secret")).thenThrow(new SQLException("timeout"));
+        assertSame(primaryConnection, pool.getConnection("reader", "secret"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.bookstore.integration;
+
+import com.bookstore.entity.*;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.OrderRepository;
+import com.bookstore.repository.ReviewRepository;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.service.AccountDeletionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Account deletion runs in chunks of two rows (so every path takes several
+ * chunks) with synchronous rating aggregation.
+ */
+@SpringBootTest(properties = {
+        "app.accounts.deletion.chunk-size=2",
+        "app.reviews.rating-aggregation.async=false"
+})
+@ActiveProfiles("test")
+class AccountDeletionTest {
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("leaving@example.com")
+                .password("password")
+                .firstName("Leaving")
+                .lastName("Customer")
+                .roles(Set.of(Role.ROLE_CUSTOMER))
+                .build());
+        book = bookRepository.save(Book.builder()
+                .title("Reviewed Book")
+                .author("Author")
+                .price(BigDecimal.TEN)
+                .stockQuantity(5)
+                .ratingAverage(4.0)
+                .ratingCount(5)
+                .ratingSum(20L)
+                .rating3(1)
+                .rating4(2)
+                .rating5(2)
+                .build());
+        for (int i = 0; i < 5; i++) {
+            Order order = Order.builder()
+                    .user(user)
+                    .totalAmount(BigDecimal.TEN)
+                    .status(OrderStatus.PAID)
+                    .paymentStatus(PaymentStatus.SUCCESS)
+                    .shippingAddress(new Address("1 Main St", null, "Leeds", "LS1", "UK"))
+                    .build();
+            order.getOrderItems().add(OrderItem.builder()
+                    .order(order)
+                    .bookId(book.getId())
+                    .bookTitle(book.getTitle())
+                    .unitPrice(BigDecimal.TEN)
+                    .quantity(1)
+                    .subtotal(BigDecimal.TEN)
+                    .build());
+            orderRepository.save(order);
+        }
+        for (int rating : new int[] { 3, 4, 5 }) {
+            reviewRepository.save(Review.builder().user(user).book(book).rating(rating).build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM reviews WHERE book_id = ?", book.getId());
+        jdbcTemplate.update("DELETE FROM order_items WHERE book_id = ?", book.getId());
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", user.getId());
+        userRepository.deleteById(user.getId());
+        bookRepository.deleteById(book.getId());
+    }
+
+    @Test
+    void deleteAccount_ShouldRemoveEverythingInChunksAndAdjustRatings() {
+        accountDeletionService.deleteAccount(user.getId());
+
+        assertFalse(userRepository.existsById(user.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM orders WHERE user_id = ?", user.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM order_items WHERE book_id = ?", book.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM reviews WHERE user_id = ?", user.getId()));
+
+        Book updated = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(2, updated.getRatingCount());
+        assertEquals(8L, updated.getRatingSum());
+        assertEquals(4.0, updated.getRatingAverage(), 1e-9);
+        assertEquals(0, updated.getRating3());
+        assertEquals(1, updated.getRating4());
+        assertEquals(1, updated.getRating5());
+
+        // Recreated for tearDown
+        user = userRepository.save(User.builder().email("leaving@example.com").password("password").build());
+    }
+
+    @Test
+    void anonymizeAccount_ShouldKeepOrdersAndReviewsWithoutPersonalData() {
+        accountDeletionService.anonymizeAccount(user.getId());
+
+        User anonymized = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("deleted-" + user.getId() + "@anonymized.invalid", anonymized.getEmail());
+        assertNull(anonymized.getFirstName());
+        assertFalse(anonymized.isEnabled());
+        assertTrue(anonymized.getRoles().isEmpty());
+
+        assertEquals(3, count("SELECT COUNT(*) FROM reviews WHERE user_id = ?", user.getId()));
+        assertEquals(5, count("SELECT COUNT(*) FROM orders WHERE user_id = ? AND line1 IS NULL "
+                + "AND city IS NULL AND country = 'UK'", user.getId()));
+    }
+
+    private int count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+}
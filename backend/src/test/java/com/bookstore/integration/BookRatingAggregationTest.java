@@ -0,0 +1,102 @@
+package com.bookstore.integration;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.service.BookRatingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Review changes are queued per book after commit and coalesced into one
+ * aggregate UPDATE. Staleness is set very high so only flush() applies them.
+ */
+@SpringBootTest(properties = "app.reviews.rating-aggregation.max-staleness-ms=600000")
+@ActiveProfiles("test")
+class BookRatingAggregationTest {
+
+    @Autowired
+    private BookRatingService bookRatingService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = bookRepository.save(Book.builder()
+                .title("Rated Book")
+                .author("Author")
+                .price(BigDecimal.TEN)
+                .stockQuantity(5)
+                .ratingAverage(0.0)
+                .ratingCount(0)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRatingService.flush();
+        bookRepository.deleteById(book.getId());
+    }
+
+    @Test
+    void applyDelta_ShouldCoalesceChangesUntilFlush() {
+        inTransaction(() -> bookRatingService.applyDelta(book.getId(), 5, 0));
+        inTransaction(() -> bookRatingService.applyDelta(book.getId(), 3, 0));
+        inTransaction(() -> bookRatingService.applyDelta(book.getId(), 4, 0));
+        inTransaction(() -> bookRatingService.applyDelta(book.getId(), 1, 5)); // 5 -> 1
+        inTransaction(() -> bookRatingService.applyDelta(book.getId(), 0, 3)); // deleted
+
+        Book beforeFlush = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(0, beforeFlush.getRatingCount());
+
+        assertEquals(1, bookRatingService.flush());
+
+        Book updated = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(2, updated.getRatingCount());
+        assertEquals(5L, updated.getRatingSum());
+        assertEquals(2.5, updated.getRatingAverage(), 1e-9);
+        assertEquals(1, updated.getRating1());
+        assertEquals(0, updated.getRating3());
+        assertEquals(1, updated.getRating4());
+        assertEquals(0, updated.getRating5());
+        assertEquals(0, bookRatingService.pendingBooks());
+    }
+
+    @Test
+    void applyDelta_ShouldDropChangesOfRolledBackTransactions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookRatingService.applyDelta(book.getId(), 4, 0);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, bookRatingService.flush());
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getRatingCount());
+    }
+
+    @Test
+    void repairAggregates_ShouldRecomputeDriftedBooks() {
+        inTransaction(() -> bookRatingService.applyDelta(book.getId(), 4, 0)); // no review row behind it
+
+        assertEquals(1, bookRatingService.repairAggregates());
+
+        Book repaired = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(0, repaired.getRatingCount());
+        assertEquals(0, repaired.getRating4());
+    }
+
+    private void inTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> action.run());
+    }
+}
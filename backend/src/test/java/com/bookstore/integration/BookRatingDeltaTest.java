@@ -0,0 +1,101 @@
+package com.bookstore.integration;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.service.BookRatingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * With synchronous aggregation every review change is one delta UPDATE in the
+ * review's own transaction, so concurrent changes to a book never lose each other.
+ */
+@SpringBootTest(properties = "app.reviews.rating-aggregation.async=false")
+@ActiveProfiles("test")
+class BookRatingDeltaTest {
+
+    @Autowired
+    private BookRatingService bookRatingService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = bookRepository.save(Book.builder()
+                .title("Delta Book")
+                .author("Author")
+                .price(BigDecimal.TEN)
+                .stockQuantity(5)
+                .ratingAverage(0.0)
+                .ratingCount(0)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(book.getId());
+    }
+
+    @Test
+    void applyDelta_ShouldNotLoseConcurrentChanges() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> reviews = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int rating = i % 5 + 1;
+                reviews.add(pool.submit(() -> transactionTemplate.executeWithoutResult(
+                        status -> bookRatingService.applyDelta(book.getId(), rating, 0))));
+            }
+            for (Future<?> review : reviews) {
+                review.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Book rated = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(40, rated.getRatingCount());
+        assertEquals(120L, rated.getRatingSum());
+        assertEquals(3.0, rated.getRatingAverage(), 1e-9);
+        assertEquals(8, rated.getRating1());
+        assertEquals(8, rated.getRating5());
+    }
+
+    @Test
+    void applyDelta_ShouldMoveAndRemoveRatings() {
+        transactionTemplate.executeWithoutResult(status -> bookRatingService.applyDelta(book.getId(), 2, 0));
+        transactionTemplate.executeWithoutResult(status -> bookRatingService.applyDelta(book.getId(), 4, 0));
+        transactionTemplate.executeWithoutResult(status -> bookRatingService.applyDelta(book.getId(), 5, 2)); // edited
+        transactionTemplate.executeWithoutResult(status ->
+                bookRatingService.removeRatings(book.getId(), new int[] {0, 0, 0, 1, 0})); // account deleted
+
+        Book rated = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(1, rated.getRatingCount());
+        assertEquals(5L, rated.getRatingSum());
+        assertEquals(5.0, rated.getRatingAverage(), 1e-9);
+        assertEquals(0, rated.getRating2());
+        assertEquals(0, rated.getRating4());
+        assertEquals(1, rated.getRating5());
+
+        transactionTemplate.executeWithoutResult(status -> bookRatingService.applyDelta(book.getId(), 0, 5));
+        assertEquals(0.0, bookRepository.findById(book.getId()).orElseThrow().getRatingAverage(), 1e-9);
+    }
+}
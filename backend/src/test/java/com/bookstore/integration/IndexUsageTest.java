@@ -0,0 +1,121 @@
+package com.bookstore.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Asserts that the hot repository predicates are served by the indexes from
+ * the index plan (V3__index_plan.sql / @Table(indexes)), not by table scans.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class IndexUsageTest {
+
+    private static final int CATEGORIES = 20;
+    private static final int USERS = 2_000;
+    private static final int BOOKS = 10_000;
+    private static final int ORDERS = 10_000;
+    private static final int REVIEWS = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedLargeDataset() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> categories = new ArrayList<>();
+        for (long i = 1; i <= CATEGORIES; i++) {
+            categories.add(new Object[] { i, "Category " + i, "category-" + i });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name, slug) VALUES (?, ?, ?)", categories);
+
+        List<Object[]> users = new ArrayList<>();
+        for (long i = 1; i <= USERS; i++) {
+            users.add(new Object[] { i, "user" + i + "@example.com", "password", true });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, enabled) VALUES (?, ?, ?, ?)", users);
+
+        List<Object[]> books = new ArrayList<>();
+        for (long i = 1; i <= BOOKS; i++) {
+            books.add(new Object[] { i, "Title " + i, "Author " + (i % 500), BigDecimal.valueOf(5 + i % 45), 10,
+                    (i % CATEGORIES) + 1, Timestamp.valueOf(now.minusMinutes(i)) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, price, stock_quantity, category_id, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", books);
+
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> orderItems = new ArrayList<>();
+        for (long i = 1; i <= ORDERS; i++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusHours(i));
+            orders.add(new Object[] { i, (i % USERS) + 1, BigDecimal.TEN, "PAID", "SUCCESS", createdAt });
+            orderItems.add(new Object[] { 2 * i - 1, i, createdAt, (i % BOOKS) + 1, 1, BigDecimal.TEN });
+            orderItems.add(new Object[] { 2 * i, i, createdAt, ((i * 7) % BOOKS) + 1, 1, BigDecimal.TEN });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, user_id, total_amount, status, payment_status, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, order_created_at, book_id, quantity, "
+                + "subtotal) VALUES (?, ?, ?, ?, ?, ?)", orderItems);
+
+        List<Object[]> reviews = new ArrayList<>();
+        for (long i = 1; i <= REVIEWS; i++) {
+            reviews.add(new Object[] { i, (i % USERS) + 1, (i % BOOKS) + 1, (int) (i % 5) + 1,
+                    Timestamp.valueOf(now.minusMinutes(i)) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (id, user_id, book_id, rating, created_at) "
+                + "VALUES (?, ?, ?, ?, ?)", reviews);
+    }
+
+    @Test
+    void bookListingByCategory_ShouldUseCategoryCreatedIndex() {
+        assertUsesIndex("SELECT id FROM books WHERE category_id = 3 ORDER BY created_at DESC LIMIT 10",
+                "IDX_BOOKS_CATEGORY_CREATED");
+    }
+
+    @Test
+    void bookPriceRange_ShouldUsePriceIndex() {
+        assertUsesIndex("SELECT id FROM books WHERE price >= 10 AND price <= 11", "IDX_BOOKS_PRICE");
+    }
+
+    @Test
+    void orderHistory_ShouldUseUserCreatedIndex() {
+        assertUsesIndex("SELECT id FROM orders WHERE user_id = 42 ORDER BY created_at DESC LIMIT 10",
+                "IDX_ORDERS_USER_CREATED");
+    }
+
+    @Test
+    void orderLines_ShouldUseOrderIndex() {
+        assertUsesIndex("SELECT id FROM order_items WHERE order_id = 42", "IDX_ORDER_ITEMS_ORDER");
+    }
+
+    @Test
+    void purchasesOfBook_ShouldUseBookOrderIndex() {
+        assertUsesIndex("SELECT order_id FROM order_items WHERE book_id = 42", "IDX_ORDER_ITEMS_BOOK_ORDER");
+    }
+
+    @Test
+    void bookReviews_ShouldUseBookCreatedIndex() {
+        assertUsesIndex("SELECT id FROM reviews WHERE book_id = 42 ORDER BY created_at DESC LIMIT 10",
+                "IDX_REVIEWS_BOOK_CREATED");
+    }
+
+    private void assertUsesIndex(String sql, String indexName) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertNotNull(plan);
+        assertTrue(plan.toUpperCase().contains(indexName), () -> "Expected " + indexName + " in plan:\n" + plan);
+    }
+}
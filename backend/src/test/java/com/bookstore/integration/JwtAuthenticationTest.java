@@ -0,0 +1,86 @@
+package com.bookstore.integration;
+
+import com.bookstore.dto.ChangePasswordRequest;
+import com.bookstore.entity.Role;
+import com.bookstore.entity.User;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.TokenVersionCache;
+import com.bookstore.security.UserPrincipal;
+import com.bookstore.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tokens carry everything the request filter needs; revocation goes through
+ * the token version.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtAuthenticationTest {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("token@example.com")
+                .password(passwordEncoder.encode("password1"))
+                .roles(Set.of(Role.ROLE_ADMIN))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void getPrincipalFromJwtToken_ShouldRestoreUserFromClaims() {
+        String token = jwtUtils.generateToken(UserPrincipal.from(user));
+
+        UserPrincipal principal = jwtUtils.getPrincipalFromJwtToken(token);
+
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("token@example.com", principal.getUsername());
+        assertEquals(Set.of("ROLE_ADMIN"),
+                Set.copyOf(principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList()));
+        assertTrue(tokenVersionCache.isCurrent(principal.getId(), principal.getTokenVersion()));
+    }
+
+    @Test
+    void changePassword_ShouldRevokeEarlierTokens() {
+        UserPrincipal before = jwtUtils.getPrincipalFromJwtToken(jwtUtils.generateToken(UserPrincipal.from(user)));
+        assertTrue(tokenVersionCache.isCurrent(before.getId(), before.getTokenVersion()));
+
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setOldPassword("password1");
+        request.setNewPassword("password2");
+        String newToken = userService.changePassword("token@example.com", request).getToken();
+
+        UserPrincipal after = jwtUtils.getPrincipalFromJwtToken(newToken);
+        assertFalse(tokenVersionCache.isCurrent(before.getId(), before.getTokenVersion()));
+        assertTrue(tokenVersionCache.isCurrent(after.getId(), after.getTokenVersion()));
+    }
+}
@@ -0,0 +1,182 @@
+package com.bookstore.integration;
+
+import com.bookstore.dto.OrderDto;
+import com.bookstore.entity.OrderArchive;
+import com.bookstore.entity.Role;
+import com.bookstore.entity.User;
+import com.bookstore.repository.OrderArchiveRepository;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import com.bookstore.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A user's order history reads the hot window, older hot orders and the archive
+ * in turn, newest first, and single lookups fall back the same way. Runs on a
+ * database of its own so the orders below are the only ones.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:orderhistorydb;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderHistoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+    private static final LocalDateTime ARCHIVED = LocalDateTime.of(2020, 1, 10, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        orderArchiveRepository.deleteAll();
+        user = userRepository.findByEmail("history@example.com").orElseGet(() -> userRepository.save(
+                User.builder()
+                        .email("history@example.com")
+                        .password("password")
+                        .roles(Set.of(Role.ROLE_CUSTOMER))
+                        .build()));
+        // Two orders in the hot window, one older hot order, two archived ones
+        insertOrder(305, NOW.minusDays(1));
+        insertOrder(304, NOW.minusDays(2));
+        insertOrder(303, NOW.minusDays(200));
+        archiveOrder(302, ARCHIVED);
+        archiveOrder(301, ARCHIVED.minusDays(3));
+    }
+
+    @Test
+    void getUserOrders_ShouldReadWindowThenOlderThenArchive() {
+        PageRequest page = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt"));
+        List<Long> ids = new ArrayList<>();
+        Slice<OrderDto> slice;
+        int pages = 0;
+        do {
+            slice = orderService.getUserOrders(user.getEmail(), page);
+            slice.forEach(order -> {
+                ids.add(order.getId());
+                assertEquals(1, order.getOrderItems().size());
+            });
+            page = page.next();
+            pages++;
+        } while (slice.hasNext());
+
+        assertEquals(List.of(305L, 304L, 303L, 302L, 301L), ids);
+        assertEquals(3, pages);
+
+        // A page that starts inside the archive skips the hot orders by count
+        Slice<OrderDto> archived = orderService.getUserOrders(user.getEmail(), PageRequest.of(1, 4));
+        assertEquals(List.of(301L), archived.map(OrderDto::getId).getContent());
+        assertFalse(archived.hasNext());
+    }
+
+    @Test
+    void getUserOrders_ShouldRejectOtherSorts() throws Exception {
+        mockMvc.perform(get("/api/orders")
+                        .param("sort", "totalAmount,asc")
+                        .header("Authorization", bearer()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/orders")
+                        .param("sort", "createdAt,desc")
+                        .param("size", "3")
+                        .header("Authorization", bearer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].id").value(305))
+                .andExpect(jsonPath("$.last").value(false));
+    }
+
+    @Test
+    void getOrder_ShouldFallBackToOlderAndArchivedOrders() {
+        assertEquals(NOW.minusDays(1), orderService.getOrder(user.getEmail(), 305L).getCreatedAt());
+        assertEquals(NOW.minusDays(200), orderService.getOrder(user.getEmail(), 303L).getCreatedAt());
+        OrderDto archived = orderService.getOrder(user.getEmail(), 302L);
+        assertEquals(ARCHIVED, archived.getCreatedAt());
+        assertEquals(1, archived.getOrderItems().size());
+        assertThrows(RuntimeException.class, () -> orderService.getOrder(user.getEmail(), 999L));
+    }
+
+    private String bearer() {
+        return "Bearer " + jwtUtils.generateToken(UserPrincipal.from(user));
+    }
+
+    private void insertOrder(long id, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, total_amount, status, payment_status, created_at, "
+                + "updated_at) VALUES (?, ?, 12.00, 'PAID', 'SUCCESS', ?, ?)", id, user.getId(), createdAt, createdAt);
+        jdbcTemplate.update("INSERT INTO order_items (id, order_id, order_created_at, book_id, book_title, quantity, "
+                + "unit_price, subtotal) VALUES (?, ?, ?, 1, 'Hot', 1, 12.00, 12.00)", id, id, createdAt);
+    }
+
+    // Same layout as the archive job writes: the order and its items as gzip-compressed JSON
+    private void archiveOrder(long id, LocalDateTime createdAt) throws IOException {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", id);
+        item.put("bookId", 1);
+        item.put("bookTitle", "Archived");
+        item.put("unitPrice", 12.00);
+        item.put("quantity", 1);
+        item.put("subtotal", 12.00);
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("id", id);
+        order.put("totalAmount", 12.00);
+        order.put("status", "DELIVERED");
+        order.put("paymentStatus", "SUCCESS");
+        order.put("createdAt", createdAt);
+        order.put("updatedAt", createdAt);
+        order.put("items", List.of(item));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, order);
+        }
+        orderArchiveRepository.save(OrderArchive.builder()
+                .id(id)
+                .userId(user.getId())
+                .createdAt(createdAt)
+                .archivedAt(NOW)
+                .payload(bytes.toByteArray())
+                .build());
+    }
+}
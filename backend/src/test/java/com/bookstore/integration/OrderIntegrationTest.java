@@ -1,6 +1,7 @@
 package com.bookstore.integration;
 
 import com.bookstore.dto.AddToCartRequest;
+import com.bookstore.dto.OrderDto;
 import com.bookstore.dto.OrderRequest;
 import com.bookstore.entity.*;
 import com.bookstore.repository.BookRepository;
@@ -92,7 +93,7 @@ class OrderIntegrationTest {
         orderRequest.setShippingAddress(new Address("123 St", null, "City", "12345", "Country"));
         orderRequest.setPaymentProvider("stripe");
 
-        Order order = orderService.placeOrder(user.getEmail(), orderRequest);
+        OrderDto order = orderService.placeOrder(user.getEmail(), orderRequest);
 
         // Verify Order
         assertNotNull(order.getId());
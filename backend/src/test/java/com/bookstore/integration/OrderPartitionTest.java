@@ -0,0 +1,157 @@
+package com.bookstore.integration;
+
+import com.bookstore.dto.OrderDto;
+import com.bookstore.entity.Role;
+import com.bookstore.entity.User;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.service.OrderArchiveService;
+import com.bookstore.service.OrderPartitionService;
+import com.bookstore.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Monthly order partitions and the archive on PostgreSQL, with the schema built
+ * by the Flyway migrations. Runs only when POSTGRES_TEST_URL names a scratch
+ * database (user postgres, no password), e.g.
+ * POSTGRES_TEST_URL=jdbc:postgresql://localhost:5432/novela_test; the database
+ * is wiped first.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${POSTGRES_TEST_URL}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.datasource.username=postgres",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "spring.flyway.clean-disabled=false"
+})
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "POSTGRES_TEST_URL", matches = ".+")
+class OrderPartitionTest {
+
+    private static final YearMonth FUTURE = YearMonth.of(2040, 1);
+    private static final YearMonth OLD = YearMonth.of(2020, 1);
+
+    @TestConfiguration
+    static class CleanDatabase {
+        @Bean
+        FlywayMigrationStrategy cleanMigrate() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM orders_archive");
+        user = userRepository.findByEmail("partitions@example.com").orElseGet(() -> userRepository.save(
+                User.builder().email("partitions@example.com").password("password")
+                        .roles(Set.of(Role.ROLE_CUSTOMER)).build()));
+    }
+
+    @Test
+    void ensurePartitions_ShouldMoveStrayRowsOutOfTheDefaultPartition() {
+        // No partition for this month yet, so the order (and its item's reference) lands in the default one
+        LocalDateTime createdAt = FUTURE.atDay(15).atTime(10, 0);
+        insertOrder(9001, createdAt);
+        assertEquals(1, count("SELECT COUNT(*) FROM orders_default"));
+
+        orderPartitionService.ensurePartitions(FUTURE, FUTURE);
+
+        assertTrue(orderPartitionService.listPartitions().contains("orders_p204001"));
+        assertEquals(0, count("SELECT COUNT(*) FROM orders_default"));
+        assertEquals(1, count("SELECT COUNT(*) FROM orders_p204001 WHERE id = 9001"));
+        assertEquals(1, count("SELECT COUNT(*) FROM order_items WHERE order_id = 9001"));
+
+        // The restored foreign key still guards order_items
+        assertThrows(Exception.class, () -> jdbcTemplate.update("INSERT INTO order_items (id, order_id, "
+                + "order_created_at, book_id, quantity, subtotal) VALUES (9999, 424242, now(), 1, 1, 1)"));
+    }
+
+    @Test
+    void archivePartition_ShouldMoveOrdersToTheArchiveAndKeepThemInHistory() {
+        orderPartitionService.ensurePartitions(OLD, OLD);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        insertOrder(8001, OLD.atDay(10).atTime(9, 0));
+        insertOrder(8002, now.minusDays(2));
+        insertOrder(8003, now.minusDays(1));
+
+        assertEquals(1, orderArchiveService.archivePartition("orders_p202001"));
+
+        assertFalse(orderPartitionService.listPartitions().contains("orders_p202001"));
+        assertEquals(0, count("SELECT COUNT(*) FROM order_items WHERE order_id = 8001"));
+        assertEquals(1, count("SELECT COUNT(*) FROM orders_archive WHERE id = 8001"));
+
+        PageRequest newest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Slice<OrderDto> first = orderService.getUserOrders(user.getEmail(), newest);
+        assertEquals(List.of(8003L, 8002L), first.map(OrderDto::getId).getContent());
+        assertTrue(first.hasNext());
+        Slice<OrderDto> second = orderService.getUserOrders(user.getEmail(), newest.next());
+        assertEquals(List.of(8001L), second.map(OrderDto::getId).getContent());
+        assertFalse(second.hasNext());
+        assertEquals(1, second.getContent().get(0).getOrderItems().size());
+
+        OrderDto archived = orderService.getOrder(user.getEmail(), 8001L);
+        assertEquals(OLD.atDay(10).atTime(9, 0), archived.getCreatedAt());
+    }
+
+    @Test
+    void recentOrderLookup_ShouldOnlyScanRecentPartitions() {
+        orderPartitionService.ensurePartitions(OLD, OLD);
+        orderPartitionService.ensurePartitions();
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT * FROM orders "
+                + "WHERE id = 1 AND created_at >= date_trunc('month', now()) - INTERVAL '1 month'", String.class));
+
+        assertFalse(plan.contains("orders_p202001"), plan);
+        assertTrue(plan.contains("orders_p" + YearMonth.now().toString().replace("-", "")), plan);
+    }
+
+    private void insertOrder(long id, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, total_amount, status, payment_status, created_at, "
+                + "updated_at) VALUES (?, ?, 12.00, 'PAID', 'SUCCESS', ?, ?)", id, user.getId(), createdAt, createdAt);
+        jdbcTemplate.update("INSERT INTO order_items (id, order_id, order_created_at, book_id, book_title, quantity, "
+                + "unit_price, subtotal) VALUES (?, ?, ?, 1, 'Partitioned', 1, 12.00, 12.00)", id, id, createdAt);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,185 @@
+package com.bookstore.integration;
+
+import com.bookstore.dto.OrderSearchCriteria;
+import com.bookstore.dto.OrderSearchCursor;
+import com.bookstore.dto.OrderSearchResponse;
+import com.bookstore.dto.OrderSummaryDto;
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.entity.Role;
+import com.bookstore.entity.User;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import com.bookstore.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Admin order search: keyset pages follow (created_at, id) without gaps or
+ * repeats, cursors are opaque and validated, and the CSV export quotes fields,
+ * defuses formulas and writes rows as they are read. Runs on a database of its
+ * own so the orders below are the only ones.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ordersearchdb;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderSearchTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM orders");
+        admin = userRepository.findByEmail("search-admin@example.com").orElseGet(() -> userRepository.save(
+                User.builder()
+                        .email("search-admin@example.com")
+                        .password("password")
+                        .roles(Set.of(Role.ROLE_ADMIN))
+                        .build()));
+        // Orders 102 and 103 share a timestamp, so the id breaks the tie
+        insertOrder(101, BASE, "PAID", "stripe");
+        insertOrder(102, BASE.plusHours(1), "PENDING", "paypal");
+        insertOrder(103, BASE.plusHours(1), "PAID", "stripe");
+        insertOrder(104, BASE.plusHours(2), "PAID", "Acme, \"Pay\"");
+        insertOrder(105, BASE.plusHours(3), "SHIPPED", "stripe");
+    }
+
+    @Test
+    void searchOrders_ShouldPageByKeysetWithoutGapsOrRepeats() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderSearchResponse page = orderService.searchOrders(new OrderSearchCriteria(), cursor, 2);
+            page.getItems().forEach(order -> ids.add(order.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(105L, 104L, 103L, 102L, 101L), ids);
+        assertEquals(3, pages);
+
+        OrderSearchCriteria paid = new OrderSearchCriteria();
+        paid.setStatus(OrderStatus.PAID);
+        OrderSearchResponse first = orderService.searchOrders(paid, null, 2);
+        assertEquals(List.of(104L, 103L), first.getItems().stream().map(OrderSummaryDto::getId).toList());
+        OrderSearchResponse second = orderService.searchOrders(paid, first.getNextCursor(), 2);
+        assertEquals(List.of(101L), second.getItems().stream().map(OrderSummaryDto::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void cursor_ShouldRoundTripAndRejectMalformedTokens() throws Exception {
+        OrderSearchCursor cursor = new OrderSearchCursor(BASE.plusHours(1), 103L);
+        OrderSearchCursor decoded = OrderSearchCursor.decode(cursor.encode());
+        assertEquals(cursor.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(cursor.getId(), decoded.getId());
+        assertFalse(cursor.encode().contains("="), "token should be URL-safe and unpadded");
+
+        mockMvc.perform(get("/api/admin/orders/search")
+                        .param("cursor", cursor.encode())
+                        .header("Authorization", bearer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(102))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/admin/orders/search")
+                        .param("cursor", "not-a-cursor")
+                        .header("Authorization", bearer()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportOrdersCsv_ShouldQuoteFields() throws Exception {
+        insertOrder(100, BASE.minusHours(1), "PAID", "=HYPERLINK(\"http://x\")\r");
+        String csv = mockMvc.perform(get("/api/admin/orders/export")
+                        .param("status", "PAID")
+                        .header("Authorization", bearer()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = csv.split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("id,created_at,"));
+        assertTrue(lines[1].startsWith("104,"));
+        assertTrue(lines[1].contains(",\"Acme, \"\"Pay\"\"\","), lines[1]);
+        assertTrue(lines[3].startsWith("101,"));
+        // Formula text is defused, and a carriage return is quoted
+        assertTrue(lines[4].startsWith("100,"));
+        assertTrue(lines[4].contains(",\"'=HYPERLINK(\"\"http://x\"\")\r\","), lines[4]);
+    }
+
+    @Test
+    void exportOrdersCsv_ShouldStopWhenTheClientGoesAway() {
+        // Takes the header and two rows, then fails like a closed connection
+        List<String> written = new ArrayList<>();
+        Writer writer = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                if (written.size() == 3) {
+                    throw new IOException("Broken pipe");
+                }
+                written.add(new String(buffer, offset, length));
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        IOException e = assertThrows(IOException.class,
+                () -> orderService.exportOrdersCsv(new OrderSearchCriteria(), writer));
+        assertEquals("Broken pipe", e.getMessage());
+        assertEquals(3, written.size());
+        assertTrue(written.get(1).startsWith("105,"));
+        assertTrue(written.get(2).startsWith("104,"));
+    }
+
+    private String bearer() {
+        return "Bearer " + jwtUtils.generateToken(UserPrincipal.from(admin));
+    }
+
+    private void insertOrder(long id, LocalDateTime createdAt, String status, String provider) {
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, total_amount, status, payment_status, "
+                        + "payment_provider, created_at, updated_at) VALUES (?, ?, 10.00, ?, 'SUCCESS', ?, ?, ?)",
+                id, admin.getId(), status, provider, createdAt, createdAt);
+    }
+}
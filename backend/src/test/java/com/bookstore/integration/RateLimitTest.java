@@ -0,0 +1,96 @@
+package com.bookstore.integration;
+
+import com.bookstore.throttle.JdbcRateLimitStore;
+import com.bookstore.throttle.RateLimitProperties;
+import com.bookstore.throttle.RateLimitStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-route limits are enforced by the filter with the local store (one
+ * rule, slow enough to never refill during the test); the shared store
+ * gives the same answers from the database.
+ */
+@SpringBootTest(properties = {
+        "app.rate-limit.rules[0].name=refresh",
+        "app.rate-limit.rules[0].method=POST",
+        "app.rate-limit.rules[0].pattern=/api/auth/refresh",
+        "app.rate-limit.rules[0].key=client-ip",
+        "app.rate-limit.rules[0].limit=3",
+        "app.rate-limit.rules[0].period=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void refresh_ShouldAnswer429OnceClientAddressExhaustsItsBurst() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            refreshFrom("203.0.113.7")
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(header().string("X-RateLimit-Remaining", String.valueOf(2 - i)));
+        }
+
+        // One request refills every 20 minutes
+        refreshFrom("203.0.113.7")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("X-RateLimit-Limit", "3"))
+                .andExpect(header().string("Retry-After", "1200"));
+
+        // Another client is unaffected
+        refreshFrom("203.0.113.8")
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("X-RateLimit-Remaining", "2"));
+    }
+
+    @Test
+    void jdbcStore_ShouldShareBucketStateThroughTheDatabase() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("test");
+        rule.setLimit(2);
+        rule.setPeriod(Duration.ofMinutes(1));
+        // Two stores stand in for two nodes
+        RateLimitStore first = new JdbcRateLimitStore(jdbcTemplate);
+        RateLimitStore second = new JdbcRateLimitStore(jdbcTemplate);
+
+        assertEquals(1, first.tryAcquire("test:client", rule).getRemaining());
+        assertTrue(second.tryAcquire("test:client", rule).isAllowed());
+        RateLimitStore.Decision refused = first.tryAcquire("test:client", rule);
+        assertFalse(refused.isAllowed());
+        assertTrue(refused.getRetryAfterNanos() > 0);
+
+        // Not idle yet: it takes a minute to refill
+        second.evictIdle();
+        assertFalse(first.tryAcquire("test:client", rule).isAllowed());
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets");
+    }
+
+    private ResultActions refreshFrom(String address) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"unknown\"}"));
+    }
+}
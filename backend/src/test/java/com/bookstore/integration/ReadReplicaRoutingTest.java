@@ -0,0 +1,85 @@
+package com.bookstore.integration;
+
+import com.bookstore.datasource.ReplicaPool;
+import com.bookstore.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded databases, one standing in for the primary and one for a
+ * replica, plus a replica that cannot be reached.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas[0].url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas[1].url=jdbc:h2:tcp://localhost:1/unreachable"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReplicaPool replicaPool;
+
+    @BeforeEach
+    void setUp() {
+        replicaPool.checkHealth();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void checkHealth_ShouldTakeUnreachableReplicaOutOfRotation() {
+        assertEquals(1, replicaPool.healthyCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("ROUTING_REPLICA", database(true));
+        }
+    }
+
+    @Test
+    void writeTransaction_ShouldUsePrimary() {
+        assertEquals("ROUTING_PRIMARY", database(false));
+    }
+
+    @Test
+    void readAfterOwnWrite_ShouldStayOnPrimary() {
+        signIn(101L);
+        database(false);
+        assertEquals("ROUTING_PRIMARY", database(true));
+
+        signIn(102L);
+        assertEquals("ROUTING_REPLICA", database(true));
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("CALL DATABASE()", String.class));
+    }
+
+    private static void signIn(long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "reader" + userId + "@example.com", null, 0,
+                List.of(), true, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
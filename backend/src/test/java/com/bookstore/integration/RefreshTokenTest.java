@@ -0,0 +1,91 @@
+package com.bookstore.integration;
+
+import com.bookstore.dto.JwtResponse;
+import com.bookstore.entity.Role;
+import com.bookstore.entity.User;
+import com.bookstore.exception.InvalidTokenException;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import com.bookstore.service.AuthService;
+import com.bookstore.service.RefreshTokenService;
+import com.bookstore.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Refresh tokens rotate on every use; replaying a rotated one ends the whole
+ * session. Logout revokes the access token through the revocation filter.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("refresh@example.com")
+                .password("password")
+                .roles(Set.of(Role.ROLE_CUSTOMER))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id = ?", user.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void rotate_ShouldIssueNewPairAndRevokeFamilyOnReuse() {
+        String first = refreshTokenService.issue(user.getId());
+
+        JwtResponse rotated = refreshTokenService.rotate(first);
+        assertNotEquals(first, rotated.getRefreshToken());
+        assertEquals(user.getId(), jwtUtils.getPrincipalFromJwtToken(rotated.getToken()).getId());
+
+        // Replaying the rotated token revokes its successor as well
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(first));
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(rotated.getRefreshToken()));
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessAndRefreshTokens() {
+        String refreshToken = refreshTokenService.issue(user.getId());
+        UserPrincipal principal = jwtUtils.getPrincipalFromJwtToken(jwtUtils.generateToken(UserPrincipal.from(user)));
+        assertFalse(tokenRevocationService.isRevoked(principal.getTokenId()));
+
+        authService.logout(refreshToken, principal);
+
+        assertTrue(tokenRevocationService.isRevoked(principal.getTokenId()));
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(refreshToken));
+
+        // Survives a rebuild of the filter from the database
+        tokenRevocationService.rebuild();
+        assertTrue(tokenRevocationService.isRevoked(principal.getTokenId()));
+    }
+}
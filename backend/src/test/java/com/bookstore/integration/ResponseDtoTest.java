@@ -0,0 +1,103 @@
+package com.bookstore.integration;
+
+import com.bookstore.dto.AddToCartRequest;
+import com.bookstore.dto.OrderRequest;
+import com.bookstore.entity.*;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CategoryRepository;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import com.bookstore.service.CartService;
+import com.bookstore.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With open-in-view off, responses are DTOs assembled inside the service
+ * transaction: lazy associations are already loaded and no entity (or its
+ * user's password hash) reaches Jackson.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResponseDtoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .email("dto-" + suffix + "@example.com")
+                .password("password")
+                .roles(Set.of(Role.ROLE_CUSTOMER))
+                .build());
+        Category category = categoryRepository.save(Category.builder()
+                .name("Dto " + suffix)
+                .slug("dto-" + suffix)
+                .build());
+        book = bookRepository.save(Book.builder()
+                .title("Dto Book")
+                .author("Author")
+                .price(BigDecimal.TEN)
+                .stockQuantity(10)
+                .category(category)
+                .build());
+    }
+
+    @Test
+    void getUserOrders_ShouldReturnItemsWithoutEntities() throws Exception {
+        AddToCartRequest add = new AddToCartRequest();
+        add.setBookId(book.getId());
+        add.setQuantity(1);
+        cartService.addToCart(user.getEmail(), add);
+        OrderRequest order = new OrderRequest();
+        order.setShippingAddress(new Address("1 Dto St", null, "Leeds", "LS1", "UK"));
+        orderService.placeOrder(user.getEmail(), order);
+
+        mockMvc.perform(get("/api/orders")
+                        .header("Authorization", "Bearer " + jwtUtils.generateToken(UserPrincipal.from(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].orderItems[0].bookTitle").value("Dto Book"))
+                .andExpect(jsonPath("$.content[0].userEmail").value(user.getEmail()))
+                .andExpect(jsonPath("$.content[0].user").doesNotExist());
+    }
+
+    @Test
+    void getBookById_ShouldNestCategory() throws Exception {
+        mockMvc.perform(get("/api/books/" + book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category.id").value(book.getCategory().getId()))
+                .andExpect(jsonPath("$.ratingSum").doesNotExist());
+    }
+}
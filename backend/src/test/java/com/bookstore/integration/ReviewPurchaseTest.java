@@ -0,0 +1,118 @@
+package com.bookstore.integration;
+
+import com.bookstore.dto.ReviewRequest;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Role;
+import com.bookstore.entity.User;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.ReviewRepository;
+import com.bookstore.repository.UserPurchaseRepository;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.service.PurchaseIndexService;
+import com.bookstore.service.ReviewService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Only buyers may review a book, and a purchase counts as soon as it commits,
+ * even when the buyer's purchases were already cached on this node.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReviewPurchaseTest {
+
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private PurchaseIndexService purchaseIndexService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private UserPurchaseRepository userPurchaseRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Book book;
+    private Book otherBook;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("reviewer@example.com")
+                .password("password")
+                .roles(Set.of(Role.ROLE_CUSTOMER))
+                .build());
+        book = bookRepository.save(book("Bought Here"));
+        otherBook = bookRepository.save(book("Bought Elsewhere"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll(reviewRepository.findAll().stream()
+                .filter(review -> review.getUser().getId().equals(user.getId()))
+                .toList());
+        transactionTemplate.executeWithoutResult(status -> userPurchaseRepository.deleteByUserId(user.getId()));
+        bookRepository.deleteAll(List.of(book, otherBook));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void createReview_ShouldBeAllowedOncePurchaseCommits() {
+        RuntimeException refused = assertThrows(RuntimeException.class,
+                () -> reviewService.createReview(user.getEmail(), book.getId(), review(4)));
+        assertEquals("You must purchase the book to review it", refused.getMessage());
+
+        transactionTemplate.executeWithoutResult(status ->
+                purchaseIndexService.recordPurchases(user.getId(), List.of(book.getId())));
+
+        assertEquals(4, reviewService.createReview(user.getEmail(), book.getId(), review(4)).getRating());
+    }
+
+    @Test
+    void createReview_ShouldSeePurchasesMissingFromTheCache() {
+        assertFalse(purchaseIndexService.hasPurchased(user.getId(), otherBook.getId()));
+
+        // Written by another node, so nothing evicts this node's cached ids
+        jdbcTemplate.update("INSERT INTO user_purchases (user_id, book_id) VALUES (?, ?)",
+                user.getId(), otherBook.getId());
+
+        assertEquals(5, reviewService.createReview(user.getEmail(), otherBook.getId(), review(5)).getRating());
+    }
+
+    private static Book book(String title) {
+        return Book.builder()
+                .title(title)
+                .author("Author")
+                .price(BigDecimal.TEN)
+                .stockQuantity(5)
+                .ratingAverage(0.0)
+                .ratingCount(0)
+                .build();
+    }
+
+    private static ReviewRequest review(int rating) {
+        ReviewRequest request = new ReviewRequest();
+        request.setRating(rating);
+        request.setComment("Worth it");
+        return request;
+    }
+}
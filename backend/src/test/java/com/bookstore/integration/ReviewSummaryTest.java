@@ -0,0 +1,127 @@
+package com.bookstore.integration;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Role;
+import com.bookstore.entity.User;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The review summary: histogram and average from the book's aggregates, the
+ * newest reviews with the viewer's own flagged, and whether more exist. Runs on
+ * a database of its own so the reviews below are the only ones.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reviewsummarydb;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReviewSummaryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private User alice;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM reviews");
+        alice = user("alice@example.com", "Alice");
+        User bob = user("bob@example.com", "Bob");
+        User carol = user("carol@example.com", "Carol");
+        // Aggregates as maintained so far: they lag the third review, still on its way
+        book = bookRepository.save(Book.builder()
+                .title("Summarized")
+                .author("Author")
+                .price(BigDecimal.TEN)
+                .stockQuantity(5)
+                .ratingCount(2)
+                .ratingSum(9L)
+                .ratingAverage(4.5)
+                .rating4(1)
+                .rating5(1)
+                .build());
+        insertReview(701, alice, 5, BASE);
+        insertReview(702, bob, 4, BASE.plusHours(1));
+        insertReview(703, carol, 2, BASE.plusHours(2));
+    }
+
+    @Test
+    void getReviewSummary_ShouldFlagTheViewersReviewAndPageByRows() throws Exception {
+        mockMvc.perform(get("/api/books/{id}/reviews/summary", book.getId())
+                        .param("size", "2")
+                        .header("Authorization", "Bearer " + jwtUtils.generateToken(UserPrincipal.from(alice))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ratingCount").value(2))
+                .andExpect(jsonPath("$.ratingAverage").value(4.5))
+                .andExpect(jsonPath("$.histogram.5").value(1))
+                .andExpect(jsonPath("$.histogram.1").value(0))
+                .andExpect(jsonPath("$.reviews.length()").value(2))
+                .andExpect(jsonPath("$.reviews[0].user.firstName").value("Carol"))
+                .andExpect(jsonPath("$.reviews[0].mine").value(false))
+                // More reviews exist than the lagging count says
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        mockMvc.perform(get("/api/books/{id}/reviews/summary", book.getId())
+                        .param("size", "3")
+                        .header("Authorization", "Bearer " + jwtUtils.generateToken(UserPrincipal.from(alice))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews.length()").value(3))
+                .andExpect(jsonPath("$.reviews[2].user.firstName").value("Alice"))
+                .andExpect(jsonPath("$.reviews[2].mine").value(true))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getReviewSummary_ShouldFlagNothingForAnonymousViewers() throws Exception {
+        mockMvc.perform(get("/api/books/{id}/reviews/summary", book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews.length()").value(3))
+                .andExpect(jsonPath("$.reviews[?(@.mine == true)]").isEmpty())
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(get("/api/books/{id}/reviews/summary", 999_999L))
+                .andExpect(status().isBadRequest());
+    }
+
+    private User user(String email, String firstName) {
+        return userRepository.findByEmail(email).orElseGet(() -> userRepository.save(User.builder()
+                .email(email)
+                .password("password")
+                .firstName(firstName)
+                .roles(Set.of(Role.ROLE_CUSTOMER))
+                .build()));
+    }
+
+    private void insertReview(long id, User user, int rating, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO reviews (id, book_id, user_id, rating, comment, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, 'Review', ?, ?)", id, book.getId(), user.getId(), rating, createdAt, createdAt);
+    }
+}
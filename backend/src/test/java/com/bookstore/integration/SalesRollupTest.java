@@ -0,0 +1,153 @@
+package com.bookstore.integration;
+
+import com.bookstore.entity.Role;
+import com.bookstore.entity.RollupDimension;
+import com.bookstore.entity.RollupGranularity;
+import com.bookstore.entity.SalesRollup;
+import com.bookstore.entity.SalesRollupId;
+import com.bookstore.entity.User;
+import com.bookstore.exception.ServiceBusyException;
+import com.bookstore.repository.SalesRollupRepository;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.service.OrderSalesEvent;
+import com.bookstore.service.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sales rollups: committed sales are folded in after commit, repeated upserts of
+ * a cell add up, and a backfill recomputes days from order history on the shared
+ * pool. Runs on a database of its own so the rollup tables start empty.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rollupdb;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SalesRollupTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 10);
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM sales_rollups");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+    }
+
+    @Test
+    void onOrderSales_ShouldApplyCommittedSalesOnly() {
+        LocalDateTime createdAt = DAY.atTime(9, 30);
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(sale(createdAt, 1)));
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(sale(createdAt, 1));
+            status.setRollbackOnly();
+        });
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> total(RollupGranularity.DAY, DAY.atStartOfDay()).isPresent());
+        SalesRollup day = total(RollupGranularity.DAY, DAY.atStartOfDay()).orElseThrow();
+        assertEquals(0, new BigDecimal("25.00").compareTo(day.getRevenue()));
+        assertEquals(1L, day.getOrderCount());
+        assertEquals(3L, day.getUnitsSold());
+        assertTrue(total(RollupGranularity.HOUR, createdAt.withMinute(0)).isPresent());
+
+        // A cancellation takes the order back out
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(sale(createdAt, -1)));
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> total(RollupGranularity.DAY, DAY.atStartOfDay()).orElseThrow().getOrderCount() == 0);
+    }
+
+    @Test
+    void addAll_ShouldAccumulateIntoExistingCells() {
+        SalesRollupId id = new SalesRollupId(RollupGranularity.DAY, DAY.atStartOfDay(), RollupDimension.TOTAL, "ALL");
+        salesRollupRepository.addAll(List.of(cell(id, "10.00", 1, 2)));
+        salesRollupRepository.addAll(List.of(cell(id, "5.50", 1, 1)));
+
+        SalesRollup row = salesRollupRepository.findById(id).orElseThrow();
+        assertEquals(0, new BigDecimal("15.50").compareTo(row.getRevenue()));
+        assertEquals(2L, row.getOrderCount());
+        assertEquals(3L, row.getUnitsSold());
+    }
+
+    @Test
+    void rebuild_ShouldRecomputeDaysFromOrderHistory() throws Exception {
+        long userId = userRepository.findByEmail("rollup@example.com").orElseGet(() -> userRepository.save(
+                User.builder().email("rollup@example.com").password("password").roles(Set.of(Role.ROLE_CUSTOMER))
+                        .build())).getId();
+        insertOrder(501, userId, DAY.atTime(10, 0), "SUCCESS", "PAID", "20.00");
+        insertOrder(502, userId, DAY.atTime(15, 0), "SUCCESS", "CANCELLED", "99.00");
+        insertOrder(503, userId, DAY.plusDays(1).atTime(8, 0), "SUCCESS", "PAID", "7.00");
+        insertOrder(504, userId, DAY.plusDays(1).atTime(9, 0), "FAILED", "PENDING", "3.00");
+        // A stale cell the rebuild must replace rather than add to
+        salesRollupRepository.addAll(List.of(cell(new SalesRollupId(RollupGranularity.DAY, DAY.atStartOfDay(),
+                RollupDimension.TOTAL, "ALL"), "1000.00", 40, 40)));
+
+        // Two months, so the backfill is still going when the second one is requested
+        CompletableFuture<Void> backfill = salesRollupService.rebuild(DAY.minusDays(60), DAY.plusDays(1));
+        assertThrows(ServiceBusyException.class, () -> salesRollupService.rebuild(DAY, DAY));
+        backfill.get(30, TimeUnit.SECONDS);
+
+        SalesRollup first = total(RollupGranularity.DAY, DAY.atStartOfDay()).orElseThrow();
+        assertEquals(0, new BigDecimal("20.00").compareTo(first.getRevenue()));
+        assertEquals(1L, first.getOrderCount());
+        SalesRollup second = total(RollupGranularity.DAY, DAY.plusDays(1).atStartOfDay()).orElseThrow();
+        assertEquals(0, new BigDecimal("7.00").compareTo(second.getRevenue()));
+
+        // Idempotent, and free for the next backfill once done
+        salesRollupService.rebuild(DAY, DAY.plusDays(1)).get(30, TimeUnit.SECONDS);
+        assertEquals(1L, total(RollupGranularity.DAY, DAY.atStartOfDay()).orElseThrow().getOrderCount());
+
+        assertThrows(IllegalArgumentException.class, () -> salesRollupService.rebuild(DAY, DAY.plusDays(366)));
+        assertThrows(IllegalArgumentException.class, () -> salesRollupService.rebuild(DAY, DAY.minusDays(1)));
+    }
+
+    private Optional<SalesRollup> total(RollupGranularity granularity, LocalDateTime bucket) {
+        return salesRollupRepository.findById(new SalesRollupId(granularity, bucket, RollupDimension.TOTAL, "ALL"));
+    }
+
+    private static OrderSalesEvent sale(LocalDateTime createdAt, int sign) {
+        return new OrderSalesEvent(1L, createdAt, "stripe", new BigDecimal("25.00"),
+                List.of(new OrderSalesEvent.Line(99L, 3, new BigDecimal("25.00"))), sign);
+    }
+
+    private static SalesRollup cell(SalesRollupId id, String revenue, long orders, long units) {
+        return SalesRollup.builder().id(id).revenue(new BigDecimal(revenue)).orderCount(orders).unitsSold(units)
+                .build();
+    }
+
+    private void insertOrder(long id, long userId, LocalDateTime createdAt, String paymentStatus, String status,
+            String total) {
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, total_amount, status, payment_status, "
+                        + "payment_provider, created_at, updated_at) VALUES (?, ?, ?, ?, ?, 'stripe', ?, ?)",
+                id, userId, new BigDecimal(total), status, paymentStatus, createdAt, createdAt);
+    }
+}
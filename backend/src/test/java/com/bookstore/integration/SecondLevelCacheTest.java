@@ -0,0 +1,211 @@
+package com.bookstore.integration;
+
+import com.bookstore.dto.BookDto;
+import com.bookstore.dto.BookRequest;
+import com.bookstore.dto.CategoryDto;
+import com.bookstore.dto.CategoryRequest;
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CategoryRepository;
+import com.bookstore.service.BookRatingService;
+import com.bookstore.service.BookService;
+import com.bookstore.service.BookStockService;
+import com.bookstore.service.CategoryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Category and Book reads come from the second-level cache, and writes through
+ * the services never leave a stale copy behind. Runs on a database of its own
+ * so no other context writes behind the cache's back.
+ */
+@SpringBootTest(properties = {
+        "app.hibernate-cache.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:cachedb;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private BookRatingService bookRatingService;
+    @Autowired
+    private BookStockService bookStockService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private CategoryDto category;
+    private BookDto book;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        category = categoryService.createCategory(categoryRequest("Cached", "cached"));
+        book = bookService.createBook(bookRequest("Cached Book"));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(book.getId());
+        categoryRepository.findAll().stream()
+                .filter(c -> c.getSlug().startsWith("cached"))
+                .forEach(c -> categoryService.deleteCategory(c.getId()));
+    }
+
+    @Test
+    void getBookById_ShouldServeRepeatedReadsFromCache() {
+        bookService.getBookById(book.getId());
+        bookService.getBookById(book.getId());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    void updateBook_ShouldReplaceCachedCopy() {
+        bookService.getBookById(book.getId());
+
+        bookService.updateBook(book.getId(), bookRequest("Renamed Book"));
+
+        assertEquals("Renamed Book", bookService.getBookById(book.getId()).getTitle());
+    }
+
+    @Test
+    void ratingDelta_ShouldEvictOnlyTheRatedBook() {
+        BookDto other = bookService.createBook(bookRequest("Other Cached Book"));
+        try {
+            bookService.getBookById(book.getId());
+            bookService.getBookById(other.getId());
+
+            transactionTemplate.executeWithoutResult(status -> bookRatingService.applyDelta(book.getId(), 4, 0));
+            bookRatingService.flush();
+            statistics.clear();
+
+            assertEquals(1, bookService.getBookById(book.getId()).getRatingCount());
+            assertEquals(1, statistics.getSecondLevelCacheMissCount());
+            bookService.getBookById(other.getId());
+            assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        } finally {
+            bookRepository.deleteById(other.getId());
+        }
+    }
+
+    @Test
+    void stockTake_ShouldNotOversellWhenBothSessionsSeeTheCachedStock() throws Exception {
+        bookService.getBookById(book.getId());
+        CyclicBarrier bothLoaded = new CyclicBarrier(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> takes = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                takes.add(pool.submit(() -> transactionTemplate.execute(status -> {
+                    Book cached = bookRepository.findById(book.getId()).orElseThrow();
+                    assertEquals(5, cached.getStockQuantity());
+                    await(bothLoaded);
+                    return bookStockService.take(book.getId(), 4);
+                })));
+            }
+            int taken = 0;
+            for (Future<Boolean> take : takes) {
+                taken += take.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, taken);
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+
+        assertEquals(1, stockInDatabase());
+        assertEquals(1, bookService.getBookById(book.getId()).getStockQuantity());
+    }
+
+    @Test
+    void bookUpdate_ShouldNotWriteBackStaleCachedStock() {
+        bookService.getBookById(book.getId());
+        // Another node sells two copies; this node's cached copy still says 5
+        jdbcTemplate.update("UPDATE books SET stock_quantity = 3 WHERE id = ?", book.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Book cached = bookRepository.findById(book.getId()).orElseThrow();
+            assertEquals(5, cached.getStockQuantity());
+            cached.setTitle("Retitled Book");
+            bookRepository.save(cached);
+        });
+
+        assertEquals(3, stockInDatabase());
+    }
+
+    @Test
+    void findAll_ShouldUseQueryCacheUntilCategoryWritten() {
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        categoryService.createCategory(categoryRequest("Cached Too", "cached-too"));
+
+        assertTrue(categoryService.getAllCategories().stream().anyMatch(c -> c.getSlug().equals("cached-too")));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private int stockInDatabase() {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM books WHERE id = ?", Integer.class, book.getId());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CategoryRequest categoryRequest(String name, String slug) {
+        CategoryRequest request = new CategoryRequest();
+        request.setName(name);
+        request.setSlug(slug);
+        return request;
+    }
+
+    private BookRequest bookRequest(String title) {
+        BookRequest request = new BookRequest();
+        request.setTitle(title);
+        request.setAuthor("Author");
+        request.setPrice(BigDecimal.TEN);
+        request.setStockQuantity(5);
+        request.setCategoryId(category.getId());
+        return request;
+    }
+}
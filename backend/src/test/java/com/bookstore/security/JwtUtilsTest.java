@@ -0,0 +1,41 @@
+package com.bookstore.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Test
+    void getPrincipalFromJwtToken_ShouldLeaveTokensUncachedUntilCachedOnesExpire() throws Exception {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 2000, 2);
+        String first = token(jwtUtils, 1L);
+        String second = token(jwtUtils, 2L);
+        assertEquals(1L, jwtUtils.getPrincipalFromJwtToken(first).getId());
+        assertEquals(2L, jwtUtils.getPrincipalFromJwtToken(second).getId());
+        assertEquals(2, jwtUtils.cachedTokens());
+
+        // Full of live tokens: still verified, just not cached
+        String third = token(jwtUtils, 3L);
+        assertEquals(3L, jwtUtils.getPrincipalFromJwtToken(third).getId());
+        assertEquals(3L, jwtUtils.getPrincipalFromJwtToken(third).getId());
+        assertEquals(2, jwtUtils.cachedTokens());
+
+        Thread.sleep(2100);
+
+        // The next new token sweeps out the expired ones and takes their place
+        String fourth = token(jwtUtils, 4L);
+        assertEquals(4L, jwtUtils.getPrincipalFromJwtToken(fourth).getId());
+        assertEquals(1, jwtUtils.cachedTokens());
+    }
+
+    private static String token(JwtUtils jwtUtils, long userId) {
+        return jwtUtils.generateToken(new UserPrincipal(userId, "user" + userId + "@example.com", null, 0,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")), true, null));
+    }
+}
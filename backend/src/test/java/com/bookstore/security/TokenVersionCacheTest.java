@@ -0,0 +1,67 @@
+package com.bookstore.security;
+
+import com.bookstore.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenVersionCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenVersionCache tokenVersionCache = new TokenVersionCache(userRepository, 100, 60);
+
+    @Test
+    void isCurrent_ShouldNotCacheAVersionLoadedBeforeARevocationCommitted() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(userRepository.findActiveTokenVersion(1L))
+                .thenAnswer(invocation -> {
+                    // Reads the version as it was before the password change, and returns it after that committed
+                    loading.countDown();
+                    committed.await(5, TimeUnit.SECONDS);
+                    return Optional.of(3);
+                })
+                .thenReturn(Optional.of(4));
+
+        CompletableFuture<Boolean> inFlight = CompletableFuture.supplyAsync(() -> tokenVersionCache.isCurrent(1L, 3));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        commitRevocation(1L);
+        committed.countDown();
+        assertTrue(inFlight.get(5, TimeUnit.SECONDS));
+
+        // The stale version was not cached: old tokens fail from the next request on
+        assertFalse(tokenVersionCache.isCurrent(1L, 3));
+        assertTrue(tokenVersionCache.isCurrent(1L, 4));
+        verify(userRepository, times(2)).findActiveTokenVersion(1L);
+    }
+
+    @Test
+    void isCurrent_ShouldLoadAgainAfterAFailedLoad() {
+        when(userRepository.findActiveTokenVersion(1L))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(Optional.of(2));
+
+        assertThrows(IllegalStateException.class, () -> tokenVersionCache.isCurrent(1L, 2));
+        assertTrue(tokenVersionCache.isCurrent(1L, 2));
+        assertTrue(tokenVersionCache.isCurrent(1L, 2));
+        verify(userRepository, times(2)).findActiveTokenVersion(1L);
+    }
+
+    private void commitRevocation(Long userId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenVersionCache.evictAfterCommit(userId);
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.bookstore.seed;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CategoryRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starter catalog: the bundled snapshot loads into an empty database without
+ * any network access, and the refresh job adds new titles from a local
+ * stand-in for the Google Books API, a bounded number of requests at a time.
+ * Runs on a database of its own.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalogdb;DB_CLOSE_DELAY=-1",
+        "app.seed.refresh.enabled=true",
+        "app.seed.refresh.cron=-",
+        "app.seed.refresh.parallelism=2",
+        "app.seed.refresh.books-per-category=3"
+})
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CatalogSeedingTest {
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static final AtomicInteger requests = new AtomicInteger();
+    private static final HttpServer booksApi = startBooksApi();
+    private static final Path snapshotOutput = tempFile();
+
+    @Autowired
+    private CatalogSnapshotLoader catalogSnapshotLoader;
+    @Autowired
+    private CatalogRefreshJob catalogRefreshJob;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @DynamicPropertySource
+    static void booksApiProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.seed.refresh.base-url", () -> "http://localhost:" + booksApi.getAddress().getPort());
+        registry.add("app.seed.refresh.snapshot-output", snapshotOutput::toString);
+    }
+
+    @AfterAll
+    static void stopBooksApi() throws IOException {
+        booksApi.stop(0);
+        Files.deleteIfExists(snapshotOutput);
+    }
+
+    @Test
+    @Order(1)
+    void loadIfEmpty_ShouldLoadBundledSnapshot() {
+        int loaded = catalogSnapshotLoader.loadIfEmpty();
+
+        assertEquals(120, loaded);
+        assertEquals(120, bookRepository.count());
+        assertEquals(12, categoryRepository.count());
+        Book atomicHabits = bookRepository.findByTitleContainingIgnoreCase("Atomic Habits").get(0);
+        assertEquals("James Clear", atomicHabits.getAuthor());
+        assertEquals("self-help", atomicHabits.getCategory().getSlug());
+        assertEquals(0, catalogSnapshotLoader.loadIfEmpty());
+    }
+
+    @Test
+    @Order(2)
+    void refresh_ShouldAddNewBooksWithBoundedConcurrency() throws IOException {
+        int added = catalogRefreshJob.refresh();
+
+        // Three books per category; Finance fails, and Atomic Habits is already in the catalog
+        assertEquals(11 * 3, added);
+        assertEquals(120 + 33, bookRepository.count());
+        assertEquals(12, requests.get());
+        assertTrue(maxInFlight.get() <= 2, "at most 2 requests at once, saw " + maxInFlight.get());
+        Book fetched = bookRepository.findByTitleContainingIgnoreCase("Mystery Volume 2").get(0);
+        assertEquals("mystery", fetched.getCategory().getSlug());
+        assertEquals(isbn("Mystery", 2), fetched.getIsbn());
+        assertEquals(1, bookRepository.findByTitleContainingIgnoreCase("Atomic Habits").size());
+
+        List<String> snapshotBooks = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(snapshotOutput)) {
+            CatalogSnapshot.read(in, new CatalogSnapshot.Handler() {
+                @Override
+                public void category(CatalogSnapshot.CategoryLine category) {
+                }
+
+                @Override
+                public void book(CatalogSnapshot.BookLine book) {
+                    snapshotBooks.add(book.title());
+                }
+            });
+        }
+        assertEquals(34, snapshotBooks.size());
+
+        assertEquals(0, catalogRefreshJob.refresh());
+    }
+
+    // Answers volume searches with three books per subject (plus Atomic Habits for Self-Help); Finance is down
+    private static HttpServer startBooksApi() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/volumes", CatalogSeedingTest::volumes);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void volumes(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(100);
+            String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+            String subject = query.replaceAll(".*q=subject:([^&]+).*", "$1");
+            if (subject.equals("Finance")) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            StringBuilder items = new StringBuilder();
+            for (int i = 1; i <= 3; i++) {
+                items.append(items.isEmpty() ? "" : ",").append(volume(subject + " Volume " + i,
+                        "Author " + subject, isbn(subject, i)));
+            }
+            if (subject.equals("Self-Help")) {
+                items.append(",").append(volume("Atomic Habits", "James Clear", null));
+            }
+            byte[] body = ("{\"kind\":\"books#volumes\",\"totalItems\":3,\"items\":[" + items
+                    + "],\"extra\":{\"ignored\":[1,2]}}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static String volume(String title, String author, String isbn) {
+        String identifiers = isbn == null ? ""
+                : ",\"industryIdentifiers\":[{\"type\":\"ISBN_13\",\"identifier\":\"" + isbn + "\"}]";
+        return "{\"volumeInfo\":{\"title\":\"" + title + "\",\"authors\":[\"" + author + "\"],"
+                + "\"imageLinks\":{\"thumbnail\":\"http://books.example.com/cover.jpg\"}" + identifiers + "},"
+                + "\"saleInfo\":{\"listPrice\":{\"amount\":12.5,\"currencyCode\":\"GBP\"}}}";
+    }
+
+    private static String isbn(String subject, int volume) {
+        return String.format("978%06d%04d", Math.floorMod(subject.hashCode(), 1_000_000), volume);
+    }
+
+    private static Path tempFile() {
+        try {
+            return Files.createTempFile("catalog-refresh", ".ndjson.gz");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.bookstore.seed;
+
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CategoryRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several nodes starting at once against an empty PostgreSQL catalog load the
+ * snapshot exactly once, and refreshing at once add each new title once.
+ * Runs only when POSTGRES_TEST_URL names a scratch database (user postgres,
+ * no password); the database is wiped first.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${POSTGRES_TEST_URL}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.datasource.username=postgres",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "spring.flyway.clean-disabled=false",
+        "app.seed.refresh.enabled=true",
+        "app.seed.refresh.cron=-",
+        "app.seed.refresh.books-per-category=2"
+})
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "POSTGRES_TEST_URL", matches = ".+")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ConcurrentCatalogSeedingTest {
+
+    private static final HttpServer booksApi = startBooksApi();
+
+    @TestConfiguration
+    static class CleanDatabase {
+        @Bean
+        FlywayMigrationStrategy cleanMigrate() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    @DynamicPropertySource
+    static void booksApiProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.seed.refresh.base-url", () -> "http://localhost:" + booksApi.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopBooksApi() {
+        booksApi.stop(0);
+    }
+
+    @Autowired
+    private CatalogSnapshotLoader catalogSnapshotLoader;
+    @Autowired
+    private CatalogRefreshJob catalogRefreshJob;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    @Order(1)
+    void loadIfEmpty_ShouldLoadOnceWhenNodesStartTogether() throws Exception {
+        assertEquals(List.of(0, 0, 120), runTogether(catalogSnapshotLoader::loadIfEmpty));
+        assertEquals(120, bookRepository.count());
+        assertEquals(12, categoryRepository.count());
+    }
+
+    @Test
+    @Order(2)
+    void refresh_ShouldAddEachTitleOnceWhenNodesRefreshTogether() throws Exception {
+        assertEquals(List.of(0, 0, 24), runTogether(catalogRefreshJob::refresh));
+        assertEquals(144, bookRepository.count());
+    }
+
+    private static List<Integer> runTogether(Callable<Integer> node) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(3);
+        ExecutorService nodes = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Integer>> runs = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                runs.add(nodes.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    return node.call();
+                }));
+            }
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> run : runs) {
+                results.add(run.get(30, TimeUnit.SECONDS));
+            }
+            results.sort(null);
+            return results;
+        } finally {
+            nodes.shutdown();
+        }
+    }
+
+    // Answers every subject search with the same two books, each with an ISBN
+    private static HttpServer startBooksApi() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/volumes", ConcurrentCatalogSeedingTest::volumes);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void volumes(HttpExchange exchange) throws IOException {
+        String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+        String subject = query.replaceAll(".*q=subject:([^&]+).*", "$1");
+        StringBuilder items = new StringBuilder();
+        for (int i = 1; i <= 2; i++) {
+            String isbn = String.format("979%06d%04d", Math.floorMod(subject.hashCode(), 1_000_000), i);
+            items.append(items.isEmpty() ? "" : ",").append("{\"volumeInfo\":{\"title\":\"").append(subject)
+                    .append(" Refresh ").append(i).append("\",\"authors\":[\"Author ").append(subject)
+                    .append("\"],\"industryIdentifiers\":[{\"type\":\"ISBN_13\",\"identifier\":\"")
+                    .append(isbn).append("\"}]},\"saleInfo\":{\"listPrice\":{\"amount\":9.5}}}");
+        }
+        byte[] body = ("{\"items\":[" + items + "]}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        exchange.close();
+    }
+}
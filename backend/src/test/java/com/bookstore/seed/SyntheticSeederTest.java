@@ -0,0 +1,160 @@
+package com.bookstore.seed;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CategoryRepository;
+import com.bookstore.service.OrderPartitionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A small synthetic dataset loaded in parallel chunks: every table is filled,
+ * the denormalized columns agree with the rows they summarize, popularity is
+ * skewed, and the application can keep inserting afterwards. Runs on a
+ * database of its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:syntheticdb;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SyntheticSeederTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void seed_ShouldLoadConsistentSkewedDataset() throws Exception {
+        SyntheticSeedProperties properties = properties(7);
+        SyntheticSeeder seeder = new SyntheticSeeder(dataSource, properties, passwordEncoder, orderPartitionService);
+        seeder.seed();
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(properties, "");
+        assertEquals(5, count("SELECT COUNT(*) FROM categories"));
+        assertEquals(400, count("SELECT COUNT(*) FROM users"));
+        assertEquals(401, count("SELECT COUNT(*) FROM user_roles"));
+        assertEquals(3000, count("SELECT COUNT(*) FROM books"));
+        assertEquals(4000, count("SELECT COUNT(*) FROM orders"));
+        assertEquals(generator.itemCount(1, 4001), count("SELECT COUNT(*) FROM order_items"));
+        long reviews = count("SELECT COUNT(*) FROM reviews");
+        assertEquals(generator.reviewCount(1, 3001), reviews);
+        assertEquals(6000, reviews, 600);
+
+        // Aggregates and totals agree with the rows they summarize
+        assertEquals(0, count("SELECT COUNT(*) FROM books b WHERE b.rating_count <> "
+                + "(SELECT COUNT(*) FROM reviews r WHERE r.book_id = b.id) OR b.rating_sum <> "
+                + "(SELECT COALESCE(SUM(r.rating), 0) FROM reviews r WHERE r.book_id = b.id) OR b.rating_5 <> "
+                + "(SELECT COUNT(*) FROM reviews r WHERE r.book_id = b.id AND r.rating = 5)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM orders o WHERE o.total_amount <> "
+                + "(SELECT SUM(i.subtotal) FROM order_items i WHERE i.order_id = o.id)"));
+        assertEquals(count("SELECT COUNT(*) FROM (SELECT DISTINCT o.user_id, i.book_id FROM order_items i "
+                + "JOIN orders o ON o.id = i.order_id) p"), count("SELECT COUNT(*) FROM user_purchases"));
+
+        // The top 1% of books take a large share of sales, led by the rank 1 book
+        List<Map<String, Object>> sales = jdbcTemplate.queryForList(
+                "SELECT book_id, COUNT(*) AS lines FROM order_items GROUP BY book_id ORDER BY lines DESC LIMIT 30");
+        long topLines = sales.stream().mapToLong(row -> ((Number) row.get("LINES")).longValue()).sum();
+        assertTrue(topLines > 0.25 * count("SELECT COUNT(*) FROM order_items"));
+        assertEquals(generator.bookWithRank(1), ((Number) sales.get(0).get("BOOK_ID")).longValue());
+        long busiestUser = count("SELECT MAX(c) FROM (SELECT COUNT(*) AS c FROM orders GROUP BY user_id) u");
+        assertTrue(busiestUser > 5 * 4000 / 400);
+
+        // Ids carry on after the generated ones
+        Book book = bookRepository.save(Book.builder().title("After Seeding").author("Author")
+                .price(new BigDecimal("9.99")).stockQuantity(1).category(categoryRepository.findById(1L).orElseThrow())
+                .build());
+        assertTrue(book.getId() > 3000);
+        jdbcTemplate.update("INSERT INTO categories (name, slug) VALUES ('Later', 'later')");
+        assertEquals(6, count("SELECT id FROM categories WHERE slug = 'later'"));
+
+        assertThrows(IllegalStateException.class, seeder::seed);
+    }
+
+    @Test
+    void generator_ShouldProduceSameRowsForSameSeed() throws Exception {
+        List<Object[]> first = rows(new SyntheticDataGenerator(properties(7), "hash"));
+        List<Object[]> again = rows(new SyntheticDataGenerator(properties(7), "hash"));
+        List<Object[]> otherSeed = rows(new SyntheticDataGenerator(properties(8), "hash"));
+
+        assertTrue(same(first, again));
+        assertFalse(same(first, otherSeed));
+    }
+
+    @Test
+    void zipfSampler_ShouldDrawRanksByPowerLaw() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[1001];
+        for (int i = 0; i < 500_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        double total = ZipfSampler.normalization(1000, 1.0);
+        assertEquals(500_000 / total, counts[1], 500_000 / total * 0.03);
+        assertEquals(2.0, (double) counts[1] / counts[2], 0.1);
+        assertEquals(10.0, (double) counts[1] / counts[10], 1.0);
+    }
+
+    private static SyntheticSeedProperties properties(long seed) {
+        SyntheticSeedProperties properties = new SyntheticSeedProperties();
+        properties.setSeed(seed);
+        properties.setCategories(5);
+        properties.setBooks(3000);
+        properties.setUsers(400);
+        properties.setOrders(4000);
+        properties.setReviews(6000);
+        properties.setHistoryDays(365);
+        properties.setEndDate(LocalDate.of(2026, 1, 31));
+        properties.setChunkSize(700);
+        properties.setBatchSize(250);
+        properties.setParallelism(4);
+        return properties;
+    }
+
+    // Rows of a slice of every table, in generation order
+    private static List<Object[]> rows(SyntheticDataGenerator generator) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        generator.users(1, 50, rows::add, rows::add);
+        generator.books(1, 200, rows::add);
+        generator.reviews(1, 200, 1, rows::add);
+        generator.orders(1, 200, 1, rows::add, rows::add);
+        return rows;
+    }
+
+    private static boolean same(List<Object[]> a, List<Object[]> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Arrays.equals(a.get(i), b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
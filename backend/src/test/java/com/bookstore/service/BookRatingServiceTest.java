@@ -0,0 +1,53 @@
+package com.bookstore.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BookRatingServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private BookRatingService bookRatingService;
+
+    @AfterEach
+    void tearDown() {
+        bookRatingService.stop();
+    }
+
+    @Test
+    void dispatch_ShouldBackOffAfterAFailedUpdate() throws Exception {
+        doThrow(new CannotAcquireLockException("lock timeout")).when(jdbcTemplate).update(anyString(), (Object[]) any());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        bookRatingService = new BookRatingService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                mock(EntityManagerFactory.class), true, 20, 1);
+        bookRatingService.start();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookRatingService.applyDelta(1L, 4, 0);
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Ticks every 10 ms; retries wait 40, 80, 160, 320 ms, ... after the first attempt at 20 ms
+        Thread.sleep(700);
+
+        int attempts = mockingDetails(jdbcTemplate).getInvocations().size();
+        assertTrue(attempts >= 2 && attempts <= 5, "attempts: " + attempts);
+        assertEquals(1, bookRatingService.pendingBooks());
+    }
+}
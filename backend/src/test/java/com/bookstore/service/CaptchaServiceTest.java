@@ -0,0 +1,60 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CaptchaResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptchaServiceTest {
+
+    private static final Pattern QUESTION = Pattern.compile("(\\d+) ([+-]) (\\d+) = \\?");
+
+    private final CaptchaService captchaService = new CaptchaService("", "node-secret", 300, 10, 1000);
+
+    @Test
+    void validateCaptcha_ShouldAcceptCorrectAnswerOnlyOnce() {
+        CaptchaResponse captcha = captchaService.generateCaptcha();
+
+        assertTrue(captchaService.validateCaptcha(captcha.getId(), answer(captcha)));
+        assertFalse(captchaService.validateCaptcha(captcha.getId(), answer(captcha)));
+    }
+
+    @Test
+    void validateCaptcha_ShouldAcceptCaptchaFromAnotherNodeWithSameSecret() {
+        CaptchaService otherNode = new CaptchaService("", "node-secret", 300, 10, 1000);
+        CaptchaResponse captcha = otherNode.generateCaptcha();
+
+        assertTrue(captchaService.validateCaptcha(captcha.getId(), answer(captcha)));
+    }
+
+    @Test
+    void validateCaptcha_ShouldUseUpCaptcha_WhenAnswerIsWrong() {
+        CaptchaResponse captcha = captchaService.generateCaptcha();
+        String wrong = String.valueOf(Integer.parseInt(answer(captcha)) + 1);
+
+        assertFalse(captchaService.validateCaptcha(captcha.getId(), wrong));
+        assertFalse(captchaService.validateCaptcha(captcha.getId(), answer(captcha)));
+    }
+
+    @Test
+    void validateCaptcha_ShouldRejectForgedAndExpiredCaptchas() {
+        CaptchaResponse captcha = new CaptchaService("", "other-secret", 300, 10, 1000).generateCaptcha();
+        assertFalse(captchaService.validateCaptcha(captcha.getId(), answer(captcha)));
+
+        CaptchaResponse expired = new CaptchaService("", "node-secret", 0, 10, 1000).generateCaptcha();
+        assertFalse(captchaService.validateCaptcha(expired.getId(), answer(expired)));
+
+        assertFalse(captchaService.validateCaptcha("not-a-token", "3"));
+    }
+
+    private static String answer(CaptchaResponse captcha) {
+        Matcher matcher = QUESTION.matcher(captcha.getQuestion());
+        assertTrue(matcher.matches());
+        int a = Integer.parseInt(matcher.group(1));
+        int b = Integer.parseInt(matcher.group(3));
+        return String.valueOf(matcher.group(2).equals("+") ? a + b : a - b);
+    }
+}
@@ -0,0 +1,84 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.UserPurchaseId;
+import com.bookstore.repository.UserPurchaseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PurchaseIndexServiceTest {
+
+    private final UserPurchaseRepository repository = mock(UserPurchaseRepository.class);
+    private final PurchaseIndexService purchaseIndexService = new PurchaseIndexService(repository, 100);
+
+    @Test
+    void hasPurchased_ShouldNotCacheIdsLoadedBeforeAPurchaseCommitted() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(repository.findBookIdsByUserId(1L))
+                .thenAnswer(invocation -> {
+                    // Reads the ids as they were before the purchase, and returns them after it committed
+                    loading.countDown();
+                    committed.await(5, TimeUnit.SECONDS);
+                    return List.of();
+                })
+                .thenReturn(List.of(7L));
+
+        CompletableFuture<Boolean> staleCheck = CompletableFuture.supplyAsync(
+                () -> purchaseIndexService.hasPurchased(1L, 3L));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        commitPurchase(1L, 7L);
+        committed.countDown();
+        assertFalse(staleCheck.get(5, TimeUnit.SECONDS));
+
+        assertTrue(purchaseIndexService.hasPurchased(1L, 7L));
+        verify(repository, times(2)).findBookIdsByUserId(1L);
+        verify(repository, never()).existsById(new UserPurchaseId(1L, 7L));
+    }
+
+    @Test
+    void hasPurchased_ShouldConfirmMissesAgainstThePurchasesTable() {
+        when(repository.findBookIdsByUserId(1L)).thenReturn(List.of(2L), List.of(2L, 9L));
+        assertTrue(purchaseIndexService.hasPurchased(1L, 2L));
+
+        // Bought through another node: this node's cached ids never heard of it
+        when(repository.existsById(new UserPurchaseId(1L, 9L))).thenReturn(true);
+        assertTrue(purchaseIndexService.hasPurchased(1L, 9L));
+        assertFalse(purchaseIndexService.hasPurchased(1L, 4L));
+
+        // The confirmed purchase refreshed the cached ids
+        assertTrue(purchaseIndexService.hasPurchased(1L, 9L));
+        verify(repository, times(1)).existsById(new UserPurchaseId(1L, 9L));
+    }
+
+    @Test
+    void hasPurchased_ShouldForgetAFailedLoad() {
+        when(repository.findBookIdsByUserId(1L))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(2L));
+
+        assertThrows(IllegalStateException.class, () -> purchaseIndexService.hasPurchased(1L, 2L));
+        assertEquals(0, purchaseIndexService.pendingLoads());
+        assertTrue(purchaseIndexService.hasPurchased(1L, 2L));
+        assertTrue(purchaseIndexService.hasPurchased(1L, 2L));
+        verify(repository, times(2)).findBookIdsByUserId(1L);
+    }
+
+    private void commitPurchase(Long userId, Long bookId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            purchaseIndexService.recordPurchases(userId, List.of(bookId));
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bookstore.service;
+
+import com.bookstore.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+
+    @Test
+    void rebuild_ShouldKeepATokenRevokedByATransactionStillCommitting() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        TokenRevocationService service = new TokenRevocationService(repository,
+                new TransactionTemplate(transactionManager), 1000, 0.01);
+        when(repository.findActiveJtis(any())).thenReturn(List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.revoke("logged-out", LocalDateTime.now().plusMinutes(15));
+            // The logout has not committed yet, so the rebuild's snapshot misses it
+            service.rebuild();
+            when(repository.existsById("logged-out")).thenReturn(true);
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(service.isRevoked("logged-out"));
+
+        // Once committed, the next rebuild finds the row; the id is carried over either way
+        when(repository.findActiveJtis(any())).thenReturn(List.of("logged-out"));
+        service.rebuild();
+        assertTrue(service.isRevoked("logged-out"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.bookstore.throttle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CheckoutAdmissionControllerTest {
+
+    // Slow enough that the bucket never refills during a test
+    private static final double TRICKLE = 0.001;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tryAdmit_ShouldAdmitTheBurstThenQueueInArrivalOrder() {
+        CheckoutAdmissionController controller = new CheckoutAdmissionController(TRICKLE, 2, 10, 3, 20);
+
+        assertTrue(controller.tryAdmit("a", false).isAdmitted());
+        assertTrue(controller.tryAdmit("b", false).isAdmitted());
+
+        CheckoutAdmissionController.Decision c = controller.tryAdmit("c", false);
+        assertFalse(c.isAdmitted());
+        assertNotNull(c.getTicket());
+        assertEquals(0, c.getPosition());
+        assertEquals(1, controller.tryAdmit("d", false).getPosition());
+        assertEquals(2, controller.tryAdmit("e", false).getPosition());
+
+        // Polling again keeps the same ticket and place
+        CheckoutAdmissionController.Decision again = controller.tryAdmit("c", false);
+        assertEquals(c.getTicket(), again.getTicket());
+        assertEquals(0, again.getPosition());
+
+        // Queue full: no ticket, and told to come back once the queue has drained
+        CheckoutAdmissionController.Decision rejected = controller.tryAdmit("f", false);
+        assertFalse(rejected.isAdmitted());
+        assertNull(rejected.getTicket());
+        assertEquals(3000, rejected.getRetryAfterSeconds());
+    }
+
+    @Test
+    void tryAdmit_ShouldPutCheckoutsAndCartHoldersInThePriorityLane() {
+        CheckoutAdmissionController controller = new CheckoutAdmissionController(TRICKLE, 1, 10, 10, 20);
+        assertTrue(controller.tryAdmit("first", false).isAdmitted());
+
+        assertEquals(0, controller.tryAdmit("browser", false).getPosition());
+        assertEquals(0, controller.tryAdmit("buyer", true).getPosition());
+        assertEquals(1, controller.tryAdmit("browser", false).getPosition());
+
+        controller.markCartHolder("holder");
+        assertEquals(1, controller.tryAdmit("holder", false).getPosition());
+        assertEquals(2, controller.tryAdmit("browser", false).getPosition());
+
+        // Starting a checkout promotes a waiting browser behind the priority lane
+        assertEquals(2, controller.tryAdmit("browser", true).getPosition());
+    }
+
+    @Test
+    void tryAdmit_ShouldCapRequestsInFlight() {
+        CheckoutAdmissionController controller = new CheckoutAdmissionController(1000, 1000, 1, 10, 20);
+
+        assertTrue(controller.tryAdmit("a", false).isAdmitted());
+        CheckoutAdmissionController.Decision waiting = controller.tryAdmit("b", false);
+        assertFalse(waiting.isAdmitted());
+        assertEquals(0, waiting.getPosition());
+
+        controller.release();
+        assertTrue(controller.tryAdmit("b", false).isAdmitted());
+    }
+
+    @Test
+    void tryAdmit_ShouldDropTicketsThatStopPolling() throws Exception {
+        CheckoutAdmissionController controller = new CheckoutAdmissionController(TRICKLE, 1, 10, 10, 1);
+        assertTrue(controller.tryAdmit("a", false).isAdmitted());
+        assertEquals(0, controller.tryAdmit("gone", false).getPosition());
+        assertEquals(1, controller.tryAdmit("waiting", false).getPosition());
+
+        Thread.sleep(1100);
+
+        // Both expired; the first to come back heads the queue
+        assertEquals(0, controller.tryAdmit("waiting", false).getPosition());
+        assertEquals(1, controller.tryAdmit("gone", false).getPosition());
+    }
+
+    @Test
+    void filter_ShouldAnswer429WithRetryAfterAndTicket() throws Exception {
+        CheckoutAdmissionController controller = new CheckoutAdmissionController(TRICKLE, 1, 10, 10, 20);
+        ObjectMapper objectMapper = new ObjectMapper();
+        CheckoutAdmissionFilter filter = new CheckoutAdmissionFilter(controller, objectMapper);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("buyer@example.com", null, List.of()));
+
+        FilterChain admitted = mock(FilterChain.class);
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/orders"), new MockHttpServletResponse(), admitted);
+        verify(admitted).doFilter(any(), any());
+
+        FilterChain queued = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/orders"), response, queued);
+
+        verifyNoInteractions(queued);
+        assertEquals(429, response.getStatus());
+        assertEquals("1000", response.getHeader("Retry-After"));
+        assertNotNull(response.getHeader(CheckoutAdmissionFilter.TICKET_HEADER));
+        Map<?, ?> body = objectMapper.readValue(response.getContentAsString(), Map.class);
+        assertEquals(1, body.get("position"));
+        assertEquals(response.getHeader(CheckoutAdmissionFilter.TICKET_HEADER), body.get("ticket"));
+
+        // Browsing is never gated
+        FilterChain browsing = mock(FilterChain.class);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), new MockHttpServletResponse(), browsing);
+        verify(browsing).doFilter(any(), any());
+    }
+}
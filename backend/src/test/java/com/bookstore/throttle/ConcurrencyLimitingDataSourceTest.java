@@ -0,0 +1,64 @@
+package com.bookstore.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    @Test
+    void getConnection_ShouldWaitForAPermitAndFailFast_WhenLimitIsReached() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(pool, 1, 50);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getActive());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        verify(pooled).close();
+        assertEquals(0, dataSource.getActive());
+
+        // Closing twice released one permit only
+        Connection second = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        second.close();
+    }
+
+    @Test
+    void getConnection_ShouldCompareConnectionsByIdentity() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(pool, 2, 50);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        assertEquals(System.identityHashCode(first), first.hashCode());
+        // Both wrap the same pooled connection, yet are two checkouts
+        assertEquals(2, Set.of(first, second).size());
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void getConnection_ShouldReleasePermit_WhenPoolFails() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(pool, 1, 50);
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.getActive());
+    }
+}
@@ -0,0 +1,185 @@
+package com.bookstore.benchmarks;
+
+import com.bookstore.OnlineBookstoreApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The application in-process on an embedded H2 database (the "benchmark"
+ * profile), with a synthetic catalog written straight through JDBC batches.
+ * Generation is seeded, so every run and every commit sees the same rows,
+ * and ids are assigned here so suites can address rows without a lookup:
+ * users 1..USERS (user 1 is ADMIN, all with PASSWORD), categories
+ * 1..CATEGORIES, books 1..n.
+ * Books 1..HOT_BOOKS carry HOT_BOOK_REVIEWS reviews each; the rest 0-7.
+ */
+final class BenchmarkApplication {
+
+    static final int CATEGORIES = 20;
+    static final int USERS = 1_000;
+    static final int ORDERS_PER_USER = 20;
+    static final int HOT_BOOKS = 10;
+    static final int HOT_BOOK_REVIEWS = 500;
+    static final String PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final String USER_INSERT = "INSERT INTO users (id, email, password, first_name, last_name, "
+            + "enabled, token_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String BOOK_INSERT = "INSERT INTO books (id, title, author, description, isbn, price, "
+            + "cover_image_url, stock_quantity, category_id, rating_average, rating_count, rating_sum, "
+            + "rating_1, rating_2, rating_3, rating_4, rating_5, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String REVIEW_INSERT = "INSERT INTO reviews (id, user_id, book_id, rating, comment, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String ORDER_INSERT = "INSERT INTO orders (id, user_id, total_amount, status, "
+            + "payment_status, payment_provider, payment_reference, line1, line2, city, postcode, country, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ORDER_ITEM_INSERT = "INSERT INTO order_items (id, order_id, book_id, book_title, "
+            + "book_cover, unit_price, quantity, subtotal, order_created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] TITLE_WORDS = {"Silent", "River", "Atomic", "Garden", "Empire", "Night",
+            "Habits", "Shadow", "Quantum", "Letters", "Winter", "Machine", "Ocean", "Crown", "Mind", "Stone"};
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int books) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(OnlineBookstoreApplication.class)
+                .profiles("benchmark")
+                .run();
+        // One hash for every user: sign-in works, and seeding does not pay for a hash per row
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        seed(context.getBean(JdbcTemplate.class), passwordHash, books);
+        return context;
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+    }
+
+    static String email(long userId) {
+        return "reader" + userId + "@bench.example.com";
+    }
+
+    private static void seed(JdbcTemplate jdbc, String passwordHash, int books) {
+        Random random = new Random(42);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= CATEGORIES; id++) {
+            rows.add(new Object[]{id, "Category " + id, "category-" + id, "Synthetic category " + id,
+                    at(0), at(0)});
+        }
+        flush(jdbc, "INSERT INTO categories (id, name, slug, description, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        List<Object[]> roles = new ArrayList<>();
+        for (int id = 1; id <= USERS; id++) {
+            rows.add(new Object[]{id, email(id), passwordHash, "Reader", "No. " + id, true, 0, at(0), at(0)});
+            roles.add(new Object[]{id, id == 1 ? "ROLE_ADMIN" : "ROLE_CUSTOMER"});
+            if (rows.size() == BATCH_SIZE) {
+                flush(jdbc, USER_INSERT, rows);
+            }
+        }
+        flush(jdbc, USER_INSERT, rows);
+        flush(jdbc, "INSERT INTO user_roles (user_id, role) VALUES (?, ?)", roles);
+
+        BigDecimal[] prices = new BigDecimal[books + 1];
+        List<Object[]> reviews = new ArrayList<>();
+        long reviewId = 0;
+        for (int id = 1; id <= books; id++) {
+            prices[id] = BigDecimal.valueOf(299 + random.nextInt(9_700), 2);
+            int reviewCount = id <= HOT_BOOKS ? HOT_BOOK_REVIEWS : random.nextInt(8);
+            int[] histogram = new int[5];
+            long sum = 0;
+            for (int r = 0; r < reviewCount; r++) {
+                int rating = 1 + random.nextInt(5);
+                histogram[rating - 1]++;
+                sum += rating;
+                Timestamp created = at(random.nextInt(365 * 24));
+                reviews.add(new Object[]{++reviewId, 1 + (r % USERS), id, rating, "Synthetic review " + reviewId,
+                        created, created});
+            }
+            Timestamp created = at(random.nextInt(365 * 24));
+            rows.add(new Object[]{id, title(random) + " " + id, "Author " + random.nextInt(books / 4 + 1),
+                    "Synthetic description of book " + id, String.format("978%010d", id), prices[id],
+                    "https://covers.example.com/" + id + ".jpg", 20 + random.nextInt(200),
+                    1 + random.nextInt(CATEGORIES), reviewCount == 0 ? 0.0 : (double) sum / reviewCount,
+                    reviewCount, sum, histogram[0], histogram[1], histogram[2], histogram[3], histogram[4],
+                    created, created});
+            if (rows.size() == BATCH_SIZE) {
+                flush(jdbc, BOOK_INSERT, rows);
+                flush(jdbc, REVIEW_INSERT, reviews);
+            }
+        }
+        flush(jdbc, BOOK_INSERT, rows);
+        flush(jdbc, REVIEW_INSERT, reviews);
+
+        List<Object[]> items = new ArrayList<>();
+        long orderId = 0;
+        long itemId = 0;
+        for (int user = 1; user <= USERS; user++) {
+            for (int o = 0; o < ORDERS_PER_USER; o++) {
+                orderId++;
+                BigDecimal total = BigDecimal.ZERO;
+                int lines = 1 + random.nextInt(4);
+                int firstLine = items.size();
+                for (int l = 0; l < lines; l++) {
+                    int book = 1 + random.nextInt(books);
+                    int quantity = 1 + random.nextInt(3);
+                    BigDecimal subtotal = prices[book].multiply(BigDecimal.valueOf(quantity));
+                    total = total.add(subtotal);
+                    items.add(new Object[]{++itemId, orderId, book, "Book " + book,
+                            "https://covers.example.com/" + book + ".jpg", prices[book], quantity, subtotal, null});
+                }
+                Timestamp created = at(random.nextInt(365 * 24));
+                for (int l = firstLine; l < items.size(); l++) {
+                    items.get(l)[8] = created;
+                }
+                rows.add(new Object[]{orderId, user, total.setScale(2, RoundingMode.HALF_UP), "DELIVERED", "SUCCESS",
+                        "stripe", "pi_" + orderId, user + " Synthetic Street", null, "Leeds", "LS1 1AA", "UK",
+                        created, created});
+                if (rows.size() == BATCH_SIZE) {
+                    flush(jdbc, ORDER_INSERT, rows);
+                    flush(jdbc, ORDER_ITEM_INSERT, items);
+                }
+            }
+        }
+        flush(jdbc, ORDER_INSERT, rows);
+        flush(jdbc, ORDER_ITEM_INSERT, items);
+
+        // Rows the application inserts later must not collide with the ids taken here
+        jdbc.execute("ALTER TABLE categories ALTER COLUMN id RESTART WITH " + (CATEGORIES + 1));
+        jdbc.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (USERS + 1));
+        jdbc.execute("ALTER SEQUENCE books_id_seq RESTART WITH " + (books + 1));
+        jdbc.execute("ALTER SEQUENCE reviews_id_seq RESTART WITH " + (reviewId + 1));
+        jdbc.execute("ALTER SEQUENCE orders_id_seq RESTART WITH " + (orderId + 1));
+        jdbc.execute("ALTER SEQUENCE order_items_id_seq RESTART WITH " + (itemId + 1));
+    }
+
+    private static String title(Random random) {
+        return TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " " + TITLE_WORDS[random.nextInt(TITLE_WORDS.length)];
+    }
+
+    private static Timestamp at(int hoursAfterEpoch) {
+        return Timestamp.valueOf(EPOCH.plusHours(hoursAfterEpoch));
+    }
+
+    private static void flush(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
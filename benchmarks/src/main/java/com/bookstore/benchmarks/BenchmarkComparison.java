@@ -0,0 +1,84 @@
+package com.bookstore.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, benchmark by benchmark (and parameter
+ * set), and exits with status 1 if any got worse by more than --threshold
+ * percent (default 10) and by more than both runs' error margins together.
+ * Throughput scores are better higher; every other mode is a time, better lower.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.bookstore.benchmarks.BenchmarkComparison \
+ *   benchmarks/results/1a2b3c4.json benchmarks/results/5d6e7f8.json --threshold 10
+ */
+public class BenchmarkComparison {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json> [--threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length >= 4 && args[2].equals("--threshold") ? Double.parseDouble(args[3]) : 10;
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> candidate = read(new File(args[1]));
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", after.value, "new", after.unit);
+                continue;
+            }
+            double change = (after.value - before.value) / before.value * 100;
+            double worse = after.higherIsBetter ? -change : change;
+            boolean beyondNoise = Math.abs(after.value - before.value) > before.error + after.error;
+            boolean regressed = worse > threshold && beyondNoise;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.value, after.value,
+                    change, after.unit, regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!candidate.containsKey(missing)) {
+                System.out.printf("%-70s %14s%n", missing, "not in candidate");
+            }
+        }
+
+        System.out.printf("%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : JSON.readTree(file)) {
+            String name = run.path("benchmark").asText().replaceFirst("^com\\.bookstore\\.", "");
+            Map<String, String> params = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = run.path("params").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            String key = name + (params.isEmpty() ? "" : " " + params) + " [" + run.path("mode").asText() + "]";
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key, new Score(metric.path("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText(), run.path("mode").asText().equals("thrpt")));
+        }
+        return scores;
+    }
+
+    private record Score(double value, double error, String unit, boolean higherIsBetter) {
+    }
+}
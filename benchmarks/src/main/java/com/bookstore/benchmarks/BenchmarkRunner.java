@@ -0,0 +1,60 @@
+package com.bookstore.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point of benchmarks.jar: JMH with its usual options, except that
+ * unless -rf/-rff are given, results are written as JSON named after the
+ * commit under test (benchmarks/results/<commit>.json, "-dirty" for
+ * uncommitted changes), ready for BenchmarkComparison.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers()
+                || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResult().hasValue() && !cli.getResultFormat().hasValue()) {
+            Path directory = Files.isDirectory(Path.of("benchmarks")) ? Path.of("benchmarks", "results")
+                    : Path.of("results");
+            Files.createDirectories(directory);
+            Path file = directory.resolve(commit() + ".json");
+            options.resultFormat(ResultFormatType.JSON).result(file.toString());
+            System.out.println("Results: " + file);
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String commit() {
+        try {
+            Process git = new ProcessBuilder("git", "describe", "--always", "--dirty").start();
+            try (InputStream out = git.getInputStream()) {
+                String commit = new String(out.readAllBytes(), StandardCharsets.UTF_8).trim();
+                if (git.waitFor() == 0 && !commit.isEmpty()) {
+                    return commit;
+                }
+            }
+        } catch (IOException e) {
+            // Not a checkout, or no git
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local-" + System.currentTimeMillis();
+    }
+}
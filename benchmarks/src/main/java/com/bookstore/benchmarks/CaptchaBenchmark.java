@@ -0,0 +1,51 @@
+package com.bookstore.benchmarks;
+
+import com.bookstore.dto.CaptchaResponse;
+import com.bookstore.service.CaptchaService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Captcha issue and check with several threads sharing one CaptchaService,
+ * as request threads do: they contend on the SecureRandom behind nonces and
+ * on the replay set. Each check consumes a fresh captcha, so the replay set
+ * grows at the benchmark's rate; a short TTL keeps it to a few seconds' worth.
+ *
+ * - generate: GET /api/auth/captcha
+ * - generateAndValidate: a captcha issued and then answered, as on sign-up
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CaptchaBenchmark {
+
+    private CaptchaService captchaService;
+
+    @Setup
+    public void setUp() {
+        captchaService = new CaptchaService("", "benchmark-secret", 2, 2, 5_000_000);
+    }
+
+    @Benchmark
+    public CaptchaResponse generate() {
+        return captchaService.generateCaptcha();
+    }
+
+    @Benchmark
+    public boolean generateAndValidate() {
+        CaptchaResponse captcha = captchaService.generateCaptcha();
+        return captchaService.validateCaptcha(captcha.getId(), answer(captcha.getQuestion()));
+    }
+
+    // "3 + 4 = ?" or "9 - 2 = ?"
+    private static String answer(String question) {
+        int left = question.charAt(0) - '0';
+        int right = question.charAt(4) - '0';
+        return Integer.toString(question.charAt(2) == '+' ? left + right : left - right);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bookstore.benchmarks;
+
+import com.bookstore.dto.CartDto;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Cart;
+import com.bookstore.entity.CartItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CartDto.from, which every cart endpoint ends with: per-item BigDecimal
+ * subtotals and their sum.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartMappingBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int items;
+
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        cart = Cart.builder().id(1L).build();
+        for (long id = 1; id <= items; id++) {
+            Book book = Book.builder().id(id).title("Book " + id)
+                    .coverImageUrl("https://covers.example.com/" + id + ".jpg")
+                    .price(BigDecimal.valueOf(499 + id * 37, 2)).build();
+            cart.getItems().add(CartItem.builder().id(id).cart(cart).book(book).quantity(1 + (int) (id % 3)).build());
+        }
+    }
+
+    @Benchmark
+    public CartDto from() {
+        return CartDto.from(cart);
+    }
+}
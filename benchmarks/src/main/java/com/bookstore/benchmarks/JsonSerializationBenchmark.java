@@ -0,0 +1,108 @@
+package com.bookstore.benchmarks;
+
+import com.bookstore.dto.BookDto;
+import com.bookstore.dto.OrderDto;
+import com.bookstore.entity.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies written by Jackson, configured as Spring Boot configures it
+ * for the application (ISO dates). The DTO cases are what the endpoints send;
+ * the entity cases are the bodies they sent before controllers returned DTOs.
+ *
+ * - bookPage: a page of pageSize books, as GET /api/books returns it
+ * - order: an order with itemCount items, as GET /api/orders/{id} returns it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    @Param({"3"})
+    public int itemCount;
+
+    private ObjectMapper mapper;
+    private Page<Book> bookEntities;
+    private Page<BookDto> bookDtos;
+    private Order orderEntity;
+    private OrderDto orderDto;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+        Category category = Category.builder().id(3L).name("Science").slug("science")
+                .description("Exploration of the natural and physical world").createdAt(now).updatedAt(now).build();
+        List<Book> books = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            books.add(Book.builder().id(id).title("A Brief History of Time, volume " + id)
+                    .author("Stephen Hawking").description("From the Big Bang to black holes. ".repeat(8))
+                    .isbn("9780553380163").price(new BigDecimal("14.99"))
+                    .coverImageUrl("https://books.google.com/books/content?id=" + id + "&printsec=frontcover")
+                    .stockQuantity(42).category(category).ratingAverage(4.4).ratingCount(1250)
+                    .createdAt(now).updatedAt(now).build());
+        }
+        PageRequest page = PageRequest.of(0, pageSize);
+        bookEntities = new PageImpl<>(books, page, 100_000);
+        bookDtos = bookEntities.map(BookDto::from);
+
+        User user = User.builder().id(7L).email("reader@example.com").password("$2a$10$" + "x".repeat(53))
+                .firstName("Ada").lastName("Reader").roles(Set.of(Role.ROLE_CUSTOMER)).createdAt(now)
+                .updatedAt(now).build();
+        orderEntity = Order.builder().id(1001L).user(user).totalAmount(new BigDecimal("44.97"))
+                .status(OrderStatus.SHIPPED).paymentStatus(PaymentStatus.SUCCESS).paymentProvider("stripe")
+                .paymentReference("pi_3OqXyZ2eZvKYlo2C0a1b2c3d")
+                .shippingAddress(new Address("221B Baker Street", "Flat 2", "London", "NW1 6XE", "UK"))
+                .createdAt(now).updatedAt(now).build();
+        for (long id = 1; id <= itemCount; id++) {
+            orderEntity.getOrderItems().add(OrderItem.builder().id(id).order(orderEntity).bookId(id)
+                    .bookTitle("A Brief History of Time, volume " + id)
+                    .bookCover("https://books.google.com/books/content?id=" + id + "&printsec=frontcover")
+                    .unitPrice(new BigDecimal("14.99")).quantity(1).subtotal(new BigDecimal("14.99")).build());
+        }
+        orderDto = OrderDto.from(orderEntity);
+    }
+
+    @Benchmark
+    public byte[] bookPage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(bookDtos);
+    }
+
+    @Benchmark
+    public byte[] bookPageEntities() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(bookEntities);
+    }
+
+    @Benchmark
+    public byte[] order() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(orderDto);
+    }
+
+    @Benchmark
+    public byte[] orderEntity() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(orderEntity);
+    }
+}
@@ -0,0 +1,70 @@
+package com.bookstore.benchmarks;
+
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request's JWT.
+ *
+ * - legacyTripleParse: what JwtUtils used to do per request - decode the secret
+ *   and build a parser for every parse, and parse + verify the token three times
+ * - singleParse: cached key and parser, one parse (verified-token cache off)
+ * - verifiedCache: repeated token served from the digest-keyed cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int EXPIRATION_MS = 30 * 60 * 1000;
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtils(SECRET, EXPIRATION_MS, 0);
+        cached = new JwtUtils(SECRET, EXPIRATION_MS, 10_000);
+        token = cached.generateToken(new UserPrincipal(42L, "reader@example.com", null, 3,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")), true, null));
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String subject = legacyClaims(token).getSubject();
+        String validated = legacyClaims(token).getSubject();
+        Date expiration = legacyClaims(token).getExpiration();
+        return subject.equals(validated) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public UserPrincipal singleParse() {
+        return uncached.getPrincipalFromJwtToken(token);
+    }
+
+    @Benchmark
+    public UserPrincipal verifiedCache() {
+        return cached.getPrincipalFromJwtToken(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
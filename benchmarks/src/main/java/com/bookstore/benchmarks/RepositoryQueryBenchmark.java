@@ -0,0 +1,99 @@
+package com.bookstore.benchmarks;
+
+import com.bookstore.dto.BookDto;
+import com.bookstore.dto.OrderDto;
+import com.bookstore.dto.ReviewDto;
+import com.bookstore.service.BookService;
+import com.bookstore.service.OrderService;
+import com.bookstore.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queries behind the busiest read endpoints, against the synthetic
+ * catalog on H2. Calls go through the services, so each includes its
+ * read-only transaction and the mapping to DTOs, as a request would.
+ *
+ * - browse*: GET /api/books, first page by newest, unfiltered and filtered
+ * - bookById: GET /api/books/{id}, a random book
+ * - reviewsOfPopularBook: GET /api/reviews/book/{id} for a book with many reviews
+ * - userOrders: GET /api/orders, first page for a random user
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RepositoryQueryBenchmark {
+
+    private static final Pageable NEWEST = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    @Param("100000")
+    public int books;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private ReviewService reviewService;
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(books);
+        bookService = context.getBean(BookService.class);
+        reviewService = context.getBean(ReviewService.class);
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BookDto> browseAll() {
+        return bookService.getAllBooks(null, null, null, null, NEWEST);
+    }
+
+    @Benchmark
+    public Page<BookDto> browseByCategory() {
+        long category = 1 + ThreadLocalRandom.current().nextInt(BenchmarkApplication.CATEGORIES);
+        return bookService.getAllBooks(category, null, null, null, NEWEST);
+    }
+
+    @Benchmark
+    public Page<BookDto> browseByPriceRange() {
+        return bookService.getAllBooks(null, BigDecimal.valueOf(10), BigDecimal.valueOf(20), null, NEWEST);
+    }
+
+    @Benchmark
+    public Page<BookDto> browseBySearch() {
+        return bookService.getAllBooks(null, null, null, "quantum", NEWEST);
+    }
+
+    @Benchmark
+    public BookDto bookById() {
+        return bookService.getBookById(1L + ThreadLocalRandom.current().nextInt(books));
+    }
+
+    @Benchmark
+    public Page<ReviewDto> reviewsOfPopularBook() {
+        long book = 1 + ThreadLocalRandom.current().nextInt(BenchmarkApplication.HOT_BOOKS);
+        return reviewService.getReviewsByBook(book, NEWEST);
+    }
+
+    @Benchmark
+    public Slice<OrderDto> userOrders() {
+        long user = 1 + ThreadLocalRandom.current().nextInt(BenchmarkApplication.USERS);
+        return orderService.getUserOrders(BenchmarkApplication.email(user), NEWEST);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bookstore.benchmarks;
+
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One request through Spring Security's filter chain, with the application's
+ * own filters (JWT, rate limit, checkout admission) in place; the controller
+ * behind it is a no-op.
+ *
+ * - anonymousCatalog: GET /api/books, permitted without a token
+ * - bearerToken: GET /api/orders with a valid access token
+ * - missingToken: GET /api/orders without one, answered 401
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterChainBenchmark {
+
+    private static final FilterChain CONTROLLER = (request, response) -> { };
+
+    private ConfigurableApplicationContext context;
+    private FilterChainProxy filterChain;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(1_000);
+        filterChain = context.getBean("springSecurityFilterChain", FilterChainProxy.class);
+        UserPrincipal user = UserPrincipal.from(context.getBean(UserRepository.class).findById(2L).orElseThrow());
+        authorization = "Bearer " + context.getBean(JwtUtils.class).generateToken(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int anonymousCatalog() throws ServletException, IOException {
+        return filter(request("/api/books"));
+    }
+
+    @Benchmark
+    public int bearerToken() throws ServletException, IOException {
+        MockHttpServletRequest request = request("/api/orders");
+        request.addHeader("Authorization", authorization);
+        return filter(request);
+    }
+
+    @Benchmark
+    public int missingToken() throws ServletException, IOException {
+        return filter(request("/api/orders"));
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setRemoteAddr("203.0.113.7");
+        return request;
+    }
+
+    private int filter(MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterChain.doFilter(request, response, CONTROLLER);
+        return response.getStatus();
+    }
+}
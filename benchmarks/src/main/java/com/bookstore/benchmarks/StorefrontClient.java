@@ -0,0 +1,138 @@
+package com.bookstore.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP plumbing shared by the load tests: timed requests, JSON setup calls,
+ * captcha solving and signing in load-test accounts.
+ */
+class StorefrontClient {
+
+    private static final Pattern QUESTION = Pattern.compile("(\\d+) ([+-]) (\\d+) = \\?");
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    StorefrontClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    /** Sends a request, discarding the body, and returns the status code. */
+    int send(HttpRequest.Builder request, String token) throws IOException, InterruptedException {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    /** Sends a request and returns the response with its body. */
+    HttpResponse<String> exchange(HttpRequest.Builder request, String token) throws IOException, InterruptedException {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Ids of up to max books, newest first. */
+    List<Long> bookIds(int max) throws Exception {
+        JsonNode page = call("GET", "/books?size=" + max, null, null);
+        List<Long> ids = new ArrayList<>();
+        if (page != null) {
+            page.path("content").forEach(book -> ids.add(book.path("id").asLong()));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("The catalog is empty");
+        }
+        return ids;
+    }
+
+    /** Registers load-N@example.com accounts (existing ones are reused) and signs each in. */
+    List<Account> register(int users) throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String email = "load-" + i + "@example.com";
+            call("POST", "/auth/register", withCaptcha(Map.of("firstName", "Load", "lastName", "Test",
+                    "email", email, "password", "password1", "confirmPassword", "password1")), null);
+            String token = login(email, "password1");
+            if (token != null) {
+                accounts.add(new Account(email, "password1", token));
+            }
+        }
+        return accounts;
+    }
+
+    /** Access token for the account, or null if sign-in failed. */
+    String login(String email, String password) throws Exception {
+        JsonNode login = call("POST", "/auth/login", withCaptcha(Map.of("email", email, "password", password)), null);
+        return login != null && login.hasNonNull("token") ? login.get("token").asText() : null;
+    }
+
+    Map<String, Object> withCaptcha(Map<String, Object> body) throws Exception {
+        JsonNode captcha = call("GET", "/auth/captcha", null, null);
+        if (captcha == null) {
+            throw new IllegalStateException("No captcha");
+        }
+        Map<String, Object> withCaptcha = new HashMap<>(body);
+        withCaptcha.put("captchaId", captcha.path("id").asText());
+        withCaptcha.put("captchaAnswer", answer(captcha.path("question").asText()));
+        return withCaptcha;
+    }
+
+    static String answer(String question) {
+        Matcher matcher = QUESTION.matcher(question);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Unexpected captcha " + question);
+        }
+        int a = Integer.parseInt(matcher.group(1));
+        int b = Integer.parseInt(matcher.group(3));
+        return String.valueOf(matcher.group(2).equals("+") ? a + b : a - b);
+    }
+
+    // Setup calls; returns null for non-JSON or failed responses
+    JsonNode call(String method, String path, Object body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300 || !(response.body().startsWith("{") || response.body().startsWith("["))) {
+            return null;
+        }
+        return JSON.readTree(response.body());
+    }
+
+    record Account(String email, String password, String token) {
+    }
+}
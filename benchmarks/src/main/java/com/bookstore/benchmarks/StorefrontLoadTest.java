@@ -0,0 +1,458 @@
+package com.bookstore.benchmarks;
+
+import com.bookstore.repository.UserRepository;
+import com.bookstore.security.JwtUtils;
+import com.bookstore.security.UserPrincipal;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+/**
+ * Open-model load with the storefront's traffic mix. Shopping sessions
+ * arrive at --rate per second (Poisson arrivals, or evenly spaced with
+ * --arrivals uniform) whether or not earlier ones have finished, as real
+ * visitors do; each plays one scenario, its requests back to back:
+ *
+ * - browse: GET /books with a random page and, sometimes, a category, price range or search
+ * - view: GET /books/{id}, then GET /books/{id}/reviews/summary
+ * - cart: POST /cart/items
+ * - checkout: POST /cart/items, then POST /orders
+ * - login: GET /auth/captcha, then POST /auth/login
+ *
+ * --mix sets the weights (default browse=50,view=30,cart=10,checkout=5,login=5).
+ * A session's first request is timed from when it was due to arrive, not
+ * from when it was sent, so a backend that falls behind shows in the
+ * latencies instead of slowing the load down. Latencies go to an
+ * HdrHistogram per endpoint.
+ *
+ * Without --base-url the application is started in-process on H2 (the
+ * benchmark profile) with a synthetic catalog of --books books, and sessions
+ * use its seeded users. With --base-url it drives a running backend (e.g. on
+ * PostgreSQL) and registers --users load-test accounts there; run that
+ * backend with RATE_LIMIT_ENABLED=false and CHECKOUT_ADMISSION_ENABLED=false.
+ *
+ * At the end, results are checked against the service level objectives in
+ * --slo (default: storefront-slo.properties on the classpath) and, with
+ * --baseline, against the p99s of an earlier run's --report. The process
+ * exits with status 1 if any check fails.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.bookstore.benchmarks.StorefrontLoadTest \
+ *   --rate 100 --duration 60 --report storefront.json
+ */
+public class StorefrontLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] SEARCH_TERMS = {"silent", "river", "atomic", "habits", "ocean", "mind"};
+    private static final String SHIPPING_ADDRESS = "{\"shippingAddress\":{\"line1\":\"1 Load St\","
+            + "\"city\":\"Leeds\",\"postcode\":\"LS1 1AA\",\"country\":\"UK\"},\"paymentProvider\":\"stripe\"}";
+
+    enum Endpoint {
+        BOOKS("books.list", "GET /books"),
+        BOOK("books.get", "GET /books/{id}"),
+        REVIEW_SUMMARY("reviews.summary", "GET /books/{id}/reviews/summary"),
+        CART_ADD("cart.add", "POST /cart/items"),
+        ORDER("orders.place", "POST /orders"),
+        CAPTCHA("auth.captcha", "GET /auth/captcha"),
+        LOGIN("auth.login", "POST /auth/login");
+
+        final String key;
+        final String label;
+
+        Endpoint(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    enum Scenario {
+        BROWSE, VIEW, CART, CHECKOUT, LOGIN
+    }
+
+    private final StorefrontClient client;
+    private final List<Long> bookIds;
+    private final List<Long> categoryIds;
+    private final List<StorefrontClient.Account> accounts;
+    private final Scenario[] scenarios;
+    private final double[] cumulativeWeights;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    // Replaced on reset, so warmup sessions that finish late are not counted
+    private volatile LongAdder completed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    StorefrontLoadTest(StorefrontClient client, List<Long> bookIds, List<Long> categoryIds,
+            List<StorefrontClient.Account> accounts, Map<Scenario, Double> mix) {
+        this.client = client;
+        this.bookIds = bookIds;
+        this.categoryIds = categoryIds;
+        this.accounts = accounts;
+        this.scenarios = mix.keySet().toArray(new Scenario[0]);
+        this.cumulativeWeights = new double[scenarios.length];
+        double total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += mix.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "15"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "500"));
+        boolean poisson = !options.getOrDefault("arrivals", "poisson").equals("uniform");
+        Map<Scenario, Double> mix = mix(options.getOrDefault("mix", "browse=50,view=30,cart=10,checkout=5,login=5"));
+
+        ConfigurableApplicationContext context = null;
+        StorefrontLoadTest test;
+        if (options.containsKey("base-url")) {
+            StorefrontClient client = new StorefrontClient(options.get("base-url"));
+            List<Long> categoryIds = new ArrayList<>();
+            JsonNode categories = client.call("GET", "/categories", null, null);
+            if (categories != null) {
+                categories.forEach(category -> categoryIds.add(category.path("id").asLong()));
+            }
+            test = new StorefrontLoadTest(client, client.bookIds(1000), categoryIds,
+                    client.register(Integer.parseInt(options.getOrDefault("users", "50"))), mix);
+        } else {
+            int books = Integer.parseInt(options.getOrDefault("books", "20000"));
+            context = BenchmarkApplication.start(books);
+            test = new StorefrontLoadTest(new StorefrontClient(BenchmarkApplication.baseUrl(context)),
+                    LongStream.rangeClosed(1, books).boxed().toList(),
+                    LongStream.rangeClosed(1, BenchmarkApplication.CATEGORIES).boxed().toList(),
+                    seededAccounts(context, Integer.parseInt(options.getOrDefault("users", "500"))), mix);
+        }
+        System.out.printf("%.1f sessions/s (%s), %d books, %d users, %ds warmup + %ds, mix %s%n", rate,
+                poisson ? "poisson" : "uniform", test.bookIds.size(), test.accounts.size(), warmupSeconds,
+                durationSeconds, mix);
+
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "storefront-session");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        test.run(executor, inFlight, rate, poisson, warmupSeconds);
+        test.reset();
+        long started = test.run(executor, inFlight, rate, poisson, durationSeconds);
+        // Sessions still running finish into the results
+        boolean drained = inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdownNow();
+
+        ObjectNode report = test.report(rate, durationSeconds, elapsedSeconds);
+        if (!drained) {
+            System.out.println("Sessions still running after 30 s were left out");
+        }
+        if (options.containsKey("report")) {
+            JSON.writerWithDefaultPrettyPrinter().writeValue(new File(options.get("report")), report);
+        }
+        boolean passed = test.checkSlo(report, slo(options.get("slo")));
+        if (options.containsKey("baseline")) {
+            passed &= test.checkBaseline(report, JSON.readTree(new File(options.get("baseline"))),
+                    Double.parseDouble(options.getOrDefault("tolerance", "20")));
+        }
+        if (context != null) {
+            context.close();
+        }
+        System.out.println(passed ? "PASSED" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+
+    // Schedules sessions for the given time and returns when it started
+    private long run(ExecutorService executor, Semaphore inFlight, double rate, boolean poisson, int seconds) {
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        double intervalNanos = 1e9 / rate;
+        Random random = new Random();
+        long due = start;
+        while (due < end) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            long arrival = due;
+            LongAdder completions = completed;
+            Scenario scenario = pick(random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1]);
+            if (inFlight.tryAcquire()) {
+                executor.execute(() -> {
+                    try {
+                        play(scenario, arrival);
+                        completions.increment();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } else {
+                dropped.increment();
+            }
+            due += poisson ? (long) (-Math.log(1 - random.nextDouble()) * intervalNanos) : (long) intervalNanos;
+        }
+        return start;
+    }
+
+    private Scenario pick(double point) {
+        for (int i = 0; i < scenarios.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private void play(Scenario scenario, long arrival) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StorefrontClient.Account account = accounts.get(random.nextInt(accounts.size()));
+        long bookId = bookIds.get(random.nextInt(bookIds.size()));
+        String addToCart = "{\"bookId\":" + bookId + ",\"quantity\":1}";
+        switch (scenario) {
+            case BROWSE -> timed(Endpoint.BOOKS, arrival, client.get(browsePath(random)), null);
+            case VIEW -> {
+                if (timed(Endpoint.BOOK, arrival, client.get("/books/" + bookId), null) != null) {
+                    timed(Endpoint.REVIEW_SUMMARY, System.nanoTime(),
+                            client.get("/books/" + bookId + "/reviews/summary"), account.token());
+                }
+            }
+            case CART -> timed(Endpoint.CART_ADD, arrival, client.post("/cart/items", addToCart), account.token());
+            case CHECKOUT -> {
+                if (timed(Endpoint.CART_ADD, arrival, client.post("/cart/items", addToCart), account.token()) != null) {
+                    timed(Endpoint.ORDER, System.nanoTime(), client.post("/orders", SHIPPING_ADDRESS), account.token());
+                }
+            }
+            case LOGIN -> {
+                HttpResponse<String> captcha = timed(Endpoint.CAPTCHA, arrival, client.get("/auth/captcha"), null);
+                if (captcha != null) {
+                    timed(Endpoint.LOGIN, System.nanoTime(), client.post("/auth/login", login(account, captcha)), null);
+                }
+            }
+        }
+    }
+
+    private String browsePath(ThreadLocalRandom random) {
+        StringBuilder path = new StringBuilder("/books?size=12&page=").append(random.nextInt(5));
+        int filter = random.nextInt(10);
+        if (filter < 3 && !categoryIds.isEmpty()) {
+            path.append("&categoryId=").append(categoryIds.get(random.nextInt(categoryIds.size())));
+        } else if (filter < 5) {
+            int min = 5 * random.nextInt(10);
+            path.append("&minPrice=").append(min).append("&maxPrice=").append(min + 15);
+        } else if (filter < 6) {
+            path.append("&search=").append(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+        }
+        return path.toString();
+    }
+
+    private static String login(StorefrontClient.Account account, HttpResponse<String> captcha) {
+        try {
+            JsonNode question = JSON.readTree(captcha.body());
+            ObjectNode body = JSON.createObjectNode()
+                    .put("email", account.email())
+                    .put("password", account.password())
+                    .put("captchaId", question.path("id").asText())
+                    .put("captchaAnswer", StorefrontClient.answer(question.path("question").asText()));
+            return JSON.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Records the request from startNanos; returns the response if it succeeded
+    private HttpResponse<String> timed(Endpoint endpoint, long startNanos, HttpRequest.Builder request, String token) {
+        HttpResponse<String> response = null;
+        try {
+            response = client.exchange(request, token);
+        } catch (IOException e) {
+            // Counted as an error below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        boolean ok = response != null && response.statusCode() < 400;
+        stats.get(endpoint).record(System.nanoTime() - startNanos, ok);
+        return ok ? response : null;
+    }
+
+    private void reset() {
+        stats.values().forEach(EndpointStats::reset);
+        completed = new LongAdder();
+        dropped.reset();
+    }
+
+    private ObjectNode report(double rate, int durationSeconds, double elapsedSeconds) {
+        ObjectNode report = JSON.createObjectNode();
+        ObjectNode endpoints = report.putObject("endpoints");
+        long requests = 0;
+        long errors = 0;
+        System.out.printf("%-34s %9s %9s %8s %8s %8s %8s %8s %8s%n", "endpoint", "requests", "req/s", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latencies.getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            long failed = entry.getValue().errors.sum();
+            if (count == 0) {
+                continue;
+            }
+            requests += count;
+            errors += failed;
+            ObjectNode node = endpoints.putObject(entry.getKey().key)
+                    .put("requests", count)
+                    .put("errors", failed)
+                    .put("p50", millis(histogram, 50))
+                    .put("p90", millis(histogram, 90))
+                    .put("p99", millis(histogram, 99))
+                    .put("p999", millis(histogram, 99.9))
+                    .put("max", histogram.getMaxValue() / 1000.0);
+            System.out.printf("%-34s %9d %9.1f %8d %8.1f %8.1f %8.1f %8.1f %8.1f%n", entry.getKey().label, count,
+                    count / elapsedSeconds, failed, node.get("p50").asDouble(), node.get("p90").asDouble(),
+                    node.get("p99").asDouble(), node.get("p999").asDouble(), node.get("max").asDouble());
+        }
+
+        report.put("targetRate", rate)
+                .put("achievedRate", completed.sum() / (double) durationSeconds)
+                .put("dropped", dropped.sum())
+                .put("requests", requests)
+                .put("errorRate", requests == 0 ? 0 : errors / (double) requests);
+        System.out.printf("sessions: %.1f/s of %.1f/s target, %d dropped at the in-flight cap; %d requests, "
+                        + "%.1f req/s, %.2f%% errors%n", report.get("achievedRate").asDouble(), rate, dropped.sum(),
+                requests, requests / elapsedSeconds, report.get("errorRate").asDouble() * 100);
+        return report;
+    }
+
+    private boolean checkSlo(ObjectNode report, Properties slo) {
+        boolean passed = true;
+        for (String key : new TreeSet<>(slo.stringPropertyNames())) {
+            double limit = Double.parseDouble(slo.getProperty(key).trim());
+            double actual;
+            boolean atLeast = false;
+            if (key.equals("error-rate")) {
+                actual = report.get("errorRate").asDouble();
+            } else if (key.equals("throughput")) {
+                actual = report.get("achievedRate").asDouble() / report.get("targetRate").asDouble();
+                atLeast = true;
+            } else {
+                int dot = key.lastIndexOf('.');
+                JsonNode endpoint = report.path("endpoints").path(key.substring(0, dot));
+                if (endpoint.isMissingNode()) {
+                    continue;
+                }
+                String metric = key.substring(dot + 1);
+                actual = metric.equals("errors") ? endpoint.get("errors").asDouble() / endpoint.get("requests").asDouble()
+                        : endpoint.path(metric).asDouble();
+            }
+            boolean met = atLeast ? actual >= limit : actual <= limit;
+            passed &= met;
+            System.out.printf("SLO %-4s %-24s %10.3f %s %.3f%n", met ? "ok" : "MISS", key, actual,
+                    atLeast ? ">=" : "<=", limit);
+        }
+        return passed;
+    }
+
+    private boolean checkBaseline(ObjectNode report, JsonNode baseline, double tolerancePercent) {
+        boolean passed = true;
+        for (Iterator<Map.Entry<String, JsonNode>> it = report.path("endpoints").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> endpoint = it.next();
+            JsonNode before = baseline.path("endpoints").path(endpoint.getKey());
+            if (before.isMissingNode()) {
+                continue;
+            }
+            double limit = before.get("p99").asDouble() * (1 + tolerancePercent / 100);
+            double actual = endpoint.getValue().get("p99").asDouble();
+            boolean met = actual <= limit;
+            passed &= met;
+            System.out.printf("baseline %-4s %-18s p99 %10.1f ms (was %.1f ms)%n", met ? "ok" : "MISS",
+                    endpoint.getKey(), actual, before.get("p99").asDouble());
+        }
+        return passed;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    // In-process users 1..USERS share a password; user 1 is the admin and is left out
+    private static List<StorefrontClient.Account> seededAccounts(ConfigurableApplicationContext context, int users) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JwtUtils jwtUtils = context.getBean(JwtUtils.class);
+        List<StorefrontClient.Account> accounts = new ArrayList<>();
+        for (long id = 2; id <= Math.min(users + 1, BenchmarkApplication.USERS); id++) {
+            UserPrincipal user = UserPrincipal.from(userRepository.findById(id).orElseThrow());
+            accounts.add(new StorefrontClient.Account(user.getUsername(), BenchmarkApplication.PASSWORD,
+                    jwtUtils.generateToken(user)));
+        }
+        return accounts;
+    }
+
+    private static Properties slo(String path) throws IOException {
+        Properties slo = new Properties();
+        if (path != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(path))) {
+                slo.load(reader);
+            }
+        } else {
+            try (InputStream in = StorefrontLoadTest.class.getResourceAsStream("/storefront-slo.properties")) {
+                slo.load(in);
+            }
+        }
+        return slo;
+    }
+
+    private static Map<Scenario, Double> mix(String spec) {
+        Map<Scenario, Double> mix = new EnumMap<>(Scenario.class);
+        for (String part : spec.split(",")) {
+            String[] weight = part.split("=");
+            mix.put(Scenario.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Double.parseDouble(weight[1]));
+        }
+        return mix;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    // Latencies in microseconds; failed requests are timed too, and counted
+    private static class EndpointStats {
+        private final Recorder latencies = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, boolean ok) {
+            latencies.recordValue(Math.max(1, nanos / 1000));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        void reset() {
+            latencies.reset();
+            errors.reset();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.bookstore.benchmarks;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load against a running backend, for comparing platform and
+ * virtual request threads (start the backend once with VIRTUAL_THREADS=false
+ * and once with VIRTUAL_THREADS=true on Java 21, same flags otherwise).
+ *
+ * Each of --concurrency clients repeats one scenario back to back: catalog
+ * clients page through GET /books, checkout clients (--checkout-share of
+ * them) add a book to their cart and place an order. Checkout clients sign
+ * in as --users load-test accounts, registered on first use. Run the backend
+ * with RATE_LIMIT_ENABLED=false and CHECKOUT_ADMISSION_ENABLED=false so the
+ * limits do not mask the thread model.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.bookstore.benchmarks.ThreadModelLoadTest \
+ *   --base-url http://localhost:8081/api --concurrency 400 --duration 60
+ */
+public class ThreadModelLoadTest {
+
+    private final StorefrontClient client;
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    ThreadModelLoadTest(String baseUrl) {
+        this.client = new StorefrontClient(baseUrl);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8081/api");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int users = Integer.parseInt(options.getOrDefault("users", "20"));
+        double checkoutShare = Double.parseDouble(options.getOrDefault("checkout-share", "0.1"));
+
+        ThreadModelLoadTest test = new ThreadModelLoadTest(baseUrl);
+        List<Long> bookIds = test.client.bookIds(100);
+        List<String> tokens = test.client.register(users).stream().map(StorefrontClient.Account::token).toList();
+        int checkoutClients = (int) Math.round(concurrency * checkoutShare);
+        System.out.printf("%d clients (%d checkout), %d books, %d users, %ds warmup + %ds%n",
+                concurrency, checkoutClients, bookIds.size(), tokens.size(), warmupSeconds, durationSeconds);
+
+        test.run(concurrency, checkoutClients, bookIds, tokens, warmupSeconds);
+        test.recorders.clear();
+        long elapsedNanos = test.run(concurrency, checkoutClients, bookIds, tokens, durationSeconds);
+        test.report(elapsedNanos);
+    }
+
+    private long run(int concurrency, int checkoutClients, List<Long> bookIds, List<String> tokens, int seconds)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + Duration.ofSeconds(seconds).toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            boolean checkout = i < checkoutClients && !tokens.isEmpty();
+            String token = checkout ? tokens.get(i % tokens.size()) : null;
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        if (checkout) {
+                            checkout(token, bookIds);
+                        } else {
+                            browse();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        return System.nanoTime() - start;
+    }
+
+    private void browse() {
+        int page = ThreadLocalRandom.current().nextInt(10);
+        send("GET /books", client.get("/books?page=" + page + "&size=12"), null);
+    }
+
+    private void checkout(String token, List<Long> bookIds) {
+        long bookId = bookIds.get(ThreadLocalRandom.current().nextInt(bookIds.size()));
+        send("POST /cart/items", client.post("/cart/items", "{\"bookId\":" + bookId + ",\"quantity\":1}"), token);
+        send("POST /orders", client.post("/orders", "{\"shippingAddress\":{\"line1\":\"1 Load St\",\"city\":\"Leeds\","
+                + "\"postalCode\":\"LS1\",\"country\":\"UK\"}}"), token);
+    }
+
+    private void send(String name, HttpRequest.Builder request, String token) {
+        Recorder recorder = recorders.computeIfAbsent(name, k -> new Recorder());
+        long started = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, token);
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(System.nanoTime() - started, status);
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%-18s %9s %9s %8s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        new TreeMap<>(recorders).forEach((name, recorder) -> {
+            long[] latencies = recorder.sorted();
+            System.out.printf("%-18s %9d %9.1f %8d %8.1f %8.1f %8.1f %8.1f%n",
+                    name, latencies.length, latencies.length / seconds, recorder.errors(),
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    percentile(latencies, 1.0));
+        });
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    // Latencies of one endpoint; responses other than 2xx count as errors
+    private static class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private int errors;
+
+        synchronized void record(long nanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (status < 200 || status >= 300) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+    }
+}
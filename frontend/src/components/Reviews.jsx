@@ -2,7 +2,8 @@
  * Reviews.jsx - Book Reviews Component
  * 
  * Manages book reviews with:
- * - Display of all reviews for a book
+ * - Display of the newest reviews for a book
+ * - Star distribution from the server-side rating summary
  * - Add new review (rating + comment)
  * - Edit/delete own reviews
  * - Purchase verification before allowing review
@@ -16,6 +17,7 @@ import { FaStar, FaEdit, FaTrash } from 'react-icons/fa';
 
 const Reviews = ({ bookId }) => {
     const [reviews, setReviews] = useState([]);
+    const [summary, setSummary] = useState(null);
     const [loading, setLoading] = useState(true);
     const { user } = useAuth();
     const [newRating, setNewRating] = useState(5);
@@ -34,8 +36,9 @@ const Reviews = ({ bookId }) => {
 
     const fetchReviews = async () => {
         try {
-            const response = await api.get(`/books/${bookId}/reviews`);
-            setReviews(response.data.content || response.data);
+            const response = await api.get(`/books/${bookId}/reviews/summary`);
+            setSummary(response.data);
+            setReviews(response.data.reviews);
         } catch (error) {
             console.error(error);
         } finally {
@@ -100,6 +103,27 @@ const Reviews = ({ bookId }) => {
         <div className="mt-12 border-t dark:border-gray-700 pt-8">
             <h2 className="text-2xl font-bold mb-6 dark:text-white">Customer Reviews</h2>
 
+            {summary && summary.ratingCount > 0 && (
+                <div className="mb-8 max-w-md">
+                    <p className="text-gray-700 dark:text-gray-300 mb-3">
+                        <span className="text-3xl font-bold dark:text-white">{summary.ratingAverage.toFixed(1)}</span>
+                        <span className="ml-2">out of 5 ({summary.ratingCount} reviews)</span>
+                    </p>
+                    {[5, 4, 3, 2, 1].map(stars => {
+                        const count = summary.histogram[stars] || 0;
+                        return (
+                            <div key={stars} className="flex items-center space-x-2 text-sm">
+                                <span className="w-10 text-gray-600 dark:text-gray-400">{stars} star</span>
+                                <div className="flex-1 h-2 bg-gray-200 dark:bg-gray-700 rounded">
+                                    <div className="h-2 bg-yellow-400 rounded" style={{ width: `${(count * 100) / summary.ratingCount}%` }}></div>
+                                </div>
+                                <span className="w-8 text-right text-gray-500 dark:text-gray-400">{count}</span>
+                            </div>
+                        );
+                    })}
+                </div>
+            )}
+
             {user && (
                 <div className="bg-gray-50 dark:bg-gray-800 p-6 rounded-lg mb-8">
                     <h3 className="text-lg font-semibold mb-3 dark:text-white">Write a Review</h3>
@@ -186,7 +210,7 @@ const Reviews = ({ bookId }) => {
                                                 {new Date(review.createdAt).toLocaleDateString()}
                                             </span>
                                             {/* Edit/Delete Actions */}
-                                            {user && review.user?.email === user.email && (
+                                            {user && review.mine && (
                                                 <div className="flex space-x-3 mt-2">
                                                     <button
                                                         onClick={() => startEdit(review)}
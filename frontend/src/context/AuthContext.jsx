@@ -2,7 +2,7 @@
  * AuthContext.jsx - Authentication Context Provider
  * 
  * Manages user authentication state across the application:
- * - JWT token storage and validation
+ * - JWT access and refresh token storage and validation
  * - Login/Register/Logout functionality
  * - User session persistence via localStorage
  */
@@ -30,8 +30,9 @@ export const AuthProvider = ({ children }) => {
             try {
                 const decoded = jwtDecode(token);
 
-                // Check if token has expired
-                if (decoded.exp * 1000 < Date.now()) {
+                // An expired access token is only the end of the session without a refresh token;
+                // otherwise the API client renews it on the next request
+                if (decoded.exp * 1000 < Date.now() && !localStorage.getItem('refreshToken')) {
                     logout();
                 } else {
                     // Set user info from token payload
@@ -44,6 +45,17 @@ export const AuthProvider = ({ children }) => {
         setLoading(false);
     }, [token]);
 
+    // The API client gave up on refreshing: the session is over
+    useEffect(() => {
+        const onLogout = () => {
+            setToken(null);
+            setUser(null);
+            toast.info("Your session has expired. Please login again.");
+        };
+        window.addEventListener('auth:logout', onLogout);
+        return () => window.removeEventListener('auth:logout', onLogout);
+    }, []);
+
     /**
      * Authenticate user with email and password
      * @param {string} email - User email
@@ -53,8 +65,9 @@ export const AuthProvider = ({ children }) => {
     const login = async (email, password, captchaId, captchaAnswer) => {
         try {
             const response = await api.post('/auth/login', { email, password, captchaId, captchaAnswer });
-            const { token } = response.data;
+            const { token, refreshToken } = response.data;
             localStorage.setItem('token', token);
+            localStorage.setItem('refreshToken', refreshToken);
             setToken(token);
             toast.success("Logged in successfully!");
             return true;
@@ -86,19 +99,39 @@ export const AuthProvider = ({ children }) => {
         }
     }
 
+    /**
+     * Replace the stored tokens, e.g. with the ones issued after a password change
+     * (which revokes all earlier tokens)
+     * @param {string} newToken - JWT from the server
+     * @param {string} newRefreshToken - Refresh token from the server
+     */
+    const updateToken = (newToken, newRefreshToken) => {
+        localStorage.setItem('token', newToken);
+        localStorage.setItem('refreshToken', newRefreshToken);
+        setToken(newToken);
+    };
+
     /**
      * Log out the current user
-     * Clears token from storage and resets state
+     * Revokes the session on the server, clears tokens from storage and resets state
      */
     const logout = () => {
+        const accessToken = localStorage.getItem('token');
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (accessToken || refreshToken) {
+            api.post('/auth/logout', { refreshToken },
+                { headers: accessToken ? { Authorization: `Bearer ${accessToken}` } : {} })
+                .catch(() => { /* the tokens are dropped locally either way */ });
+        }
         localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
         setToken(null);
         setUser(null);
         toast.info("Logged out");
     };
 
     return (
-        <AuthContext.Provider value={{ user, token, login, logout, register, loading }}>
+        <AuthContext.Provider value={{ user, token, login, logout, register, updateToken, loading }}>
             {!loading && children}
         </AuthContext.Provider>
     );
@@ -106,6 +139,6 @@ export const AuthProvider = ({ children }) => {
 
 /**
  * Custom hook to access authentication context
- * @returns {Object} - Auth context value (user, token, login, logout, register, loading)
+ * @returns {Object} - Auth context value (user, token, login, logout, register, updateToken, loading)
  */
 export const useAuth = () => useContext(AuthContext);
@@ -5,6 +5,10 @@
  * - Base URL for backend API
  * - Request interceptor to attach JWT token to all requests
  * - Response interceptor for global error handling
+ * - Expired access tokens (401) are renewed once with the stored refresh
+ *   token and the request retried; concurrent 401s share one refresh
+ * - Checkout waiting room: queued checkout requests (429 + ticket) are retried
+ *   automatically after the server-provided Retry-After
  */
 
 import axios from 'axios';
@@ -12,6 +16,9 @@ import axios from 'axios';
 // API base URL - uses environment variable in production, fallback to localhost for development
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8081/api';
 
+// Give up waiting in the checkout queue after this long
+const MAX_QUEUE_WAIT_MS = 2 * 60 * 1000;
+
 // Create Axios instance with default configuration
 const api = axios.create({
     baseURL: API_BASE_URL,
@@ -20,6 +27,36 @@ const api = axios.create({
     },
 });
 
+// In-flight refresh shared by all requests that hit a 401 meanwhile
+let refreshPromise = null;
+
+/**
+ * Exchange the stored refresh token for a new token pair. Refresh tokens
+ * rotate on every use, so only one exchange may be in flight at a time.
+ * On failure both tokens are dropped and an 'auth:logout' event is fired.
+ */
+const refreshTokens = () => {
+    if (!refreshPromise) {
+        const refreshToken = localStorage.getItem('refreshToken');
+        refreshPromise = axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken })
+            .then((response) => {
+                localStorage.setItem('token', response.data.token);
+                localStorage.setItem('refreshToken', response.data.refreshToken);
+                return response.data.token;
+            })
+            .catch((error) => {
+                localStorage.removeItem('token');
+                localStorage.removeItem('refreshToken');
+                window.dispatchEvent(new Event('auth:logout'));
+                throw error;
+            })
+            .finally(() => {
+                refreshPromise = null;
+            });
+    }
+    return refreshPromise;
+};
+
 /**
  * Request Interceptor
  * Automatically attaches JWT token from localStorage to all outgoing requests
@@ -43,9 +80,27 @@ api.interceptors.request.use(
  */
 api.interceptors.response.use(
     (response) => response,
-    (error) => {
-        if (error.response && error.response.status === 401) {
-            // Handle unauthorized access if needed
+    async (error) => {
+        const config = error.config;
+
+        // Expired access token: refresh once and retry (auth endpoints answer 401 for bad credentials)
+        if (error.response?.status === 401 && config && !config.refreshRetried
+                && !config.url?.startsWith('/auth/') && localStorage.getItem('refreshToken')) {
+            config.refreshRetried = true;
+            const token = await refreshTokens();
+            config.headers.Authorization = `Bearer ${token}`;
+            return api(config);
+        }
+
+        // Checkout waiting room: wait our turn and retry with the same ticket
+        if (error.response?.status === 429 && error.response.headers['x-checkout-ticket'] && config) {
+            config.queueStartedAt = config.queueStartedAt || Date.now();
+            const retryAfter = parseInt(error.response.headers['retry-after'], 10) || 1;
+            if (Date.now() - config.queueStartedAt + retryAfter * 1000 <= MAX_QUEUE_WAIT_MS) {
+                await new Promise((resolve) => setTimeout(resolve, retryAfter * 1000));
+                config.headers['X-Checkout-Ticket'] = error.response.headers['x-checkout-ticket'];
+                return api(config);
+            }
         }
         return Promise.reject(error);
     }
@@ -14,7 +14,7 @@ import { useAuth } from '../context/AuthContext';
 import { toast } from 'react-toastify';
 
 const Profile = () => {
-    const { user, logout } = useAuth();
+    const { user, logout, updateToken } = useAuth();
     const [profile, setProfile] = useState({ firstName: '', lastName: '', email: '' });
     const [passwords, setPasswords] = useState({ oldPassword: '', newPassword: '', confirmNewPassword: '' });
     const [loading, setLoading] = useState(true);
@@ -60,10 +60,11 @@ const Profile = () => {
             return;
         }
         try {
-            await api.put('/users/me/password', {
+            const response = await api.put('/users/me/password', {
                 oldPassword: passwords.oldPassword,
                 newPassword: passwords.newPassword
             });
+            updateToken(response.data.token, response.data.refreshToken);
             toast.success("Password changed successfully");
             setPasswords({ oldPassword: '', newPassword: '', confirmNewPassword: '' });
         } catch (error) {